@@ -10,9 +10,16 @@
 import org.fcrepo.migration.validator.api.ReportHandler;
 import org.fcrepo.migration.validator.impl.F3SourceTypes;
 import org.fcrepo.migration.validator.impl.ApplicationConfigurationHelper;
+import org.fcrepo.migration.validator.impl.ChecksumCacheMode;
+import org.fcrepo.migration.validator.impl.ChecksumMode;
+import org.fcrepo.migration.validator.impl.CompareMode;
 import org.fcrepo.migration.validator.impl.F6DigestAlgorithm;
 import org.fcrepo.migration.validator.impl.Fedora3ValidationConfig;
 import org.fcrepo.migration.validator.impl.Fedora3ValidationExecutionManager;
+import org.fcrepo.migration.validator.impl.OcflCacheScope;
+import org.fcrepo.migration.validator.impl.ResultCompression;
+import org.fcrepo.migration.validator.impl.ResultFormat;
+import org.fcrepo.migration.validator.impl.ScheduleMode;
 import org.fcrepo.migration.validator.report.CsvReportHandler;
 import org.fcrepo.migration.validator.report.HtmlReportHandler;
 import org.fcrepo.migration.validator.report.ReportGeneratorImpl;
@@ -22,23 +29,26 @@
 import picocli.CommandLine;
 
 import java.io.File;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 
 import static org.slf4j.LoggerFactory.getLogger;
 import static picocli.CommandLine.Help.Visibility.ALWAYS;
 
-//TODO pull in version and git revision from generated property file
-
 /**
  * The command line tool entry point and parameter definitions
  * @author dbernstein
  */
 @CommandLine.Command(name = "fcrepo-migration-validator", mixinStandardHelpOptions = true, sortOptions = false,
-        version = "Fedora Migration Validator 1.3.0")
+        versionProvider = VersionProvider.class)
 public class Driver implements Callable<Integer> {
 
     private static final Logger LOGGER = getLogger(Driver.class);
 
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
     @CommandLine.Option(names = {"--source-type", "-s"}, required = true, order = 1,
             description = "Fedora 3 source type. Choices: akubra | legacy | exported")
     private F3SourceTypes f3SourceType;
@@ -94,6 +104,89 @@ public class Driver implements Callable<Integer> {
                                       "${COMPLETION-CANDIDATES}")
     private F6DigestAlgorithm algorithm;
 
+    @CommandLine.Option(names = {"--checksum-mode"}, order = 16, defaultValue = "single", showDefaultValue = ALWAYS,
+                        description = "Compare checksums against the Fedora 6 headers using --algorithm, " +
+                                      "hash each datastream once and compare against every recorded digest, or " +
+                                      "compare the FOXML digest with the Fedora 6 digests without reading " +
+                                      "content: ${COMPLETION-CANDIDATES}")
+    private ChecksumMode checksumMode;
+
+    @CommandLine.Option(names = {"--checksum-cache"}, order = 16, defaultValue = "off", showDefaultValue = ALWAYS,
+                        description = "Reuse digests of unchanged Fedora 3 datastream files from previous runs. " +
+                                      "verify checks the size, modified time, and inode of the file, trust only " +
+                                      "checks the path: ${COMPLETION-CANDIDATES}")
+    private ChecksumCacheMode checksumCacheMode;
+
+    @CommandLine.Option(names = {"--checksum-cache-file"}, order = 16,
+                        description = "The file holding the checksum cache. Defaults to checksum-cache.log in the " +
+                                      "results directory")
+    private File checksumCacheFile;
+
+    @CommandLine.Option(names = {"--checksum-memo-size"}, order = 16, defaultValue = "10000",
+                        showDefaultValue = ALWAYS,
+                        description = "The maximum number of source digests held in memory so that files shared " +
+                                      "by several datastreams are only hashed once per run. 0 disables the memo")
+    private long checksumMemoSize;
+
+    @CommandLine.Option(names = {"--verify-target"}, order = 16,
+                        description = "Hash the content files in the OCFL repository alongside the Fedora 3 " +
+                                      "datastreams and compare them with the source and recorded digests. " +
+                                      "Cannot be used with --checksum-mode recorded or --algorithm")
+    private boolean verifyTarget;
+
+    @CommandLine.Option(names = {"--compare-mode"}, order = 16, defaultValue = "digest", showDefaultValue = ALWAYS,
+                        description = "Compare datastreams by digest, or byte for byte with the OCFL content file " +
+                                      "when the datastream is a local file: ${COMPLETION-CANDIDATES}")
+    private CompareMode compareMode;
+
+    @CommandLine.Option(names = {"--source-read-rate"}, order = 17, defaultValue = "0", showDefaultValue = ALWAYS,
+                        description = "The maximum bytes per second read from Fedora 3 datastreams. 0 is unlimited")
+    private long sourceReadRate;
+
+    @CommandLine.Option(names = {"--source-iops"}, order = 17, defaultValue = "0", showDefaultValue = ALWAYS,
+                        description = "The maximum I/O operations per second against Fedora 3 datastreams. " +
+                                      "0 is unlimited")
+    private long sourceIops;
+
+    @CommandLine.Option(names = {"--target-read-rate"}, order = 17, defaultValue = "0", showDefaultValue = ALWAYS,
+                        description = "The maximum bytes per second read from OCFL content files. 0 is unlimited")
+    private long targetReadRate;
+
+    @CommandLine.Option(names = {"--target-iops"}, order = 17, defaultValue = "0", showDefaultValue = ALWAYS,
+                        description = "The maximum I/O operations per second against OCFL content files. " +
+                                      "0 is unlimited")
+    private long targetIops;
+
+    @CommandLine.Option(names = {"--io-lane-limit"}, order = 17, defaultValue = "0", showDefaultValue = ALWAYS,
+                        description = "The maximum number of concurrent reads against each storage device. " +
+                                      "0 is unlimited")
+    private int ioLaneLimit;
+
+    @CommandLine.Option(names = {"--io-lane"}, order = 17, paramLabel = "<path>=<limit>",
+                        description = "The maximum number of concurrent reads against the storage device holding " +
+                                      "a path, overriding --io-lane-limit. May be repeated")
+    private Map<File, Integer> ioLanes = Map.of();
+
+    @CommandLine.Option(names = {"--schedule"}, order = 17, defaultValue = "source", showDefaultValue = ALWAYS,
+                        description = "Dispatch objects in the order of the source, or pre-scan the source and " +
+                                      "dispatch the most expensive objects first: ${COMPLETION-CANDIDATES}")
+    private ScheduleMode scheduleMode;
+
+    @CommandLine.Option(names = {"--schedule-window"}, order = 17, defaultValue = "100", showDefaultValue = ALWAYS,
+                        description = "The number of the most expensive objects dispatched first with --schedule " +
+                                      "longest. Each is held open during the pre-scan")
+    private int scheduleWindow;
+
+    @CommandLine.Option(names = {"--datastream-threads"}, order = 17, defaultValue = "0", showDefaultValue = ALWAYS,
+                        description = "The number of threads shared by all objects to validate the datastreams of " +
+                                      "large objects in parallel. 0 validates each object on a single thread")
+    private int datastreamThreads;
+
+    @CommandLine.Option(names = {"--memory-budget"}, order = 17, defaultValue = "0", showDefaultValue = ALWAYS,
+                        description = "The estimated memory in megabytes which objects being validated may use at " +
+                                      "once. Objects larger than the budget run alone. 0 is unlimited")
+    private long memoryBudget;
+
     @CommandLine.Option(names = {"--head-only", "-H"}, order = 18,
                         description = "Validate only the most recent version of a datastream")
     private boolean validateHeadOnly;
@@ -115,10 +208,89 @@ public class Driver implements Callable<Integer> {
                         description = "Resume from last validated object")
     private boolean resume;
 
+    @CommandLine.Option(names = {"--incremental"}, order = 20,
+                        description = "Skip objects whose FOXML and OCFL inventory are unchanged since they were " +
+                                      "last validated, keeping their previous results")
+    private boolean incremental;
+
+    @CommandLine.Option(names = {"--watch"}, order = 20,
+                        description = "Validate each object of the source shortly after its OCFL object is " +
+                                      "written, so validation can run alongside the migration")
+    private boolean watch;
+
+    @CommandLine.Option(names = {"--watch-scan-interval"}, order = 20, defaultValue = "300",
+                        showDefaultValue = ALWAYS,
+                        description = "The number of seconds between scans of the OCFL root for new or updated " +
+                                      "objects in watch mode")
+    private long watchScanInterval;
+
+    @CommandLine.Option(names = {"--watch-idle-timeout"}, order = 20, defaultValue = "60",
+                        showDefaultValue = ALWAYS,
+                        description = "The number of minutes without new objects after which watch mode stops, " +
+                                      "even if some objects of the source were not written. 0 waits for every object")
+    private long watchIdleTimeout;
+
+    @CommandLine.Option(names = {"--time-budget"}, order = 20, defaultValue = "0", showDefaultValue = ALWAYS,
+                        description = "The number of minutes after which no more objects are validated. The objects " +
+                                      "being validated are completed and the run can be continued with --resume. " +
+                                      "0 is unlimited")
+    private long timeBudget;
+
+    @CommandLine.Option(names = {"--headers-cache-size"}, order = 21, defaultValue = "512",
+                        showDefaultValue = ALWAYS,
+                        description = "The maximum number of entries held by the OCFL headers cache")
+    private long headersCacheSize;
+
+    @CommandLine.Option(names = {"--headers-cache-max-weight"}, order = 22,
+                        description = "The approximate maximum number of bytes held by the OCFL headers cache. " +
+                                      "When set, this is used instead of --headers-cache-size")
+    private long headersCacheMaxWeight;
+
+    @CommandLine.Option(names = {"--headers-cache-scope"}, order = 23, defaultValue = "global",
+                        showDefaultValue = ALWAYS,
+                        description = "Share the OCFL headers cache between all objects, or create one per object: " +
+                                      "${COMPLETION-CANDIDATES}")
+    private OcflCacheScope headersCacheScope;
+
+    @CommandLine.Option(names = {"--root-id-cache-size"}, order = 24, defaultValue = "512",
+                        showDefaultValue = ALWAYS,
+                        description = "The maximum number of entries held by the OCFL root id cache")
+    private long rootIdCacheSize;
+
+    @CommandLine.Option(names = {"--cache-expiry"}, order = 25, defaultValue = "10", showDefaultValue = ALWAYS,
+                        description = "The number of minutes after last access that OCFL cache entries expire")
+    private long cacheExpiryMinutes;
+
     @CommandLine.Option(names = {"--failure-only"}, order = 28,
                         description = "Report only objects which have failed validations.")
     private boolean failureOnly;
 
+    @CommandLine.Option(names = {"--result-format"}, order = 28, defaultValue = "json", showDefaultValue = ALWAYS,
+                        description = "Write each validation result as a json file, or append results to compact " +
+                                      "binary segments which can be converted with ResultsConverter: " +
+                                      "${COMPLETION-CANDIDATES}")
+    private ResultFormat resultFormat;
+
+    @CommandLine.Option(names = {"--result-compression"}, order = 28, defaultValue = "gzip",
+                        showDefaultValue = ALWAYS,
+                        description = "The compression of the blocks of binary result segments: " +
+                                      "${COMPLETION-CANDIDATES}")
+    private ResultCompression resultCompression;
+
+    @CommandLine.Option(names = {"--revalidate-failures"}, order = 28,
+                        description = "Validate only the objects which failed in the previous run, found in " +
+                                      "<results-dir>/failed-objects.log, replacing their results")
+    private boolean revalidateFailures;
+
+    @CommandLine.Option(names = {"--serve"}, order = 29,
+                        description = "Run as a server which keeps the OCFL repository, source index, and caches " +
+                                      "warm, and accepts validation jobs over HTTP on the loopback interface")
+    private boolean serve;
+
+    @CommandLine.Option(names = {"--port"}, order = 29, defaultValue = "8089", showDefaultValue = ALWAYS,
+                        description = "The port the server listens on with --serve")
+    private int port;
+
     @CommandLine.Option(names = {"--debug"}, order = 30, description = "Enables debug logging")
     private boolean debug;
 
@@ -133,6 +305,7 @@ public Integer call() {
         if (debug) {
             setDebugLogLevel();
         }
+        checkChecksumOptions();
 
         final var config = new Fedora3ValidationConfig();
         config.setSourceType(f3SourceType);
@@ -140,6 +313,22 @@ public Integer call() {
         config.setCheckNumObjects(checkNumberOfObjects);
         config.setValidateHeadOnly(validateHeadOnly);
         config.setDigestAlgorithm(algorithm);
+        config.setChecksumMode(checksumMode);
+        config.setChecksumCacheMode(checksumCacheMode);
+        config.setChecksumCacheFile(checksumCacheFile);
+        config.setChecksumMemoSize(checksumMemoSize);
+        config.setVerifyTarget(verifyTarget);
+        config.setCompareMode(compareMode);
+        config.setSourceReadRate(sourceReadRate);
+        config.setSourceIops(sourceIops);
+        config.setTargetReadRate(targetReadRate);
+        config.setTargetIops(targetIops);
+        config.setIoLaneLimit(ioLaneLimit);
+        config.setIoLanes(ioLanes);
+        config.setScheduleMode(scheduleMode);
+        config.setScheduleWindow(scheduleWindow);
+        config.setDatastreamThreads(datastreamThreads);
+        config.setMemoryBudget(memoryBudget);
         config.setDatastreamsDirectory(f3DatastreamsDir);
         config.setIndexDirectory(indexDir);
         config.setObjectsDirectory(f3ObjectsDir);
@@ -151,31 +340,122 @@ public Integer call() {
         config.setObjectsToValidate(objectsToValidate);
         config.setDeleteInactive(deleteInactive);
         config.setFailureOnly(failureOnly);
+        config.setResultFormat(resultFormat);
+        config.setResultCompression(resultCompression);
         config.setLimit(limit);
         config.setResume(resume);
+        config.setRevalidateFailures(revalidateFailures);
+        config.setIncremental(incremental);
+        config.setWatch(watch);
+        config.setWatchScanInterval(watchScanInterval);
+        config.setWatchIdleTimeout(watchIdleTimeout);
+        config.setTimeBudget(timeBudget);
+        config.setHeadersCacheSize(headersCacheSize);
+        config.setHeadersCacheMaxWeight(headersCacheMaxWeight);
+        config.setHeadersCacheScope(headersCacheScope);
+        config.setRootIdCacheSize(rootIdCacheSize);
+        config.setCacheExpiryMinutes(cacheExpiryMinutes);
         LOGGER.info("Configuration created: {}", config);
 
+        if (serve) {
+            return new ValidationServer(config, reportType, port).run();
+        }
+
         LOGGER.info("Preparing to execute validation run...");
         final var executionManager = new Fedora3ValidationExecutionManager(new ApplicationConfigurationHelper(config));
-        final var completedRun = executionManager.doValidation();
+        final var finished = new CountDownLatch(1);
+        final var stopOnShutdown = new Thread(() -> stopRun(executionManager, finished));
+        Runtime.getRuntime().addShutdownHook(stopOnShutdown);
+        try {
+            final var completedRun = executionManager.doValidation();
+            if (incremental) {
+                LOGGER.info("Skipped {} objects which were unchanged since they were last validated",
+                            executionManager.getNumSkipped());
+            }
+            if (executionManager.isStopped()) {
+                LOGGER.warn("The run was stopped after validating {} objects, run again with --resume to continue",
+                            executionManager.getNumProcessed());
+            }
 
-        if (completedRun) {
-            final ReportHandler reportHandler;
-            if (reportType == ReportType.html) {
-                reportHandler = new HtmlReportHandler(config.getReportDirectory(reportType),
-                                                      executionManager.getNumProcessed());
+            if (completedRun) {
+                generateReport(config, reportType, executionManager.getNumProcessed());
             } else {
-                reportHandler = new CsvReportHandler(config.getReportDirectory(reportType), reportType);
+                LOGGER.warn("Skipping report writing due to exception");
             }
-            LOGGER.info("Starting report generation");
-            final var generator = new ReportGeneratorImpl(config.getJsonOutputDirectory(), reportHandler);
-            final var summaryFile = generator.generate();
-            LOGGER.info("Validation report summary written to: {}", summaryFile);
-        } else {
-            LOGGER.warn("Skipping report writing due to exception");
+
+            return completedRun ? 0 : 1;
+        } finally {
+            finished.countDown();
+            removeShutdownHook(stopOnShutdown);
+        }
+    }
+
+    /**
+     * --verify-target hashes the content files with the algorithm of every recorded digest, so it replaces the
+     * comparison selected by --checksum-mode recorded or by --algorithm. Reject the combination rather than silently
+     * running a different validation than the one requested.
+     */
+    private void checkChecksumOptions() {
+        if (!verifyTarget) {
+            return;
+        }
+        if (checksumMode == ChecksumMode.recorded) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                "--verify-target reads the content files and cannot be used with --checksum-mode recorded");
+        }
+        if (spec.commandLine().getParseResult().hasMatchedOption("--algorithm")) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                "--verify-target compares every recorded digest and cannot be used with --algorithm");
         }
+    }
 
-        return completedRun ? 0 : 1;
+    /**
+     * On SIGTERM, stop the run and hold the JVM open until the objects being validated are complete and the results,
+     * resume file, and report are written
+     *
+     * @param executionManager the run
+     * @param finished released once the run is finished
+     */
+    private static void stopRun(final Fedora3ValidationExecutionManager executionManager,
+                                final CountDownLatch finished) {
+        executionManager.stop();
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void removeShutdownHook(final Thread hook) {
+        try {
+            Runtime.getRuntime().removeShutdownHook(hook);
+        } catch (IllegalStateException e) {
+            // the JVM is shutting down, the hook is waiting for this run
+        }
+    }
+
+    /**
+     * Generate the report of the results of a run
+     *
+     * @param config the config of the run
+     * @param reportType the type of report
+     * @param numProcessed the number of objects validated by the run
+     * @return the path of the report summary
+     */
+    static String generateReport(final Fedora3ValidationConfig config, final ReportType reportType,
+                                 final long numProcessed) {
+        final ReportHandler reportHandler;
+        if (reportType == ReportType.html) {
+            reportHandler = new HtmlReportHandler(config.getReportDirectory(reportType), numProcessed);
+        } else {
+            reportHandler = new CsvReportHandler(config.getReportDirectory(reportType), reportType);
+        }
+        LOGGER.info("Starting report generation");
+        final var generator = new ReportGeneratorImpl(config.getResultOutputDirectory(), reportHandler,
+                                                      config.getResultFormat());
+        final var summaryFile = generator.generate();
+        LOGGER.info("Validation report summary written to: {}", summaryFile);
+        return summaryFile;
     }
 
     /**
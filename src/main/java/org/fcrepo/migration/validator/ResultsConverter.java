@@ -0,0 +1,92 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator;
+
+import static org.slf4j.LoggerFactory.getLogger;
+import static picocli.CommandLine.Help.Visibility.ALWAYS;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.impl.BinaryValidationResultReader;
+import org.fcrepo.migration.validator.impl.FileSystemValidationResultWriter;
+import org.fcrepo.migration.validator.report.CsvReportHandler;
+import org.slf4j.Logger;
+import picocli.CommandLine;
+
+/**
+ * Converts validation results written with --result-format binary into a readable format. The json format recreates
+ * the layout of --result-format json, so the results can also be used by other tooling which reads it.
+ *
+ * @author mikejritter
+ */
+@CommandLine.Command(name = "fcrepo-migration-validator-convert", mixinStandardHelpOptions = true,
+        sortOptions = false, versionProvider = VersionProvider.class)
+public class ResultsConverter implements Callable<Integer> {
+
+    private static final Logger LOGGER = getLogger(ResultsConverter.class);
+
+    /**
+     * The formats results can be converted to
+     */
+    public enum Format {
+        json, csv, tsv
+    }
+
+    @CommandLine.Option(names = {"--input", "-i"}, required = true, order = 1,
+                        description = "Directory containing the binary result segments, e.g. <results-dir>/binary")
+    private File input;
+
+    @CommandLine.Option(names = {"--output", "-o"}, required = true, order = 2,
+                        description = "Directory to write json results to, or the file to write csv or tsv to")
+    private File output;
+
+    @CommandLine.Option(names = {"--format", "-f"}, order = 3, defaultValue = "json", showDefaultValue = ALWAYS,
+                        description = "The format to convert the results to: ${COMPLETION-CANDIDATES}")
+    private Format format;
+
+    @Override
+    public Integer call() throws IOException {
+        final var reader = new BinaryValidationResultReader();
+        if (format == Format.json) {
+            final var writer = new FileSystemValidationResultWriter(output.toPath(), false);
+            reader.readAll(input.toPath(), writer::accept);
+        } else {
+            final var mapper = CsvMapper.builder()
+                                        .addMixIn(ValidationResult.class, CsvReportHandler.ValidationResultMixin.class)
+                                        .build();
+            final var schema = mapper.schemaFor(ValidationResult.class)
+                                     .withHeader()
+                                     .withColumnSeparator(format == Format.csv ? ',' : '\t');
+            try (var fileWriter = Files.newBufferedWriter(output.toPath());
+                 var csvWriter = mapper.writer(schema).writeValues(fileWriter)) {
+                for (final var segment : reader.segments(input.toPath())) {
+                    reader.read(segment, result -> {
+                        try {
+                            csvWriter.write(result);
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    });
+                }
+            }
+        }
+
+        LOGGER.info("Converted results in {} to {}", input, output);
+        return 0;
+    }
+
+    /**
+     * @param args Command line arguments
+     */
+    public static void main(final String[] args) {
+        System.exit(new CommandLine(new ResultsConverter()).execute(args));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fcrepo.migration.validator.impl.BinaryValidationResultReader;
+import picocli.CommandLine;
+
+/**
+ * Prints the validation results of individual objects written with --result-format binary. The segment indexes are
+ * read once for all of the objects, and only the blocks which they list for the objects are decompressed. Exits with
+ * 1 if an object has no results.
+ *
+ * @author mikejritter
+ */
+@CommandLine.Command(name = "fcrepo-migration-validator-lookup", mixinStandardHelpOptions = true,
+        sortOptions = false, versionProvider = VersionProvider.class)
+public class ResultsLookup implements Callable<Integer> {
+
+    @CommandLine.Option(names = {"--input", "-i"}, required = true, order = 1,
+                        description = "Directory containing the binary result segments, e.g. <results-dir>/binary")
+    private File input;
+
+    @CommandLine.Option(names = {"--pid", "-p"}, required = true, order = 2,
+                        description = "The PID of a Fedora 3 object to print the results of. May be repeated")
+    private List<String> pids;
+
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
+    @Override
+    public Integer call() {
+        final var reader = new BinaryValidationResultReader();
+        final var objectMapper = new ObjectMapper();
+        final var out = spec.commandLine().getOut();
+        final var found = new HashSet<String>();
+        reader.lookup(input.toPath(), pids, result -> {
+            try {
+                out.println(objectMapper.writeValueAsString(result));
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException(e);
+            }
+            found.add(result.getSourceObjectId());
+        });
+        out.flush();
+
+        var missing = 0;
+        for (final var pid : pids) {
+            if (!found.contains(pid)) {
+                spec.commandLine().getErr().println("No results found for " + pid);
+                missing++;
+            }
+        }
+        return missing == 0 ? 0 : 1;
+    }
+
+    /**
+     * @param args Command line arguments
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Parses and runs the command without terminating the JVM.
+     *
+     * @param args Command line arguments
+     * @return the exit code of the run
+     */
+    static int run(final String[] args) {
+        return new CommandLine(new ResultsLookup()).execute(args);
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.fcrepo.migration.validator.impl.ApplicationConfigurationHelper;
+import org.fcrepo.migration.validator.impl.Fedora3ObjectValidator;
+import org.fcrepo.migration.validator.impl.Fedora3ValidationConfig;
+import org.fcrepo.migration.validator.impl.Fedora3ValidationExecutionManager;
+import org.fcrepo.migration.validator.report.ReportType;
+import org.slf4j.Logger;
+
+/**
+ * A long running validator which keeps the OCFL repository, an index of the Fedora 3 source, and the OCFL and
+ * checksum caches warm between jobs. Jobs are accepted over HTTP on the loopback interface:
+ *
+ * POST /validate validates the PIDs in the body, one per line, and streams each result back as a line of json. The
+ * results are not written to the results directory.
+ *
+ * POST /runs starts a full run with the options the server was started with and streams its progress as lines of
+ * json until it completes and its report is written. GET /runs returns the progress of the current or last run.
+ *
+ * POST /report regenerates the report from the results directory.
+ *
+ * Requests are only accepted with a loopback Host, and a loopback Origin if they have one, so a web page cannot reach
+ * the server through the browser, e.g. by rebinding its own host name to the loopback address.
+ *
+ * @author mikejritter
+ */
+public class ValidationServer {
+
+    private static final Logger LOGGER = getLogger(ValidationServer.class);
+
+    private static final String JSON_LINES = "application/x-ndjson";
+    private static final long PROGRESS_INTERVAL_MILLIS = 1000;
+    private static final Set<String> LOOPBACK_HOSTS = Set.of("localhost", "127.0.0.1", "[::1]");
+
+    private final Fedora3ValidationConfig config;
+    private final ReportType reportType;
+    private final int port;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService runExecutor;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private ApplicationConfigurationHelper helper;
+    private Map<String, Path> sourceIndex;
+    private HttpServer server;
+    private volatile Fedora3ValidationExecutionManager run;
+    private volatile Future<?> runFuture;
+    private volatile String runState = "idle";
+    private volatile String runReport;
+
+    /**
+     * Constructor
+     *
+     * @param config the config of the validation runs
+     * @param reportType the type of report written after a run
+     * @param port the port to listen on
+     */
+    public ValidationServer(final Fedora3ValidationConfig config, final ReportType reportType, final int port) {
+        this(config, reportType, port, Executors.newSingleThreadExecutor());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param config the config of the validation runs
+     * @param reportType the type of report written after a run
+     * @param port the port to listen on, or 0 for any free port
+     * @param runExecutor the executor running one run at a time
+     */
+    ValidationServer(final Fedora3ValidationConfig config, final ReportType reportType, final int port,
+                     final ExecutorService runExecutor) {
+        this.config = config;
+        this.reportType = reportType;
+        this.port = port;
+        this.runExecutor = runExecutor;
+    }
+
+    /**
+     * Start the server and wait until the JVM is shut down
+     *
+     * @return the exit code
+     */
+    public int run() {
+        start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop));
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    /**
+     * Warm up the shared components, index the source, and start listening
+     */
+    public void start() {
+        helper = new ApplicationConfigurationHelper(config);
+        helper.ocflRepository();
+        helper.ocflObjectSessionFactory();
+
+        LOGGER.info("Indexing the Fedora 3 source");
+        final var index = new HashMap<String, Path>();
+        for (final var objectProcessor : helper.objectSource()) {
+            final var info = objectProcessor.getObjectInfo();
+            index.put(info.getPid(), info.getFoxmlPath());
+            objectProcessor.close();
+        }
+        sourceIndex = index;
+        LOGGER.info("Indexed {} objects", sourceIndex.size());
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to listen on port " + port, e);
+        }
+        server.createContext("/validate", handler("POST", this::validate));
+        server.createContext("/runs", exchange -> {
+            if ("GET".equals(exchange.getRequestMethod())) {
+                handler("GET", this::runStatus).handle(exchange);
+            } else {
+                handler("POST", this::startRun).handle(exchange);
+            }
+        });
+        server.createContext("/report", handler("POST", this::report));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        LOGGER.info("Validation server listening on {}", server.getAddress());
+    }
+
+    /**
+     * Stop listening and close the shared components
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+            ((ExecutorService) server.getExecutor()).shutdown();
+        }
+        runExecutor.shutdownNow();
+        try {
+            runExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (helper != null) {
+            helper.shutdownTargetExecutor();
+            helper.shutdownDatastreamExecutor();
+            helper.deleteLinkedObjects();
+            try {
+                helper.checksumCache().close();
+            } catch (IOException e) {
+                LOGGER.error("Failed to close checksum cache", e);
+            }
+        }
+        stopped.countDown();
+    }
+
+    /**
+     * @return the address the server is listening on
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void validate(final HttpExchange exchange) throws IOException {
+        final var pids = new ArrayList<String>();
+        try (var reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), UTF_8))) {
+            reader.lines().map(String::trim).filter(line -> !line.isEmpty()).forEach(pids::add);
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", JSON_LINES);
+        exchange.sendResponseHeaders(200, 0);
+        try (var out = exchange.getResponseBody()) {
+            final var foxml = new HashMap<String, Path>();
+            for (final var pid : pids) {
+                final var path = sourceIndex.get(pid);
+                if (path == null) {
+                    writeLine(out, Map.of("pid", pid, "error", "Not found in the Fedora 3 source"));
+                } else {
+                    foxml.put(pid, path);
+                }
+            }
+            if (foxml.isEmpty()) {
+                return;
+            }
+
+            final var linkedObjects = helper.linkObjects(foxml);
+            try {
+                final var validator = new Fedora3ObjectValidator(helper.ocflObjectSessionFactory(),
+                                                                 helper.getObjectValidationConfig());
+                for (final var objectProcessor : helper.objectSource(linkedObjects)) {
+                    LOGGER.info("Validating {} for a client", objectProcessor.getObjectInfo().getPid());
+                    validator.validate(objectProcessor, result -> writeLine(out, result));
+                }
+            } finally {
+                helper.deleteLinkedObjects(linkedObjects);
+            }
+        }
+    }
+
+    private void startRun(final HttpExchange exchange) throws IOException {
+        final Future<?> future;
+        synchronized (this) {
+            if (runFuture != null && !runFuture.isDone()) {
+                sendJson(exchange, 409, status());
+                return;
+            }
+            future = submitRun();
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", JSON_LINES);
+        exchange.sendResponseHeaders(202, 0);
+        try (var out = exchange.getResponseBody()) {
+            while (!future.isDone()) {
+                writeLine(out, status());
+                Thread.sleep(PROGRESS_INTERVAL_MILLIS);
+            }
+            writeLine(out, status());
+        } catch (RuntimeException | InterruptedException e) {
+            // the client went away, the run continues
+            LOGGER.debug("Stopped streaming the progress of the run", e);
+        }
+    }
+
+    private Future<?> submitRun() {
+        // every run reads the resume file and indexes again, as the previous run closed them
+        helper.newRun();
+        final var manager = new Fedora3ValidationExecutionManager(helper, false);
+        run = manager;
+        runState = "running";
+        runReport = null;
+        runFuture = runExecutor.submit(() -> {
+            try {
+                if (manager.doValidation()) {
+                    runReport = Driver.generateReport(config, reportType, manager.getNumProcessed());
+                    runState = "completed";
+                } else {
+                    runState = "failed";
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Validation run failed", e);
+                runState = "failed";
+            }
+        });
+        return runFuture;
+    }
+
+    private void runStatus(final HttpExchange exchange) throws IOException {
+        sendJson(exchange, 200, status());
+    }
+
+    private synchronized void report(final HttpExchange exchange) throws IOException {
+        if (runFuture != null && !runFuture.isDone()) {
+            sendJson(exchange, 409, status());
+            return;
+        }
+
+        final var summary = Driver.generateReport(config, reportType, run == null ? 0 : run.getNumProcessed());
+        sendJson(exchange, 200, Map.of("report", summary));
+    }
+
+    private Map<String, Object> status() {
+        final var status = new LinkedHashMap<String, Object>();
+        status.put("state", runState);
+        final var current = run;
+        if (current != null) {
+            status.put("processed", current.getNumProcessed());
+            status.put("skipped", current.getNumSkipped());
+        }
+        if (runReport != null) {
+            status.put("report", runReport);
+        }
+        return status;
+    }
+
+    private void writeLine(final OutputStream out, final Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to write to the client", e);
+        }
+    }
+
+    private void sendJson(final HttpExchange exchange, final int status, final Object value) throws IOException {
+        final var body = objectMapper.writeValueAsBytes(value);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private HttpHandler handler(final String method, final Job job) {
+        return exchange -> {
+            try {
+                if (!isLoopback(exchange)) {
+                    LOGGER.warn("Rejected {} {} for Host {} and Origin {}", exchange.getRequestMethod(),
+                                exchange.getRequestURI(), exchange.getRequestHeaders().getFirst("Host"),
+                                exchange.getRequestHeaders().getFirst("Origin"));
+                    sendJson(exchange, 403, Map.of("error", "Only loopback hosts are accepted"));
+                    return;
+                } else if (!method.equals(exchange.getRequestMethod())) {
+                    sendJson(exchange, 405, Map.of("error", "Use " + method));
+                    return;
+                }
+                job.handle(exchange);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Failed to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    /**
+     * @param exchange the request
+     * @return true if the request names a loopback host, and comes from a loopback origin if it has one
+     */
+    private static boolean isLoopback(final HttpExchange exchange) {
+        final var host = exchange.getRequestHeaders().getFirst("Host");
+        if (host == null || !LOOPBACK_HOSTS.contains(hostName(host))) {
+            return false;
+        }
+
+        final var origin = exchange.getRequestHeaders().getFirst("Origin");
+        if (origin == null) {
+            return true;
+        }
+        try {
+            final var authority = URI.create(origin).getRawAuthority();
+            return authority != null && LOOPBACK_HOSTS.contains(hostName(authority));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param authority a host with an optional port
+     * @return the host, lower cased
+     */
+    private static String hostName(final String authority) {
+        final var end = authority.startsWith("[") ? authority.indexOf(']') + 1 : authority.lastIndexOf(':');
+        return (end > 0 ? authority.substring(0, end) : authority).toLowerCase();
+    }
+
+    /**
+     * A job run for a request
+     */
+    @FunctionalInterface
+    private interface Job {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+}
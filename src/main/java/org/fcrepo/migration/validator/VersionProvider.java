@@ -0,0 +1,25 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator;
+
+import picocli.CommandLine;
+
+//TODO pull in version and git revision from generated property file
+
+/**
+ * The version printed by each of the command line tools
+ *
+ * @author mikejritter
+ */
+public class VersionProvider implements CommandLine.IVersionProvider {
+
+    public static final String VERSION = "Fedora Migration Validator 1.3.0";
+
+    @Override
+    public String[] getVersion() {
+        return new String[] {VERSION};
+    }
+}
@@ -7,9 +7,18 @@
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.concurrent.Executor;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import io.ocfl.api.OcflRepository;
+import org.fcrepo.migration.validator.impl.ChecksumCache;
+import org.fcrepo.migration.validator.impl.ChecksumCacheMode;
+import org.fcrepo.migration.validator.impl.ChecksumMode;
+import org.fcrepo.migration.validator.impl.CompareMode;
 import org.fcrepo.migration.validator.impl.F6DigestAlgorithm;
+import org.fcrepo.migration.validator.impl.IoLanes;
+import org.fcrepo.migration.validator.impl.IoThrottle;
+import org.fcrepo.migration.validator.impl.OcflInventoryReader;
 
 /**
  * Hold some configuration options for validation objects
@@ -24,6 +33,17 @@ public class ObjectValidationConfig {
     private final boolean validateHeadOnly;
     private final OcflRepository ocflRepository;
     private final F6DigestAlgorithm digestAlgorithm;
+    private final OcflInventoryReader inventoryReader;
+    private ChecksumMode checksumMode = ChecksumMode.single;
+    private ChecksumCache checksumCache = new ChecksumCache(null, ChecksumCacheMode.off);
+    private boolean verifyTarget;
+    private CompareMode compareMode = CompareMode.digest;
+    private Executor targetExecutor = MoreExecutors.directExecutor();
+    private IoThrottle sourceThrottle = IoThrottle.unlimited("source");
+    private IoThrottle targetThrottle = IoThrottle.unlimited("target");
+    private IoLanes ioLanes = IoLanes.unlimited();
+    private int datastreamThreads;
+    private Executor datastreamExecutor = MoreExecutors.directExecutor();
 
     public ObjectValidationConfig(final File ocflRoot,
                                   final boolean checksum,
@@ -37,6 +57,7 @@ public ObjectValidationConfig(final File ocflRoot,
         this.validateHeadOnly = validateHeadOnly;
         this.ocflRepository = ocflRepository;
         this.digestAlgorithm = digestAlgorithm;
+        this.inventoryReader = new OcflInventoryReader(this.ocflRoot);
     }
 
     public Path getOcflRoot() {
@@ -62,4 +83,128 @@ public OcflRepository getOcflRepository() {
     public F6DigestAlgorithm getDigestAlgorithm() {
         return digestAlgorithm;
     }
+
+    public OcflInventoryReader getInventoryReader() {
+        return inventoryReader;
+    }
+
+    public ChecksumMode getChecksumMode() {
+        return checksumMode;
+    }
+
+    /**
+     * @param checksumMode how datastream checksums are validated
+     */
+    public ObjectValidationConfig setChecksumMode(final ChecksumMode checksumMode) {
+        this.checksumMode = checksumMode;
+        return this;
+    }
+
+    public ChecksumCache getChecksumCache() {
+        return checksumCache;
+    }
+
+    /**
+     * @param checksumCache the cache of source datastream digests
+     */
+    public ObjectValidationConfig setChecksumCache(final ChecksumCache checksumCache) {
+        this.checksumCache = checksumCache;
+        return this;
+    }
+
+    public boolean isVerifyTarget() {
+        return verifyTarget;
+    }
+
+    /**
+     * @param verifyTarget hash the content files in the OCFL repository along with the source datastreams
+     */
+    public ObjectValidationConfig setVerifyTarget(final boolean verifyTarget) {
+        this.verifyTarget = verifyTarget;
+        return this;
+    }
+
+    public Executor getTargetExecutor() {
+        return targetExecutor;
+    }
+
+    /**
+     * @param targetExecutor the executor used to read content files in the OCFL repository
+     */
+    public ObjectValidationConfig setTargetExecutor(final Executor targetExecutor) {
+        this.targetExecutor = targetExecutor;
+        return this;
+    }
+
+    public CompareMode getCompareMode() {
+        return compareMode;
+    }
+
+    /**
+     * @param compareMode how datastream content is compared with the OCFL content files
+     */
+    public ObjectValidationConfig setCompareMode(final CompareMode compareMode) {
+        this.compareMode = compareMode;
+        return this;
+    }
+
+    public IoThrottle getSourceThrottle() {
+        return sourceThrottle;
+    }
+
+    /**
+     * @param sourceThrottle the throttle for reads of Fedora 3 datastreams
+     */
+    public ObjectValidationConfig setSourceThrottle(final IoThrottle sourceThrottle) {
+        this.sourceThrottle = sourceThrottle;
+        return this;
+    }
+
+    public IoThrottle getTargetThrottle() {
+        return targetThrottle;
+    }
+
+    /**
+     * @param targetThrottle the throttle for reads of OCFL content files
+     */
+    public ObjectValidationConfig setTargetThrottle(final IoThrottle targetThrottle) {
+        this.targetThrottle = targetThrottle;
+        return this;
+    }
+
+    public IoLanes getIoLanes() {
+        return ioLanes;
+    }
+
+    /**
+     * @param ioLanes the concurrency limits of each storage device
+     */
+    public ObjectValidationConfig setIoLanes(final IoLanes ioLanes) {
+        this.ioLanes = ioLanes;
+        return this;
+    }
+
+    public int getDatastreamThreads() {
+        return datastreamThreads;
+    }
+
+    /**
+     * @param datastreamThreads the maximum number of partitions the datastreams of an object are split into
+     */
+    public ObjectValidationConfig setDatastreamThreads(final int datastreamThreads) {
+        this.datastreamThreads = datastreamThreads;
+        return this;
+    }
+
+    public Executor getDatastreamExecutor() {
+        return datastreamExecutor;
+    }
+
+    /**
+     * @param datastreamExecutor the executor used to validate partitions of datastreams in parallel
+     */
+    public ObjectValidationConfig setDatastreamExecutor(final Executor datastreamExecutor) {
+        this.datastreamExecutor = datastreamExecutor;
+        return this;
+    }
 }
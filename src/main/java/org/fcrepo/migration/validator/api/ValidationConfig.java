@@ -80,6 +80,13 @@ public Path getJsonOutputDirectory() {
         return getResultsDirectory().resolve("json");
     }
 
+    /**
+     * @return the directory holding the result segments written in the binary format
+     */
+    public Path getBinaryOutputDirectory() {
+        return getResultsDirectory().resolve("binary");
+    }
+
     /**
      *
      * @return
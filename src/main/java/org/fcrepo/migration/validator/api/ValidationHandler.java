@@ -13,22 +13,30 @@
 import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.BINARY_SIZE;
 import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.METADATA;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
-import com.google.common.hash.Funnels;
 import com.google.common.hash.HashCode;
-import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.ocfl.api.model.OcflObjectVersion;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
@@ -41,8 +49,18 @@
 import org.fcrepo.migration.ObjectInfo;
 import org.fcrepo.migration.ObjectProperty;
 import org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel;
+import org.fcrepo.migration.validator.impl.ChecksumAlgorithm;
+import org.fcrepo.migration.validator.impl.ChecksumCache;
+import org.fcrepo.migration.validator.impl.ChecksumCacheMode;
+import org.fcrepo.migration.validator.impl.ChecksumMode;
+import org.fcrepo.migration.validator.impl.CompareMode;
+import org.fcrepo.migration.validator.impl.ContentComparator;
 import org.fcrepo.migration.validator.impl.F3ControlGroup;
 import org.fcrepo.migration.validator.impl.F6DigestAlgorithm;
+import org.fcrepo.migration.validator.impl.IoLanes;
+import org.fcrepo.migration.validator.impl.IoThrottle;
+import org.fcrepo.migration.validator.impl.MultiDigester;
+import org.fcrepo.migration.validator.impl.RecordedDigest;
 import org.fcrepo.storage.ocfl.ResourceHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,6 +73,10 @@
  * - F3 datastream created date against ocfl headers
  * - F3 datastream last modified date against ocfl headers
  * - F3 checksum against ocfl object on disk
+ * - F3 checksum against every digest recorded in the ocfl headers, ocfl inventory, and FOXML
+ * - F3 FOXML digest against the digests recorded in the ocfl headers and ocfl inventory
+ * - F3 checksum and recorded digests against the ocfl object on disk
+ * - F3 datastream content against the ocfl object on disk, byte for byte
  *
  * @author mikejritter
  */
@@ -142,11 +164,44 @@ public ValidationResult ok(final ValidationResult.ValidationType type, final Str
                                         targetObjectId, sourceResource, targetResource, details);
         }
 
+        /**
+         * Create a passing result whose details are only formatted if they are read
+         *
+         * @param type the validation type
+         * @param template the format string of the details
+         * @param args the arguments of the format string
+         * @return the ValidationResult
+         */
+        public ValidationResult ok(final ValidationResult.ValidationType type,
+                                   final String template,
+                                   final Object... args) {
+            return new ValidationResult(index.getAndIncrement(), OK, validationLevel, type, sourceObjectId,
+                                        targetObjectId, sourceResource, targetResource, template, args);
+        }
+
         public ValidationResult fail(final ValidationResult.ValidationType type, final String details) {
             LOGGER.info("[{}] {} validation failed: {}", sourceObjectId, type, details);
             return new ValidationResult(index.getAndIncrement(), FAIL, validationLevel, type, sourceObjectId,
                                         targetObjectId, sourceResource, targetResource, details);
         }
+
+        /**
+         * Create a failing result whose details are formatted from a template
+         *
+         * @param type the validation type
+         * @param template the format string of the details
+         * @param args the arguments of the format string
+         * @return the ValidationResult
+         */
+        public ValidationResult fail(final ValidationResult.ValidationType type,
+                                     final String template,
+                                     final Object... args) {
+            final var result = new ValidationResult(index.getAndIncrement(), FAIL, validationLevel, type,
+                                                    sourceObjectId, targetObjectId, sourceResource, targetResource,
+                                                    template, args);
+            LOGGER.info("[{}] {} validation failed: {}", sourceObjectId, type, result.getDetails());
+            return result;
+        }
     }
 
     /**
@@ -217,9 +272,9 @@ default Optional<ValidationResult> validateObjectProperty(final String ocflId,
             result = resolver.resolve(headers)
                         .or(() -> resolver.fromModel(model, ocflId, property))
                         .map(targetVal -> resolver.equals(sourceValue, targetVal) ?
-                                          builder.ok(METADATA, format(success, pid, property, sourceValue, targetVal)) :
-                                          builder.fail(METADATA, format(error, pid, property, sourceValue, targetVal)))
-                        .or(() -> Optional.of(builder.fail(METADATA, format(notFound, pid, property, sourceValue))));
+                                          builder.ok(METADATA, success, pid, property, sourceValue, targetVal) :
+                                          builder.fail(METADATA, error, pid, property, sourceValue, targetVal))
+                        .or(() -> Optional.of(builder.fail(METADATA, notFound, pid, property, sourceValue)));
         }
 
         return result;
@@ -248,9 +303,9 @@ default Optional<ValidationResult> validateSizeMeta(final DatastreamVersion dsVe
             final var sourceSize = dsVersion.getSize();
             final var targetSize = headers.getContentSize();
             if (sourceSize == targetSize) {
-                result = Optional.of(builder.ok(BINARY_METADATA, format(success, version, sourceSize)));
+                result = Optional.of(builder.ok(BINARY_METADATA, success, version, sourceSize));
             } else {
-                result = Optional.of(builder.fail(BINARY_METADATA, format(error, version, sourceSize, targetSize)));
+                result = Optional.of(builder.fail(BINARY_METADATA, error, version, sourceSize, targetSize));
             }
         }
 
@@ -274,6 +329,31 @@ default Optional<ValidationResult> validateSizeOnDisk(final DatastreamVersion ds
                                                           final OcflObjectVersion ocflObjectVersion,
                                                           final String version,
                                                           final ValidationResultBuilder builder) {
+        final var dsInfo = dsVersion.getDatastreamInfo();
+        final var controlGroup = F3ControlGroup.fromString(dsInfo.getControlGroup());
+
+        if (controlGroup == F3ControlGroup.MANAGED) {
+            final var targetFile = Optional.ofNullable(ocflObjectVersion.getFile(headers.getContentPath()))
+                                           .map(file -> ocflRoot.resolve(file.getStorageRelativePath()));
+            return validateSizeOnDisk(dsVersion, targetFile, version, builder);
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Validate the size of a DatastreamVersion to the size of its content file in the Fedora 6 OCFL repository
+     *
+     * @param dsVersion the DatastreamVersion
+     * @param targetFile the content file in the OCFL repository, or empty if the version has no content file
+     * @param version a string representation of the object version
+     * @param builder the ValidationResultBuilder
+     * @return the ValidationResults
+     */
+    default Optional<ValidationResult> validateSizeOnDisk(final DatastreamVersion dsVersion,
+                                                          final Optional<Path> targetFile,
+                                                          final String version,
+                                                          final ValidationResultBuilder builder) {
         final var error = "%s binary size does not match: sourceValue=%s, targetValue=%s";
         final var success = "%s binary size matches: %s";
         final var notFound = "%s %s file could not be found to check size!";
@@ -284,20 +364,25 @@ default Optional<ValidationResult> validateSizeOnDisk(final DatastreamVersion ds
         if (controlGroup == F3ControlGroup.MANAGED) {
             final var sourceFile = dsVersion.getFile();
             return sourceFile.map(file -> {
-                final var ocflRelativePath = ocflObjectVersion.getFile(headers.getContentPath())
-                                                              .getStorageRelativePath();
-                final var targetPath = ocflRoot.resolve(ocflRelativePath);
-                if (Files.notExists(targetPath)) {
-                    return builder.fail(BINARY_SIZE, format(notFound, version, "target"));
+                final var targetPath = targetFile.filter(Files::exists);
+                if (targetPath.isEmpty()) {
+                    return builder.fail(BINARY_SIZE, notFound, version, "target");
                 }
 
+                final var sameFile = validateSameFile(dsVersion, targetPath, BINARY_SIZE, version, builder);
+                if (sameFile.isPresent()) {
+                    return sameFile.get();
+                }
+
+                sourceThrottle().acquireOp();
                 final var sourceBytes = file.length();
-                final var targetBytes = targetPath.toFile().length();
+                targetThrottle().acquireOp();
+                final var targetBytes = targetPath.get().toFile().length();
                 if (sourceBytes == targetBytes) {
-                    return builder.ok(BINARY_SIZE, format(success, version, sourceBytes));
+                    return builder.ok(BINARY_SIZE, success, version, sourceBytes);
                 }
-                return builder.fail(BINARY_SIZE, format(error, version, sourceBytes, targetBytes));
-            }).or(() -> Optional.of(builder.fail(BINARY_SIZE, format(notFound, version, "source"))));
+                return builder.fail(BINARY_SIZE, error, version, sourceBytes, targetBytes);
+            }).or(() -> Optional.of(builder.fail(BINARY_SIZE, notFound, version, "source")));
         }
 
         return Optional.empty();
@@ -323,9 +408,9 @@ default Optional<ValidationResult> validateCreatedDate(final String sourceCreate
         final var sourceInstant = Instant.from(ISO_8601.parse(sourceCreated));
         final var targetCreated = headers.getCreatedDate();
         if (sourceInstant.equals(targetCreated)) {
-            result = Optional.of(builder.ok(BINARY_METADATA, format(success, version, sourceCreated)));
+            result = Optional.of(builder.ok(BINARY_METADATA, success, version, sourceCreated));
         } else {
-            result = Optional.of(builder.fail(BINARY_METADATA, format(error, version, sourceCreated, targetCreated)));
+            result = Optional.of(builder.fail(BINARY_METADATA, error, version, sourceCreated, targetCreated));
         }
 
         return result;
@@ -354,14 +439,110 @@ default Optional<ValidationResult> validateLastModified(final DatastreamVersion
         final var targetValue = headers.getLastModifiedDate();
 
         if (sourceValue.equals(targetValue)) {
-            result = Optional.of(builder.ok(BINARY_METADATA, format(success, version, sourceValue)));
+            result = Optional.of(builder.ok(BINARY_METADATA, success, version, sourceValue));
         } else {
-            result = Optional.of(builder.fail(BINARY_METADATA, format(error, version, sourceValue, targetValue)));
+            result = Optional.of(builder.fail(BINARY_METADATA, error, version, sourceValue, targetValue));
         }
 
         return result;
     }
 
+    /**
+     * Compute the digests of a Fedora 3 datastream for checksum validations
+     *
+     * @param dsVersion the DatastreamVersion of the Fedora 3 object
+     * @param algorithms the algorithms to compute
+     * @return the digest of each algorithm
+     * @throws IOException if the datastream cannot be read
+     */
+    default Map<ChecksumAlgorithm, HashCode> digestSource(final DatastreamVersion dsVersion,
+                                                          final Collection<ChecksumAlgorithm> algorithms)
+        throws IOException {
+        final var checksumCache = checksumCache();
+        final var sourceFile = dsVersion.getFile();
+        if (sourceFile.isPresent()) {
+            return ioLanes().call(sourceFile.get().toPath(), () -> checksumCache.digest(dsVersion, algorithms));
+        }
+        return checksumCache.digest(dsVersion, algorithms);
+    }
+
+    /**
+     * @return the cache of source datastream digests
+     */
+    default ChecksumCache checksumCache() {
+        return new ChecksumCache(null, ChecksumCacheMode.off, 0, sourceThrottle());
+    }
+
+    /**
+     * @return how datastream checksums are validated
+     */
+    default ChecksumMode checksumMode() {
+        return ChecksumMode.single;
+    }
+
+    /**
+     * @return the digest algorithm used when only a single checksum is validated
+     */
+    default F6DigestAlgorithm digestAlgorithm() {
+        return F6DigestAlgorithm.sha512;
+    }
+
+    /**
+     * @return how datastream content is compared with the OCFL content files
+     */
+    default CompareMode compareMode() {
+        return CompareMode.digest;
+    }
+
+    /**
+     * @return true if the content files in the OCFL repository are hashed along with the source datastreams
+     */
+    default boolean verifyTarget() {
+        return false;
+    }
+
+    /**
+     * @return the executor used to read content files in the OCFL repository
+     */
+    default Executor targetExecutor() {
+        return MoreExecutors.directExecutor();
+    }
+
+    /**
+     * Collect the digests recorded for a datastream version, e.g. in the Fedora 6 headers
+     *
+     * @param dsVersion the DatastreamVersion of the Fedora 3 object
+     * @param versionNumber the ocfl version number, e.g. v1
+     * @param headers the ResourceHeaders of the Fedora 6 object
+     * @return the recorded digests
+     */
+    default List<RecordedDigest> recordedDigests(final DatastreamVersion dsVersion,
+                                                 final String versionNumber,
+                                                 final ResourceHeaders headers) {
+        return List.of();
+    }
+
+    /**
+     * @return the concurrency limits of each storage device
+     */
+    default IoLanes ioLanes() {
+        return IoLanes.unlimited();
+    }
+
+    /**
+     * @return the throttle for reads of Fedora 3 datastreams
+     */
+    default IoThrottle sourceThrottle() {
+        return IoThrottle.unlimited("source");
+    }
+
+    /**
+     * @return the throttle for reads of OCFL content files
+     */
+    default IoThrottle targetThrottle() {
+        return IoThrottle.unlimited("target");
+    }
+
     /**
      * Validate the checksum of a datastream. If the Fedora 3 object is not managed, no validation is run and an empty
      * Optional is returned.
@@ -394,11 +575,10 @@ default Optional<ValidationResult> validateChecksum(final DatastreamVersion dsVe
         if (controlGroup == F3ControlGroup.MANAGED) {
             try {
                 // compute the checksum of the datastream
-                final var hasher = digestAlgorithm.hasher();
-                ByteStreams.copy(dsVersion.getContent(), Funnels.asOutputStream(hasher));
-                sourceHash = hasher.hash();
+                final var algorithm = digestAlgorithm.getChecksumAlgorithm();
+                sourceHash = digestSource(dsVersion, List.of(algorithm)).get(algorithm);
             } catch (IOException e) {
-                return Optional.of(builder.fail(BINARY_CHECKSUM, format(exception, version, e)));
+                return Optional.of(builder.fail(BINARY_CHECKSUM, exception, version, e));
             }
 
             // retrieve the digest from the ocfl headers
@@ -412,18 +592,367 @@ default Optional<ValidationResult> validateChecksum(final DatastreamVersion dsVe
             final var sourceValue = sourceHash.toString();
             result = ocflDigest.map(targetValue -> {
                 if (Objects.equals(sourceValue, targetValue)) {
-                    return builder.ok(BINARY_CHECKSUM, format(success, version, sourceValue));
+                    return builder.ok(BINARY_CHECKSUM, success, version, sourceValue);
                 } else {
-                    return builder.fail(BINARY_CHECKSUM, format(error, version, sourceValue, targetValue));
+                    return builder.fail(BINARY_CHECKSUM, error, version, sourceValue, targetValue);
                 }
-            }).or(() -> Optional.of(builder.fail(BINARY_CHECKSUM, format(notFound, version))));
+            }).or(() -> Optional.of(builder.fail(BINARY_CHECKSUM, notFound, version)));
         }
 
         return result;
     }
 
     /**
-     * @return the ValidationResults for an object
+     * Validate the checksum of a datastream against every digest recorded for it. The datastream is read a single time
+     * and hashed with each algorithm at once. If the Fedora 3 object is not managed, no validation is run and an empty
+     * List is returned.
+     *
+     * @param dsVersion the DatastreamVersion of the Fedora 3 object
+     * @param recordedDigests the digests recorded for the datastream, e.g. in the Fedora 6 headers
+     * @param version a string representation of the object version
+     * @param builder the ValidationResultBuilder
+     * @return a ValidationResult for each recorded digest
+     */
+    default List<ValidationResult> validateChecksums(final DatastreamVersion dsVersion,
+                                                     final List<RecordedDigest> recordedDigests,
+                                                     final String version,
+                                                     final ValidationResultBuilder builder) {
+        final var success = "%s binary %s checksums match %s: %s";
+        final var error = "%s binary %s checksums do no match %s: sourceValue=%s, targetValue=%s";
+        final var notFound = "%s binary checksum not found in Fedora 6 headers, OCFL inventory, or FOXML";
+        final var exception = "%s binary checksum was unable to be calculated: exception=%s";
+
+        final var controlGroup = F3ControlGroup.fromString(dsVersion.getDatastreamInfo().getControlGroup());
+        if (controlGroup != F3ControlGroup.MANAGED) {
+            return List.of();
+        }
+
+        if (recordedDigests.isEmpty()) {
+            return List.of(builder.fail(BINARY_CHECKSUM, notFound, version));
+        }
+
+        final Map<ChecksumAlgorithm, HashCode> sourceHashes;
+        final var algorithms = recordedDigests.stream()
+                                              .map(RecordedDigest::getAlgorithm)
+                                              .collect(Collectors.toSet());
+        try {
+            sourceHashes = digestSource(dsVersion, algorithms);
+        } catch (IOException e) {
+            return List.of(builder.fail(BINARY_CHECKSUM, exception, version, e));
+        }
+
+        final var results = new ArrayList<ValidationResult>();
+        for (final var recorded : recordedDigests) {
+            final var algorithm = recorded.getAlgorithm().getJavaName();
+            final var sourceValue = sourceHashes.get(recorded.getAlgorithm()).toString();
+            final var targetValue = recorded.getValue();
+            if (Objects.equals(sourceValue, targetValue)) {
+                results.add(builder.ok(BINARY_CHECKSUM, success, version, algorithm, recorded.getLocation(),
+                                       sourceValue));
+            } else {
+                results.add(builder.fail(BINARY_CHECKSUM, error, version, algorithm, recorded.getLocation(),
+                                         sourceValue, targetValue));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Validate the checksum of a datastream by comparing the digests recorded for it without reading its content. The
+     * FOXML contentDigest is compared with each Fedora 6 header and OCFL inventory digest of the same algorithm. Any
+     * recorded digest which cannot be compared with the FOXML contentDigest, e.g. an inventory digest of another
+     * algorithm, is checked by hashing the datastream with {@link #validateChecksums}, so every recorded digest is
+     * validated against the source. If the Fedora 3 object is not managed, no validation is run and an empty List is
+     * returned.
+     *
+     * @param dsVersion the DatastreamVersion of the Fedora 3 object
+     * @param recordedDigests the digests recorded for the datastream, e.g. in the Fedora 6 headers
+     * @param version a string representation of the object version
+     * @param builder the ValidationResultBuilder
+     * @return a ValidationResult for each compared digest
+     */
+    default List<ValidationResult> validateRecordedChecksums(final DatastreamVersion dsVersion,
+                                                             final List<RecordedDigest> recordedDigests,
+                                                             final String version,
+                                                             final ValidationResultBuilder builder) {
+        final var success = "%s recorded %s checksums match %s and %s: %s";
+        final var error = "%s recorded %s checksums do no match %s and %s: sourceValue=%s, targetValue=%s";
+
+        final var controlGroup = F3ControlGroup.fromString(dsVersion.getDatastreamInfo().getControlGroup());
+        if (controlGroup != F3ControlGroup.MANAGED) {
+            return List.of();
+        }
+
+        final var source = recordedDigests.stream()
+                                          .filter(digest -> RecordedDigest.FOXML.equals(digest.getLocation()))
+                                          .findFirst();
+        final var targets = recordedDigests.stream()
+                                           .filter(digest -> !RecordedDigest.FOXML.equals(digest.getLocation()))
+                                           .collect(Collectors.toList());
+        final var comparable = targets.stream()
+                                      .filter(digest -> source.map(RecordedDigest::getAlgorithm)
+                                                              .filter(digest.getAlgorithm()::equals)
+                                                              .isPresent())
+                                      .collect(Collectors.toList());
+        if (comparable.isEmpty()) {
+            LOGGER.debug("{} has no comparable recorded digests, computing checksums", version);
+            return validateChecksums(dsVersion, recordedDigests, version, builder);
+        }
+
+        final var sourceDigest = source.get();
+        final var algorithm = sourceDigest.getAlgorithm().getJavaName();
+        final var results = new ArrayList<ValidationResult>();
+        for (final var target : comparable) {
+            final var sourceValue = sourceDigest.getValue();
+            final var targetValue = target.getValue();
+            if (Objects.equals(sourceValue, targetValue)) {
+                results.add(builder.ok(BINARY_CHECKSUM, success, version, algorithm, sourceDigest.getLocation(),
+                                       target.getLocation(), sourceValue));
+            } else {
+                results.add(builder.fail(BINARY_CHECKSUM, error, version, algorithm, sourceDigest.getLocation(),
+                                         target.getLocation(), sourceValue, targetValue));
+            }
+        }
+
+        // digests of other algorithms can only be checked against the content
+        final var remaining = targets.stream()
+                                     .filter(digest -> !comparable.contains(digest))
+                                     .collect(Collectors.toList());
+        if (!remaining.isEmpty()) {
+            LOGGER.debug("{} has recorded digests of other algorithms, computing checksums", version);
+            results.addAll(validateChecksums(dsVersion, remaining, version, builder));
+        }
+        return results;
+    }
+
+    /**
+     * Validate the fixity of the content file in the OCFL repository along with the checksum of a datastream. The
+     * target file is hashed on the targetExecutor while the source is hashed on the calling thread, so both are read
+     * at the same time. The source digest is compared with the target digest, and the target digest is compared with
+     * every digest recorded for it. If there are no recorded digests, sha512 is used. If the Fedora 3 object is not
+     * managed, no validation is run and an empty List is returned.
+     *
+     * @param dsVersion the DatastreamVersion of the Fedora 3 object
+     * @param targetFile the content file in the OCFL repository, or empty if the version has no content file
+     * @param recordedDigests the digests recorded for the datastream, e.g. in the Fedora 6 headers
+     * @param targetExecutor the executor used to read the target file
+     * @param version a string representation of the object version
+     * @param builder the ValidationResultBuilder
+     * @return the ValidationResults
+     */
+    default List<ValidationResult> validateTargetFixity(final DatastreamVersion dsVersion,
+                                                        final Optional<Path> targetFile,
+                                                        final List<RecordedDigest> recordedDigests,
+                                                        final Executor targetExecutor,
+                                                        final String version,
+                                                        final ValidationResultBuilder builder) {
+        final var success = "%s binary %s checksums match OCFL content file: %s";
+        final var error = "%s binary %s checksums do no match OCFL content file: sourceValue=%s, targetValue=%s";
+        final var fixitySuccess = "%s OCFL content file %s checksums match %s: %s";
+        final var fixityError = "%s OCFL content file %s checksums do no match %s: fileValue=%s, recordedValue=%s";
+        final var notFound = "%s OCFL content file could not be found to check fixity";
+        final var exception = "%s binary checksum was unable to be calculated: exception=%s";
+
+        final var controlGroup = F3ControlGroup.fromString(dsVersion.getDatastreamInfo().getControlGroup());
+        if (controlGroup != F3ControlGroup.MANAGED) {
+            return List.of();
+        }
+
+        final var targetPath = targetFile.filter(Files::exists);
+        if (targetPath.isEmpty()) {
+            return List.of(builder.fail(BINARY_CHECKSUM, notFound, version));
+        }
+
+        final var algorithms = recordedDigests.stream()
+                                              .map(RecordedDigest::getAlgorithm)
+                                              .collect(Collectors.toCollection(() -> EnumSet.noneOf(
+                                                  ChecksumAlgorithm.class)));
+        if (algorithms.isEmpty()) {
+            algorithms.add(ChecksumAlgorithm.sha512);
+        }
+
+        final Map<ChecksumAlgorithm, HashCode> sourceHashes;
+        final Map<ChecksumAlgorithm, HashCode> targetHashes;
+        final var targetFuture = CompletableFuture.supplyAsync(() -> {
+            try {
+                return ioLanes().call(targetPath.get(),
+                                      () -> MultiDigester.digest(targetPath.get(), algorithms, targetThrottle()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, targetExecutor);
+        try {
+            sourceHashes = digestSource(dsVersion, algorithms);
+            targetHashes = targetFuture.join();
+        } catch (IOException | CompletionException e) {
+            targetFuture.cancel(false);
+            final var cause = e instanceof CompletionException ? e.getCause() : e;
+            return List.of(builder.fail(BINARY_CHECKSUM, exception, version, cause));
+        }
+
+        final var results = new ArrayList<ValidationResult>();
+        for (final var algorithm : algorithms) {
+            final var sourceValue = sourceHashes.get(algorithm).toString();
+            final var targetValue = targetHashes.get(algorithm).toString();
+            final var name = algorithm.getJavaName();
+            if (Objects.equals(sourceValue, targetValue)) {
+                results.add(builder.ok(BINARY_CHECKSUM, success, version, name, sourceValue));
+            } else {
+                results.add(builder.fail(BINARY_CHECKSUM, error, version, name, sourceValue, targetValue));
+            }
+        }
+
+        for (final var recorded : recordedDigests) {
+            final var name = recorded.getAlgorithm().getJavaName();
+            final var fileValue = targetHashes.get(recorded.getAlgorithm()).toString();
+            final var recordedValue = recorded.getValue();
+            if (Objects.equals(fileValue, recordedValue)) {
+                results.add(builder.ok(BINARY_CHECKSUM, fixitySuccess, version, name, recorded.getLocation(),
+                                       fileValue));
+            } else {
+                results.add(builder.fail(BINARY_CHECKSUM, fixityError, version, name, recorded.getLocation(),
+                                         fileValue, recordedValue));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Check if the local file of a datastream and the content file in the OCFL repository are the same physical file,
+     * e.g. when the migration hard linked unchanged files. If so, the validation is satisfied without reading any
+     * content. If the Fedora 3 object is not managed, either file is missing, or they are different files, an empty
+     * Optional is returned.
+     *
+     * @param dsVersion the DatastreamVersion of the Fedora 3 object
+     * @param targetFile the content file in the OCFL repository, or empty if the version has no content file
+     * @param type the type of validation which is satisfied, e.g. BINARY_SIZE
+     * @param version a string representation of the object version
+     * @param builder the ValidationResultBuilder
+     * @return the ValidationResult if both are the same file
+     */
+    default Optional<ValidationResult> validateSameFile(final DatastreamVersion dsVersion,
+                                                        final Optional<Path> targetFile,
+                                                        final ValidationResult.ValidationType type,
+                                                        final String version,
+                                                        final ValidationResultBuilder builder) {
+        final var success = "%s source and OCFL content file are the same file (hard link), content not read: %s bytes";
+
+        final var controlGroup = F3ControlGroup.fromString(dsVersion.getDatastreamInfo().getControlGroup());
+        final var sourceFile = dsVersion.getFile().filter(File::isFile).map(File::toPath);
+        final var targetPath = targetFile.filter(Files::exists);
+        if (controlGroup != F3ControlGroup.MANAGED || sourceFile.isEmpty() || targetPath.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            if (ContentComparator.isSameFile(sourceFile.get(), targetPath.get())) {
+                return Optional.of(builder.ok(type, success, version, Files.size(sourceFile.get())));
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Unable to compare file identity of {} and {}", sourceFile.get(), targetPath.get(), e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Validate the content of a datastream by comparing its local file byte for byte with the content file in the
+     * OCFL repository. If the Fedora 3 object is not managed or the datastream has no local file, no validation is run
+     * and an empty Optional is returned.
+     *
+     * @param dsVersion the DatastreamVersion of the Fedora 3 object
+     * @param targetFile the content file in the OCFL repository, or empty if the version has no content file
+     * @param version a string representation of the object version
+     * @param builder the ValidationResultBuilder
+     * @return the ValidationResult
+     */
+    default Optional<ValidationResult> validateContentBytes(final DatastreamVersion dsVersion,
+                                                            final Optional<Path> targetFile,
+                                                            final String version,
+                                                            final ValidationResultBuilder builder) {
+        final var success = "%s binary content matches OCFL content file byte for byte: %s bytes";
+        final var error = "%s binary content does not match OCFL content file: first difference at offset %s";
+        final var notFound = "%s OCFL content file could not be found to compare content";
+        final var exception = "%s binary content was unable to be compared: exception=%s";
+
+        final var controlGroup = F3ControlGroup.fromString(dsVersion.getDatastreamInfo().getControlGroup());
+        final var sourceFile = dsVersion.getFile().filter(File::isFile).map(File::toPath);
+        if (controlGroup != F3ControlGroup.MANAGED || sourceFile.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final var targetPath = targetFile.filter(Files::exists);
+        if (targetPath.isEmpty()) {
+            return Optional.of(builder.fail(BINARY_CHECKSUM, notFound, version));
+        }
+
+        final var sameFile = validateSameFile(dsVersion, targetPath, BINARY_CHECKSUM, version, builder);
+        if (sameFile.isPresent()) {
+            return sameFile;
+        }
+
+        try {
+            final var source = sourceFile.get();
+            final var target = targetPath.get();
+            final var mismatch = ioLanes().call(List.of(source, target), () ->
+                ContentComparator.mismatch(source, target, sourceThrottle(), targetThrottle()));
+            if (mismatch < 0) {
+                return Optional.of(builder.ok(BINARY_CHECKSUM, success, version, Files.size(source)));
+            }
+            return Optional.of(builder.fail(BINARY_CHECKSUM, error, version, mismatch));
+        } catch (IOException e) {
+            return Optional.of(builder.fail(BINARY_CHECKSUM, exception, version, e));
+        }
+    }
+
+    /**
+     * Run the checksum validations of a datastream version for the configured {@link #checksumMode()}. A hard linked
+     * content file satisfies the validation without reading any content, otherwise the content is compared byte for
+     * byte if configured before falling back to the checksums.
+     *
+     * @param dsVersion the DatastreamVersion of the Fedora 3 object
+     * @param versionNumber the ocfl version number, e.g. v1
+     * @param headers the ResourceHeaders of the Fedora 6 object
+     * @param targetFile the content file in the OCFL repository, or empty if the version has no content file
+     * @param version a string representation of the object version
+     * @param builder the ValidationResultBuilder
+     * @return the ValidationResults
+     */
+    default List<ValidationResult> validateChecksumMode(final DatastreamVersion dsVersion,
+                                                        final String versionNumber,
+                                                        final ResourceHeaders headers,
+                                                        final Optional<Path> targetFile,
+                                                        final String version,
+                                                        final ValidationResultBuilder builder) {
+        final var sameFile = validateSameFile(dsVersion, targetFile, BINARY_CHECKSUM, version, builder);
+        if (sameFile.isPresent()) {
+            return List.of(sameFile.get());
+        }
+
+        if (compareMode() == CompareMode.bytes) {
+            final var result = validateContentBytes(dsVersion, targetFile, version, builder);
+            if (result.isPresent()) {
+                return List.of(result.get());
+            }
+        }
+
+        final var checksumMode = checksumMode();
+        if (checksumMode == ChecksumMode.single && !verifyTarget()) {
+            return validateChecksum(dsVersion, headers, digestAlgorithm(), version, builder).map(List::of)
+                                                                                            .orElse(List.of());
+        }
+
+        final var digests = recordedDigests(dsVersion, versionNumber, headers);
+        if (verifyTarget()) {
+            return validateTargetFixity(dsVersion, targetFile, digests, targetExecutor(), version, builder);
+        } else if (checksumMode == ChecksumMode.recorded) {
+            return validateRecordedChecksums(dsVersion, digests, version, builder);
+        }
+        return validateChecksums(dsVersion, digests, version, builder);
+    }
+
+    /**
+     * @return the ValidationResults for an object, or an empty list if the results were given to a
+     *         {@link ValidationResultSink} as they were produced
      */
     List<ValidationResult> getValidationResults();
 
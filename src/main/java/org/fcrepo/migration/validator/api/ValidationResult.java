@@ -5,6 +5,7 @@
  */
 package org.fcrepo.migration.validator.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
@@ -54,6 +55,8 @@ public enum ValidationType {
     private ValidationType validationType;
     @JsonProperty
     private String details;
+    private String detailsTemplate;
+    private Object[] detailsArgs;
     @JsonProperty
     private String sourceObjectId;
     @JsonProperty
@@ -136,6 +139,55 @@ public ValidationResult(final int index,
         this.details = details;
     }
 
+    /**
+     * Constructor for a result whose details are rendered from a format string only when they are read, e.g. when the
+     * result is serialized or reported. Results which are discarded, such as passing results when only failures are
+     * written, never build their details string.
+     *
+     * A template is identified by its format string, not by an id. Binary results store the format string itself,
+     * once per block, so stored results still render after a template is reworded or removed.
+     *
+     * @param index
+     * @param status
+     * @param validationLevel
+     * @param validationType
+     * @param sourceObjectId
+     * @param targetObjectId
+     * @param sourceResourceId
+     * @param targetResourceId
+     * @param detailsTemplate the format string of the details
+     * @param detailsArgs the arguments of the format string
+     */
+    public ValidationResult(final int index,
+                            final Status status,
+                            final ValidationLevel validationLevel,
+                            final ValidationType validationType,
+                            final String sourceObjectId,
+                            final String targetObjectId,
+                            final String sourceResourceId,
+                            final String targetResourceId,
+                            final String detailsTemplate,
+                            final Object[] detailsArgs) {
+        this(index, status, validationLevel, validationType, sourceObjectId, targetObjectId, sourceResourceId,
+             targetResourceId, null);
+        this.detailsTemplate = detailsTemplate;
+        this.detailsArgs = detailsArgs;
+    }
+
+    /**
+     * Copy this result with a new index, without rendering its details
+     *
+     * @param index the index of the copy
+     * @return the copy
+     */
+    public ValidationResult withIndex(final int index) {
+        final var copy = new ValidationResult(index, status, validationLevel, validationType, sourceObjectId,
+                                              targetObjectId, sourceResourceId, targetResourceId, details);
+        copy.detailsTemplate = detailsTemplate;
+        copy.detailsArgs = detailsArgs;
+        return copy;
+    }
+
     /**
      * Default constructor
      */
@@ -182,10 +234,34 @@ public ValidationType getValidationType() {
      *
      * @return
      */
+    @JsonProperty("details")
     public String getDetails() {
+        if (details == null && detailsTemplate != null) {
+            details = String.format(detailsTemplate, detailsArgs);
+        }
         return details;
     }
 
+    /**
+     * The format string of the details, if they have not been given as a rendered string
+     *
+     * @return the template, or null
+     */
+    @JsonIgnore
+    public String getDetailsTemplate() {
+        return detailsTemplate;
+    }
+
+    /**
+     * The arguments of the details template
+     *
+     * @return the arguments, or null
+     */
+    @JsonIgnore
+    public Object[] getDetailsArgs() {
+        return detailsArgs;
+    }
+
     /**
      * The source object ID
      *
@@ -224,6 +300,7 @@ public String getTargetResourceId() {
 
     @Override
     public String toString() {
+        getDetails();
         return ToStringBuilder.reflectionToString(this);
     }
 
@@ -0,0 +1,23 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.api;
+
+/**
+ * Receives validation results as each check completes, so that the results of an object do not need to be held in
+ * memory until the object is finished. Sinks may be called from several threads at once.
+ *
+ * @author mikejritter
+ */
+@FunctionalInterface
+public interface ValidationResultSink {
+
+    /**
+     * Accept a validation result
+     *
+     * @param result the result
+     */
+    void accept(ValidationResult result);
+}
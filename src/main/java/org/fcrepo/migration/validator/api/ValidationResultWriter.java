@@ -8,15 +8,39 @@
 import java.util.List;
 
 /**
- * This class is responsible for writing validation results to disk.
+ * This class is responsible for writing validation results to disk. As a {@link ValidationResultSink} it can be given
+ * to the validation handlers so that each result is written as soon as it is produced.
  *
  * @author dbernstein
  */
-public interface ValidationResultWriter {
+public interface ValidationResultWriter extends ValidationResultSink, AutoCloseable {
     /**
      * Write the result to disk
      *
      * @param results The results to write
      */
     void write(final List<ValidationResult> results);
+
+    @Override
+    default void accept(final ValidationResult result) {
+        write(List.of(result));
+    }
+
+    /**
+     * Called on the thread which validated an object once all of its results have been written. Writers which replace
+     * the results of a previous run make the new results visible here, in place of the old ones.
+     *
+     * @param pid the PID of the object
+     */
+    default void completeObject(final String pid) {
+        // results are visible as soon as they are written by default
+    }
+
+    /**
+     * Flush any buffered results once validation is finished
+     */
+    @Override
+    default void close() {
+        // nothing is buffered by default
+    }
 }
@@ -9,13 +9,17 @@
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
 import com.google.common.base.Suppliers;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.ocfl.api.MutableOcflRepository;
 import io.ocfl.api.OcflRepository;
 import io.ocfl.core.OcflRepositoryBuilder;
 import io.ocfl.core.extension.storage.layout.config.HashedNTupleLayoutConfig;
 import io.ocfl.core.path.mapper.LogicalPathMappers;
 import io.ocfl.core.storage.OcflStorageBuilder;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.fcrepo.migration.ObjectSource;
 import org.fcrepo.migration.foxml.AkubraFSIDResolver;
@@ -29,19 +33,35 @@
 import org.fcrepo.storage.ocfl.CommitType;
 import org.fcrepo.storage.ocfl.DefaultOcflObjectSessionFactory;
 import org.fcrepo.storage.ocfl.OcflObjectSessionFactory;
+import org.fcrepo.storage.ocfl.ResourceHeaders;
+import org.fcrepo.storage.ocfl.cache.Cache;
 import org.fcrepo.storage.ocfl.cache.CaffeineCache;
+import org.slf4j.Logger;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS;
 import static io.ocfl.api.util.Enforce.expressionTrue;
 import static io.ocfl.api.util.Enforce.notNull;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * A helper class for configuring and creating application components.
@@ -50,10 +70,25 @@
  */
 public class ApplicationConfigurationHelper {
 
+    private static final Logger LOGGER = getLogger(ApplicationConfigurationHelper.class);
+
     private final Fedora3ValidationConfig config;
     private final Path workDirectory;
-    private final ResumeManager resumeManager;
     private final Supplier<MutableOcflRepository> repositorySupplier;
+    private final Supplier<ChecksumCache> checksumCacheSupplier;
+    private final Supplier<IoThrottle> sourceThrottleSupplier;
+    private final Supplier<IoThrottle> targetThrottleSupplier;
+    private final Supplier<IoLanes> ioLanesSupplier;
+    private volatile Supplier<ResumeManager> resumeManagerSupplier;
+    private volatile Supplier<FailedObjectIndex> failedObjectIndexSupplier;
+    private volatile Supplier<ObjectFingerprintIndex> fingerprintIndexSupplier;
+    private final Supplier<OcflInventoryReader> inventoryReaderSupplier;
+    private final Supplier<OcflObjectSessionFactory> sessionFactorySupplier;
+    private final List<Path> linkedObjectDirs = new ArrayList<>();
+    private ExecutorService targetExecutor;
+    private ExecutorService datastreamExecutor;
+    private final ConcurrentStatsCounter headersCacheStats = new ConcurrentStatsCounter();
+    private final ConcurrentStatsCounter rootIdCacheStats = new ConcurrentStatsCounter();
 
     public ApplicationConfigurationHelper(final Fedora3ValidationConfig config) {
         this.config = config;
@@ -63,30 +98,230 @@ public ApplicationConfigurationHelper(final Fedora3ValidationConfig config) {
             throw new RuntimeException(e);
         }
         this.repositorySupplier = Suppliers.memoize(() -> repository(config, workDirectory));
-        this.resumeManager = new ResumeManagerImpl(config.getResultsDirectory(), !config.isResume());
+        this.sourceThrottleSupplier = Suppliers.memoize(() -> new IoThrottle("source", config.getSourceReadRate(),
+                                                                             config.getSourceIops()).register());
+        this.targetThrottleSupplier = Suppliers.memoize(() -> new IoThrottle("target", config.getTargetReadRate(),
+                                                                             config.getTargetIops()).register());
+        this.ioLanesSupplier = Suppliers.memoize(() -> new IoLanes(config.getIoLaneLimit(), ioLaneLimits(config)));
+        this.checksumCacheSupplier = Suppliers.memoize(() -> new ChecksumCache(config.getChecksumCacheFile(),
+                                                                               config.getChecksumCacheMode(),
+                                                                               config.getChecksumMemoSize(),
+                                                                               sourceThrottle()));
+        this.sessionFactorySupplier = Suppliers.memoize(this::createOcflObjectSessionFactory);
+        this.inventoryReaderSupplier = Suppliers.memoize(() -> new OcflInventoryReader(
+            config.getOcflRepositoryRootDirectory().toPath()));
+        newRun();
+    }
+
+    /**
+     * Start over the state kept by a run, its resume manager and failed object and fingerprint indexes, which are
+     * closed once the run completes. The next run reads them again from the results directory, so the helper can be
+     * kept for several runs.
+     */
+    public void newRun() {
+        // the failed objects were all completed by the previous run
+        this.resumeManagerSupplier = Suppliers.memoize(() -> new ResumeManagerImpl(
+            config.getResultsDirectory(), !config.isResume() || config.isRevalidateFailures()));
+        this.failedObjectIndexSupplier = Suppliers.memoize(() -> failedObjectIndex(config));
+        this.fingerprintIndexSupplier = Suppliers.memoize(() -> objectFingerprintIndex(config, inventoryReader()));
+    }
+
+    /**
+     * Start a run which leaves the results directory untouched: every object of the source is accepted without
+     * reading or writing the resume file, and the failed object and fingerprint indexes are read but not written.
+     */
+    public void newTransientRun() {
+        this.resumeManagerSupplier = Suppliers.ofInstance(new TransientResumeManager());
+        this.failedObjectIndexSupplier = Suppliers.memoize(
+            () -> FailedObjectIndex.readOnly(config.getResultsDirectory()));
+        this.fingerprintIndexSupplier = Suppliers.memoize(() -> ObjectFingerprintIndex.readOnly(
+            config.getResultsDirectory(), inventoryReader(), validationOptions(config)));
     }
 
     public ResumeManager resumeManager() {
-        return resumeManager;
+        return resumeManagerSupplier.get();
     }
 
     public ValidationResultWriter validationResultWriter() {
-        return new FileSystemValidationResultWriter(config.getJsonOutputDirectory(), config.isFailureOnly());
+        if (config.getResultFormat() == ResultFormat.binary) {
+            final var writer = new BinaryValidationResultWriter(config.getBinaryOutputDirectory(),
+                                                                config.isFailureOnly(),
+                                                                replacesResults(),
+                                                                config.getResultCompression(),
+                                                                BinaryValidationResultWriter.DEFAULT_SEGMENT_RECORDS,
+                                                                BinaryValidationResultWriter.DEFAULT_BLOCK_BYTES);
+            if (!keepsPreviousResults(config)) {
+                writer.clear();
+            }
+            return writer;
+        }
+        return new FileSystemValidationResultWriter(config.getJsonOutputDirectory(), config.isFailureOnly(),
+                                                    replacesResults());
+    }
+
+    /**
+     * The results of the objects validated by a run which only validates some objects replace their previous results
+     */
+    private boolean replacesResults() {
+        return config.isRevalidateFailures() || config.isIncremental() || config.isWatch();
+    }
+
+    private static boolean keepsPreviousResults(final Fedora3ValidationConfig config) {
+        return config.isResume() || config.isRevalidateFailures() || config.isIncremental();
+    }
+
+    /**
+     * The index of the fingerprint of each validated object, which is kept across runs
+     *
+     * @return the ObjectFingerprintIndex
+     */
+    public ObjectFingerprintIndex objectFingerprintIndex() {
+        return fingerprintIndexSupplier.get();
+    }
+
+    private static ObjectFingerprintIndex objectFingerprintIndex(final Fedora3ValidationConfig config,
+                                                                 final OcflInventoryReader inventoryReader) {
+        final var resultsDirectory = config.getResultsDirectory();
+        if (!keepsPreviousResults(config)) {
+            try {
+                Files.deleteIfExists(resultsDirectory.resolve(ObjectFingerprintIndex.FILE_NAME));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return new ObjectFingerprintIndex(resultsDirectory, inventoryReader, validationOptions(config));
+    }
+
+    /**
+     * The options which change the results of validating an object
+     */
+    private static String validationOptions(final Fedora3ValidationConfig config) {
+        return "checksum=" + config.enableChecksums() +
+               ",checksumMode=" + config.getChecksumMode() +
+               ",algorithm=" + config.getDigestAlgorithm() +
+               ",verifyTarget=" + config.isVerifyTarget() +
+               ",compareMode=" + config.getCompareMode() +
+               ",headOnly=" + config.validateHeadOnly() +
+               ",deleteInactive=" + config.isDeleteInactive();
+    }
+
+    public boolean isIncremental() {
+        return config.isIncremental();
+    }
+
+    /**
+     * The reader of the inventories of the OCFL repository
+     *
+     * @return the OcflInventoryReader
+     */
+    public OcflInventoryReader inventoryReader() {
+        return inventoryReaderSupplier.get();
+    }
+
+    /**
+     * Creates a watcher of the OCFL repository for objects which are written while validating
+     *
+     * @return the OcflWatcher
+     */
+    public OcflWatcher ocflWatcher() {
+        return new OcflWatcher(config.getOcflRepositoryRootDirectory().toPath(), inventoryReader().objectRootDepth(),
+                               OcflWatcher.DEFAULT_QUIET_MILLIS, config.getWatchScanInterval() * 1000);
+    }
+
+    public boolean isWatch() {
+        return config.isWatch();
+    }
+
+    public long getWatchIdleTimeout() {
+        return config.getWatchIdleTimeout();
+    }
+
+    /**
+     * @return the time a run may spend submitting objects in milliseconds, or 0 for no limit
+     */
+    public long getTimeBudgetMillis() {
+        return TimeUnit.MINUTES.toMillis(config.getTimeBudget());
+    }
+
+    /**
+     * The index of the objects which failed validation, which is started over unless the run keeps the results of
+     * the previous run
+     *
+     * @return the FailedObjectIndex
+     */
+    public FailedObjectIndex failedObjectIndex() {
+        return failedObjectIndexSupplier.get();
+    }
+
+    private static FailedObjectIndex failedObjectIndex(final Fedora3ValidationConfig config) {
+        final var resultsDirectory = config.getResultsDirectory();
+        if (!keepsPreviousResults(config)) {
+            try {
+                Files.deleteIfExists(resultsDirectory.resolve(FailedObjectIndex.FILE_NAME));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return new FailedObjectIndex(resultsDirectory);
+    }
+
+    public boolean isRevalidateFailures() {
+        return config.isRevalidateFailures();
     }
 
     public ObjectSource objectSource() {
+        if (config.isRevalidateFailures()) {
+            final var failures = failedObjectIndex().failures();
+            LOGGER.info("Re-validating {} failed objects", failures.size());
+            final var foxml = new HashMap<String, Path>();
+            failures.forEach((pid, path) -> {
+                if (path.isEmpty()) {
+                    LOGGER.warn("The FOXML of {} is unknown, it cannot be re-validated", pid);
+                } else {
+                    foxml.put(pid, Paths.get(path));
+                }
+            });
+            return objectSource(foxml);
+        }
+
         try {
-            return doObjectSource();
+            return doObjectSource(null);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private ObjectSource doObjectSource() throws IOException {
+    /**
+     * Create an object source for only some objects. The object sources can only walk a directory, so the FOXML of
+     * the objects is linked into a directory of its own, which the source walks in place of the objects or export
+     * directory.
+     *
+     * @param foxml the FOXML of each object, by PID
+     * @return the ObjectSource
+     */
+    public ObjectSource objectSource(final Map<String, Path> foxml) {
+        return objectSource(linkObjects(foxml));
+    }
+
+    /**
+     * Create an object source which walks a directory of linked FOXML in place of the objects or export directory
+     *
+     * @param linkedObjectsDir the directory, see {@link #linkObjects(Map)}
+     * @return the ObjectSource
+     */
+    public ObjectSource objectSource(final File linkedObjectsDir) {
+        try {
+            return doObjectSource(linkedObjectsDir);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private ObjectSource doObjectSource(final File linkedObjectsDir) throws IOException {
         final ObjectSource objectSource;
-        final var f3ExportedDir = config.getExportedDirectory();
+        final var f3ExportedDir = linkedObjectsDir != null ? linkedObjectsDir : config.getExportedDirectory();
         final var f3DatastreamsDir = config.getDatastreamsDirectory();
-        final var f3ObjectsDir = config.getObjectsDirectory();
+        final var f3ObjectsDir = linkedObjectsDir != null ? linkedObjectsDir : config.getObjectsDirectory();
         final var indexDir = config.getIndexDirectory();
         final var f3hostname = config.getFedora3Hostname();
         // Which F3 source are we using? - verify associated options
@@ -122,6 +357,66 @@ private ObjectSource doObjectSource() throws IOException {
         return objectSource;
     }
 
+    /**
+     * Link the FOXML of some objects into a new directory, which is deleted by {@link #deleteLinkedObjects()}
+     *
+     * @param objects the FOXML of each object, by PID
+     * @throws RuntimeException if the directory cannot be created
+     * @return the directory holding the FOXML of the objects
+     */
+    public File linkObjects(final Map<String, Path> objects) {
+        try {
+            return doLinkObjects(objects);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private File doLinkObjects(final Map<String, Path> objects) throws IOException {
+        final var directory = Files.createTempDirectory("linked-objects");
+        synchronized (linkedObjectDirs) {
+            linkedObjectDirs.add(directory);
+        }
+        for (final var object : objects.entrySet()) {
+            final var foxml = object.getValue();
+            final var link = directory.resolve(foxml.getFileName());
+            if (!Files.exists(foxml)) {
+                LOGGER.warn("The FOXML of {} no longer exists at {}", object.getKey(), foxml);
+            } else if (Files.exists(link)) {
+                LOGGER.warn("Skipping {}, its FOXML has the same name as another object", object.getKey());
+            } else {
+                try {
+                    Files.createSymbolicLink(link, foxml);
+                } catch (UnsupportedOperationException | IOException e) {
+                    Files.copy(foxml, link);
+                }
+            }
+        }
+        return directory.toFile();
+    }
+
+    /**
+     * Delete the directories created to validate only some objects
+     */
+    public void deleteLinkedObjects() {
+        synchronized (linkedObjectDirs) {
+            linkedObjectDirs.forEach(directory -> FileUtils.deleteQuietly(directory.toFile()));
+            linkedObjectDirs.clear();
+        }
+    }
+
+    /**
+     * Delete a directory created to validate only some objects
+     *
+     * @param linkedObjectsDir the directory
+     */
+    public void deleteLinkedObjects(final File linkedObjectsDir) {
+        synchronized (linkedObjectDirs) {
+            linkedObjectDirs.remove(linkedObjectsDir.toPath());
+        }
+        FileUtils.deleteQuietly(linkedObjectsDir);
+    }
+
     private MutableOcflRepository repository(final Fedora3ValidationConfig config, final Path workDir) {
         final var storage = OcflStorageBuilder.builder()
                                               .fileSystem(config.getOcflRepositoryRootDirectory().toPath())
@@ -147,29 +442,126 @@ public OcflRepository ocflRepository() {
     }
 
     /**
-     * Creates and return an OcflObjectSessionFactory.
+     * Retrieves the persistent cache of source datastream digests, which is shared by all objects in a run
+     *
+     * @return the ChecksumCache
+     */
+    public ChecksumCache checksumCache() {
+        return checksumCacheSupplier.get();
+    }
+
+    /**
+     * The throttle shared by all reads of Fedora 3 datastreams. Its limits can be changed at runtime through JMX.
+     *
+     * @return the IoThrottle for the source
+     */
+    public IoThrottle sourceThrottle() {
+        return sourceThrottleSupplier.get();
+    }
+
+    /**
+     * The throttle shared by all reads of OCFL content files. Its limits can be changed at runtime through JMX.
+     *
+     * @return the IoThrottle for the target
+     */
+    public IoThrottle targetThrottle() {
+        return targetThrottleSupplier.get();
+    }
+
+    /**
+     * The concurrency limits of each storage device, shared by all workers
+     *
+     * @return the IoLanes
+     */
+    public IoLanes ioLanes() {
+        return ioLanesSupplier.get();
+    }
+
+    private static Map<Path, Integer> ioLaneLimits(final Fedora3ValidationConfig config) {
+        return config.getIoLanes().entrySet().stream()
+                     .collect(Collectors.toMap(entry -> entry.getKey().toPath(), Map.Entry::getValue));
+    }
+
+    /**
+     * Retrieves the executor used to read content files in the OCFL repository. It has a thread for each validation
+     * thread so that every object can read its target while it reads its source.
+     *
+     * @return the ExecutorService
+     */
+    public synchronized ExecutorService targetExecutor() {
+        if (targetExecutor == null) {
+            targetExecutor = Executors.newFixedThreadPool(config.getThreadCount());
+        }
+        return targetExecutor;
+    }
+
+    /**
+     * Shuts down the executor used to read content files in the OCFL repository, if one was created
+     */
+    public synchronized void shutdownTargetExecutor() {
+        if (targetExecutor != null) {
+            targetExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Retrieves the executor shared by all objects to validate partitions of their datastreams in parallel
+     *
+     * @return the ExecutorService
+     */
+    public synchronized ExecutorService datastreamExecutor() {
+        if (datastreamExecutor == null) {
+            datastreamExecutor = Executors.newFixedThreadPool(config.getDatastreamThreads());
+        }
+        return datastreamExecutor;
+    }
+
+    /**
+     * Shuts down the executor used to validate datastreams in parallel, if one was created
+     */
+    public synchronized void shutdownDatastreamExecutor() {
+        if (datastreamExecutor != null) {
+            datastreamExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Retrieves the OcflObjectSessionFactory. It is created once, so that its caches stay warm across every run which
+     * uses this helper.
      *
      * @return a session factory
      */
     public OcflObjectSessionFactory ocflObjectSessionFactory() {
+        return sessionFactorySupplier.get();
+    }
+
+    private OcflObjectSessionFactory createOcflObjectSessionFactory() {
         final var objectMapper = new ObjectMapper().configure(WRITE_DATES_AS_TIMESTAMPS, false)
                 .registerModule(new JavaTimeModule())
                 .setSerializationInclusion(JsonInclude.Include.NON_NULL);
 
-        final var headersCache = Caffeine.newBuilder()
-                .maximumSize(512)
-                .expireAfterAccess(Duration.ofMinutes(10))
-                .build();
-
         final var rootIdCache = Caffeine.newBuilder()
-                .maximumSize(512)
-                .expireAfterAccess(Duration.ofMinutes(10))
-                .build();
+                .maximumSize(config.getRootIdCacheSize())
+                .expireAfterAccess(Duration.ofMinutes(config.getCacheExpiryMinutes()))
+                .recordStats(() -> rootIdCacheStats)
+                .<String, String>build();
+
+        if (config.getHeadersCacheScope() == OcflCacheScope.session) {
+            return new SessionScopedOcflObjectSessionFactory(repositorySupplier.get(),
+                    workDirectory,
+                    objectMapper,
+                    this::headersCache,
+                    new CaffeineCache<>(rootIdCache),
+                    CommitType.UNVERSIONED,
+                    "Authored by Fedora 6",
+                    "fedoraAdmin",
+                    "info:fedora/fedoraAdmin");
+        }
 
         return new DefaultOcflObjectSessionFactory(repositorySupplier.get(),
                 workDirectory,
                 objectMapper,
-                new CaffeineCache<>(headersCache),
+                headersCache(),
                 new CaffeineCache<>(rootIdCache),
                 CommitType.UNVERSIONED,
                 "Authored by Fedora 6",
@@ -177,6 +569,64 @@ public OcflObjectSessionFactory ocflObjectSessionFactory() {
                 "info:fedora/fedoraAdmin");
     }
 
+    /**
+     * Creates a headers cache bounded by either the number of entries or the approximate number of bytes it holds.
+     * All headers caches record their statistics to the same counter so that session scoped caches can be reported
+     * on as a whole.
+     *
+     * @return the headers cache
+     */
+    private Cache<String, ResourceHeaders> headersCache() {
+        final var builder = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(config.getCacheExpiryMinutes()))
+                .recordStats(() -> headersCacheStats);
+
+        if (config.getHeadersCacheMaxWeight() > 0) {
+            return new CaffeineCache<>(builder.maximumWeight(config.getHeadersCacheMaxWeight())
+                                              .weigher(ApplicationConfigurationHelper::weigh)
+                                              .build());
+        }
+
+        return new CaffeineCache<>(builder.maximumSize(config.getHeadersCacheSize())
+                                          .<String, ResourceHeaders>build());
+    }
+
+    /**
+     * Approximates the number of bytes retained by a cached ResourceHeaders. The strings make up the bulk of the
+     * headers, so this counts two bytes per character plus a fixed overhead for the remaining fields.
+     *
+     * @param key the cache key
+     * @param headers the cached headers
+     * @return the approximate weight in bytes
+     */
+    static int weigh(final String key, final ResourceHeaders headers) {
+        final var fixedOverhead = 256;
+        var chars = key.length();
+        for (final var value : new String[]{headers.getId(), headers.getParent(), headers.getArchivalGroupId(),
+                                            headers.getStateToken(), headers.getInteractionModel(),
+                                            headers.getMimeType(), headers.getFilename(), headers.getContentPath(),
+                                            headers.getExternalUrl(), headers.getCreatedBy(),
+                                            headers.getLastModifiedBy(), headers.getStorageRelativePath()}) {
+            chars += value == null ? 0 : value.length();
+        }
+        if (headers.getDigests() != null) {
+            chars += headers.getDigests().stream().map(Objects::toString).mapToInt(String::length).sum();
+        }
+        return fixedOverhead + 2 * chars;
+    }
+
+    /**
+     * Snapshots the statistics of the OCFL caches used by the session factory
+     *
+     * @return the statistics of each cache, keyed by the name of the cache
+     */
+    public Map<String, CacheStats> ocflCacheStats() {
+        final var stats = new LinkedHashMap<String, CacheStats>();
+        stats.put("headers", headersCacheStats.snapshot());
+        stats.put("root id", rootIdCacheStats.snapshot());
+        return stats;
+    }
+
     /**
      * Read the file containing the object ids if available and return it as a set
      *
@@ -204,16 +654,64 @@ public int getLimit() {
         return config.getLimit();
     }
 
+    /**
+     * Creates the budget of memory shared by all objects in flight
+     *
+     * @return the MemoryBudget
+     */
+    public MemoryBudget memoryBudget() {
+        return new MemoryBudget(config.getMemoryBudget() * 1024 * 1024);
+    }
+
+    public ScheduleMode getScheduleMode() {
+        return config.getScheduleMode();
+    }
+
+    public int getScheduleWindow() {
+        return config.getScheduleWindow();
+    }
+
     public ObjectValidationConfig getObjectValidationConfig() {
         return new ObjectValidationConfig(config.getOcflRepositoryRootDirectory(),
                                           config.enableChecksums(),
                                           config.isDeleteInactive(),
                                           config.validateHeadOnly(),
                                           repositorySupplier.get(),
-                                          config.getDigestAlgorithm());
+                                          config.getDigestAlgorithm())
+            .setChecksumMode(config.getChecksumMode())
+            .setChecksumCache(checksumCache())
+            .setVerifyTarget(config.isVerifyTarget())
+            .setCompareMode(config.getCompareMode())
+            .setSourceThrottle(sourceThrottle())
+            .setTargetThrottle(targetThrottle())
+            .setIoLanes(ioLanes())
+            .setTargetExecutor(config.isVerifyTarget() ? targetExecutor() : MoreExecutors.directExecutor())
+            .setDatastreamThreads(config.getDatastreamThreads())
+            .setDatastreamExecutor(config.getDatastreamThreads() > 0 ? datastreamExecutor() :
+                                   MoreExecutors.directExecutor());
     }
 
     public Boolean checkNumObjects() {
         return config.checkNumObjects();
     }
+
+    /**
+     * Accepts every object and keeps no record of the completed objects
+     */
+    private static class TransientResumeManager implements ResumeManager {
+        @Override
+        public void updateResumeFile() {
+            // nothing is written
+        }
+
+        @Override
+        public void completed(final String pid) {
+            // nothing is recorded
+        }
+
+        @Override
+        public boolean accept(final String pid) {
+            return true;
+        }
+    }
 }
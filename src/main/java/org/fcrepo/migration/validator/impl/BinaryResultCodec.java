@@ -0,0 +1,330 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.api.ValidationResult.Status;
+import org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel;
+import org.fcrepo.migration.validator.api.ValidationResult.ValidationType;
+
+/**
+ * The compact binary encoding of validation results. A segment starts with a header and is followed by blocks, each
+ * holding the records of one or more objects. A block is compressed on its own and has its own dictionary, so it can
+ * be decoded without reading the rest of the segment. The index file next to a segment maps each object to the offset
+ * of the block holding its results:
+ *
+ * <pre>
+ * segment := "FVRB" version:byte compression:byte block*
+ * block   := length:int32 compressed(record*)
+ * record  := index:varint type:varint level:varint status:varint
+ *            sourceObjectId:ref targetObjectId:ref sourceResourceId:ref targetResourceId:ref details
+ * ref     := 0 (null) | 1 string (added to the dictionary) | n:varint (dictionary entry n - 2)
+ * details := 0 (null) | 1 string | 2 template:ref argc:varint arg*
+ * arg     := 0 (null) | 1 ref | 2 zigzag:varint | 3 (true) | 4 (false)
+ * string  := length:varint utf-8
+ *
+ * idx     := (objectId:modified-utf-8 blockOffset:int64)*
+ * </pre>
+ *
+ * The dictionary is built as strings are first seen, so identifiers and detail templates which repeat across the
+ * results of an object are stored once. Detail templates are keyed by their format string rather than by an id, so a
+ * block holds the text of every template it uses and decodes the same way whatever templates a later release has.
+ * Enums are stored by ordinal, each as its own varint, so new constants must only be appended to them. Version 2
+ * packed the ordinals into a single varint with one bit for the status and two for the level, which would not hold
+ * a new constant of either.
+ *
+ * @author mikejritter
+ */
+final class BinaryResultCodec {
+
+    static final String EXTENSION = ".vrb";
+    static final String INDEX_EXTENSION = ".idx";
+
+    private static final byte[] MAGIC = {'F', 'V', 'R', 'B'};
+    private static final int VERSION = 3;
+
+    private static final int NULL = 0;
+    private static final int NEW_ENTRY = 1;
+    private static final int ENTRY_OFFSET = 2;
+
+    private static final int DETAILS_LITERAL = 1;
+    private static final int DETAILS_TEMPLATE = 2;
+
+    private static final int ARG_STRING = 1;
+    private static final int ARG_LONG = 2;
+    private static final int ARG_TRUE = 3;
+    private static final int ARG_FALSE = 4;
+
+    private static final Status[] STATUSES = Status.values();
+    private static final ValidationLevel[] LEVELS = ValidationLevel.values();
+    private static final ValidationType[] TYPES = ValidationType.values();
+
+    private BinaryResultCodec() {
+    }
+
+    /**
+     * @param segment a segment file
+     * @return the index file of the segment
+     */
+    static Path indexOf(final Path segment) {
+        final var name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - EXTENSION.length()) + INDEX_EXTENSION);
+    }
+
+    /**
+     * @param validationRoot the directory holding the segment files
+     * @return the log of the objects whose results were replaced, and the segments holding their new results
+     */
+    static Path replacedLogOf(final Path validationRoot) {
+        return validationRoot.resolve("replaced.log");
+    }
+
+    /**
+     * Write the header of a segment
+     *
+     * @param out the segment
+     * @param compression the compression of the blocks of the segment
+     */
+    static void writeHeader(final DataOutputStream out, final ResultCompression compression) throws IOException {
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(compression.ordinal());
+    }
+
+    /**
+     * Read the header of a segment
+     *
+     * @param in the segment
+     * @return the compression of the blocks of the segment
+     */
+    static ResultCompression readHeader(final DataInput in) throws IOException {
+        final var magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        final var version = in.readUnsignedByte();
+        if (!Arrays.equals(MAGIC, magic) || version != VERSION) {
+            throw new IOException("Not a binary validation result segment of version " + VERSION);
+        }
+        return ResultCompression.values()[in.readUnsignedByte()];
+    }
+
+    /**
+     * Writes the records of one block
+     */
+    static class Encoder {
+        private final DataOutputStream out;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+
+        Encoder(final DataOutputStream out) {
+            this.out = out;
+        }
+
+        void encode(final ValidationResult result) throws IOException {
+            writeVarint(out, result.getIndex());
+            writeVarint(out, result.getValidationType().ordinal());
+            writeVarint(out, result.getValidationLevel().ordinal());
+            writeVarint(out, result.getStatus().ordinal());
+            writeRef(result.getSourceObjectId());
+            writeRef(result.getTargetObjectId());
+            writeRef(result.getSourceResourceId());
+            writeRef(result.getTargetResourceId());
+
+            final var template = result.getDetailsTemplate();
+            if (template != null && encodable(result.getDetailsArgs())) {
+                out.writeByte(DETAILS_TEMPLATE);
+                writeRef(template);
+                writeVarint(out, result.getDetailsArgs().length);
+                for (final var arg : result.getDetailsArgs()) {
+                    writeArg(arg);
+                }
+            } else if (result.getDetails() != null) {
+                out.writeByte(DETAILS_LITERAL);
+                writeString(out, result.getDetails());
+            } else {
+                out.writeByte(NULL);
+            }
+        }
+
+        private static boolean encodable(final Object[] args) {
+            for (final var arg : args) {
+                if (!(arg == null || arg instanceof String || arg instanceof Integer || arg instanceof Long ||
+                      arg instanceof Boolean)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void writeArg(final Object arg) throws IOException {
+            if (arg == null) {
+                out.writeByte(NULL);
+            } else if (arg instanceof String) {
+                out.writeByte(ARG_STRING);
+                writeRef((String) arg);
+            } else if (arg instanceof Boolean) {
+                out.writeByte((Boolean) arg ? ARG_TRUE : ARG_FALSE);
+            } else {
+                final var value = ((Number) arg).longValue();
+                out.writeByte(ARG_LONG);
+                writeVarint(out, encodeZigzag(value));
+            }
+        }
+
+        private void writeRef(final String value) throws IOException {
+            if (value == null) {
+                writeVarint(out, NULL);
+                return;
+            }
+
+            final var entry = dictionary.get(value);
+            if (entry != null) {
+                writeVarint(out, entry + ENTRY_OFFSET);
+            } else {
+                dictionary.put(value, dictionary.size());
+                writeVarint(out, NEW_ENTRY);
+                writeString(out, value);
+            }
+        }
+    }
+
+    /**
+     * Reads the records of one block
+     */
+    static class Decoder {
+        private final DataInputStream in;
+        private final List<String> dictionary = new ArrayList<>();
+
+        Decoder(final DataInputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * @return the next result, or null at the end of the block
+         */
+        ValidationResult decode() throws IOException {
+            final var first = in.read();
+            if (first == -1) {
+                return null;
+            }
+
+            final var index = (int) readVarint(in, first);
+            final var type = readEnum(TYPES);
+            final var level = readEnum(LEVELS);
+            final var status = readEnum(STATUSES);
+            final var sourceObjectId = readRef();
+            final var targetObjectId = readRef();
+            final var sourceResourceId = readRef();
+            final var targetResourceId = readRef();
+
+            final var detailsTag = in.readUnsignedByte();
+            if (detailsTag == DETAILS_TEMPLATE) {
+                final var template = readRef();
+                final var args = new Object[(int) readVarint(in, in.readUnsignedByte())];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = readArg();
+                }
+                return new ValidationResult(index, status, level, type, sourceObjectId, targetObjectId,
+                                            sourceResourceId, targetResourceId, template, args);
+            }
+
+            final var details = detailsTag == DETAILS_LITERAL ? readString(in) : null;
+            return new ValidationResult(index, status, level, type, sourceObjectId, targetObjectId, sourceResourceId,
+                                        targetResourceId, details);
+        }
+
+        private <T extends Enum<T>> T readEnum(final T[] values) throws IOException {
+            final var ordinal = readVarint(in, in.readUnsignedByte());
+            if (ordinal >= values.length) {
+                throw new IOException("Unknown " + values[0].getDeclaringClass().getSimpleName() + " " + ordinal);
+            }
+            return values[(int) ordinal];
+        }
+
+        private Object readArg() throws IOException {
+            final var tag = in.readUnsignedByte();
+            switch (tag) {
+                case NULL: return null;
+                case ARG_STRING: return readRef();
+                case ARG_TRUE: return true;
+                case ARG_FALSE: return false;
+                case ARG_LONG: return decodeZigzag(readVarint(in, in.readUnsignedByte()));
+                default: throw new IOException("Unknown argument tag " + tag);
+            }
+        }
+
+        private String readRef() throws IOException {
+            final var ref = (int) readVarint(in, in.readUnsignedByte());
+            if (ref == NULL) {
+                return null;
+            } else if (ref == NEW_ENTRY) {
+                final var value = readString(in);
+                dictionary.add(value);
+                return value;
+            }
+            return dictionary.get(ref - ENTRY_OFFSET);
+        }
+    }
+
+    static void writeVarint(final DataOutputStream out, final long value) throws IOException {
+        var remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) (remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    /**
+     * Read a varint whose first byte has already been read
+     */
+    static long readVarint(final DataInputStream in, final int first) throws IOException {
+        long value = first & 0x7F;
+        var current = first;
+        var shift = 7;
+        while ((current & 0x80) != 0) {
+            current = in.read();
+            if (current == -1) {
+                throw new EOFException("Truncated varint");
+            }
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+
+    private static long encodeZigzag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long decodeZigzag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final var bytes = value.getBytes(UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final var bytes = new byte[(int) readVarint(in, in.readUnsignedByte())];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
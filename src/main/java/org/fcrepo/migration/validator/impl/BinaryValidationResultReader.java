@@ -0,0 +1,275 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.fcrepo.migration.validator.api.ValidationResult;
+import org.slf4j.Logger;
+
+/**
+ * Reads the segment files written by the {@link BinaryValidationResultWriter}, either in full or, using the index of
+ * each segment, only the blocks holding the results of one object
+ *
+ * @author mikejritter
+ */
+public class BinaryValidationResultReader {
+
+    private static final Logger LOGGER = getLogger(BinaryValidationResultReader.class);
+
+    /**
+     * List the segment files of a results directory in the order they were created
+     *
+     * @param validationRoot the directory holding the segment files
+     * @return the segment files
+     */
+    public List<Path> segments(final Path validationRoot) {
+        try (var files = Files.list(validationRoot)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(BinaryResultCodec.EXTENSION))
+                        .sorted()
+                        .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to list result segments in " + validationRoot, e);
+        }
+    }
+
+    /**
+     * Read every result of a segment in the order it was written
+     *
+     * @param segment the segment file
+     * @param consumer the consumer of the results
+     */
+    public void read(final Path segment, final Consumer<ValidationResult> consumer) {
+        LOGGER.debug("Reading results from segment {}", segment);
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            final var compression = BinaryResultCodec.readHeader(in);
+            while (true) {
+                final int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                readBlock(in, length, compression, consumer);
+            }
+        } catch (EOFException e) {
+            // the run was interrupted while the segment was being written
+            LOGGER.warn("Result segment {} is truncated, skipping the incomplete block", segment);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read result segment " + segment, e);
+        }
+    }
+
+    /**
+     * Read the current results of every segment in a results directory, skipping results which were replaced by a
+     * later run, see {@link #currentSegments(Path)}
+     *
+     * @param validationRoot the directory holding the segment files
+     * @param consumer the consumer of the results
+     */
+    public void readAll(final Path validationRoot, final Consumer<ValidationResult> consumer) {
+        final var current = currentSegments(validationRoot);
+        for (final var segment : segments(validationRoot)) {
+            read(segment, result -> {
+                if (isCurrent(result, segment, current)) {
+                    consumer.accept(result);
+                }
+            });
+        }
+    }
+
+    /**
+     * Load the objects whose results were replaced by a later run
+     *
+     * @param validationRoot the directory holding the segment files
+     * @return the file name of the segment holding the current results of each replaced object, by object id
+     */
+    public Map<String, String> replacements(final Path validationRoot) {
+        final var replacements = new HashMap<String, String>();
+        final var log = BinaryResultCodec.replacedLogOf(validationRoot);
+        if (!Files.exists(log)) {
+            return replacements;
+        }
+
+        try (var lines = Files.lines(log)) {
+            lines.map(line -> line.split("\t", 2))
+                 .filter(parts -> parts.length == 2)
+                 .forEach(parts -> replacements.put(parts[0], parts[1]));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read the replaced results log " + log, e);
+        }
+        return replacements;
+    }
+
+    /**
+     * Find the segment holding the current results of each object. An object validated again after a run was killed,
+     * e.g. by --resume, has its partial results in an earlier segment and its complete results in a later one, so the
+     * last segment whose index lists the object is current. A replacement recorded in replaced.log wins over both, as
+     * it is only recorded once the object is complete. The map holds an entry for every indexed object.
+     *
+     * @param validationRoot the directory holding the segment files
+     * @return the file name of the segment holding the current results of each object, by object id
+     */
+    public Map<String, String> currentSegments(final Path validationRoot) {
+        final var current = new HashMap<String, String>();
+        for (final var segment : segments(validationRoot)) {
+            final var index = BinaryResultCodec.indexOf(segment);
+            if (Files.exists(index)) {
+                final var segmentName = segment.getFileName().toString();
+                readIndex(index, (objectId, offset) -> current.put(objectId, segmentName));
+            }
+        }
+        current.putAll(replacements(validationRoot));
+        return current;
+    }
+
+    /**
+     * @param result a result read from a segment
+     * @param segment the segment
+     * @param current the segment holding the current results of each object, see {@link #currentSegments(Path)}
+     * @return false if the result was superseded by one in another segment
+     */
+    public static boolean isCurrent(final ValidationResult result, final Path segment,
+                                    final Map<String, String> current) {
+        final var currentSegment = result.getSourceObjectId() == null ? null : current.get(result.getSourceObjectId());
+        return currentSegment == null || currentSegment.equals(segment.getFileName().toString());
+    }
+
+    /**
+     * Read the results of one object, see {@link #lookup(Path, Collection, Consumer)}
+     *
+     * @param validationRoot the directory holding the segment files
+     * @param objectId the source object id
+     * @param consumer the consumer of the results of the object
+     */
+    public void lookup(final Path validationRoot, final String objectId, final Consumer<ValidationResult> consumer) {
+        lookup(validationRoot, List.of(objectId), consumer);
+    }
+
+    /**
+     * Read the results of several objects, one object after another. The index of each segment is read once for all of
+     * the objects, and only the blocks which the indexes list for an object in its current segment are read, see
+     * {@link #currentSegments(Path)}. A segment without an index is scanned in full.
+     *
+     * @param validationRoot the directory holding the segment files
+     * @param objectIds the source object ids
+     * @param consumer the consumer of the results of the objects
+     */
+    public void lookup(final Path validationRoot, final Collection<String> objectIds,
+                       final Consumer<ValidationResult> consumer) {
+        final var wanted = Set.copyOf(objectIds);
+        final var offsets = new HashMap<String, Map<Path, Set<Long>>>();
+        final var unindexed = new ArrayList<Path>();
+        for (final var segment : segments(validationRoot)) {
+            final var index = BinaryResultCodec.indexOf(segment);
+            if (!Files.exists(index)) {
+                unindexed.add(segment);
+                continue;
+            }
+            readIndex(index, (objectId, offset) -> {
+                if (wanted.contains(objectId)) {
+                    offsets.computeIfAbsent(objectId, id -> new LinkedHashMap<>())
+                           .computeIfAbsent(segment, path -> new TreeSet<>())
+                           .add(offset);
+                }
+            });
+        }
+
+        final var replacements = replacements(validationRoot);
+        for (final var objectId : new LinkedHashSet<>(objectIds)) {
+            final var segmentOffsets = offsets.getOrDefault(objectId, Map.of());
+            // the last segment listing the object is current, unless the object was replaced
+            final var currentSegment = Optional.ofNullable(replacements.get(objectId))
+                                               .or(() -> segmentOffsets.keySet().stream()
+                                                                       .reduce((first, second) -> second)
+                                                                       .map(path -> path.getFileName().toString()));
+            final var current = currentSegment.map(segment -> Map.of(objectId, segment))
+                                              .orElse(Map.of());
+            final Consumer<ValidationResult> filter = result -> {
+                if (objectId.equals(result.getSourceObjectId())) {
+                    consumer.accept(result);
+                }
+            };
+
+            for (final var segment : unindexed) {
+                read(segment, result -> {
+                    if (isCurrent(result, segment, current)) {
+                        filter.accept(result);
+                    }
+                });
+            }
+            currentSegment.map(validationRoot::resolve)
+                          .filter(segmentOffsets::containsKey)
+                          .ifPresent(segment -> readBlocks(segment, segmentOffsets.get(segment), filter));
+        }
+    }
+
+    private void readBlocks(final Path segment, final Set<Long> offsets, final Consumer<ValidationResult> consumer) {
+        try (var file = new RandomAccessFile(segment.toFile(), "r")) {
+            final var compression = BinaryResultCodec.readHeader(file);
+            for (final var offset : offsets) {
+                file.seek(offset);
+                readBlock(file, file.readInt(), compression, consumer);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read result segment " + segment, e);
+        }
+    }
+
+    private void readIndex(final Path index, final BiConsumer<String, Long> consumer) {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            while (true) {
+                final String indexedId;
+                try {
+                    indexedId = in.readUTF();
+                } catch (EOFException e) {
+                    break;
+                }
+                consumer.accept(indexedId, in.readLong());
+            }
+        } catch (EOFException e) {
+            LOGGER.warn("Result index {} is truncated", index);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read result index " + index, e);
+        }
+    }
+
+    private void readBlock(final DataInput in, final int length, final ResultCompression compression,
+                           final Consumer<ValidationResult> consumer) throws IOException {
+        final var compressed = new byte[length];
+        in.readFully(compressed);
+        try (var block = new DataInputStream(compression.decompress(new ByteArrayInputStream(compressed)))) {
+            final var decoder = new BinaryResultCodec.Decoder(block);
+            ValidationResult result;
+            while ((result = decoder.decode()) != null) {
+                consumer.accept(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.OK;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.api.ValidationResultWriter;
+import org.slf4j.Logger;
+
+/**
+ * A result writer which appends results to segment files in a compact binary encoding, see {@link BinaryResultCodec}.
+ *
+ * Each thread writes to its own segment so that writers do not contend with each other and the results of an object
+ * stay together. Results are buffered into blocks which are compressed when they reach the block size, and the offset
+ * of the block holding each object is recorded in an index file next to the segment, so the results of an object can
+ * be found by decompressing a single block. Blocks and segments are only cut between objects: a segment is rotated
+ * once it holds the maximum number of records, which bounds the number of files an object lookup reads.
+ *
+ * When replacing the results of a previous run, each completed object is recorded in replaced.log along with the
+ * segment holding its new results, once the block holding them has been written. Readers ignore the results of a
+ * replaced object in any other segment, so the old results are superseded all at once.
+ *
+ * @author mikejritter
+ */
+public class BinaryValidationResultWriter implements ValidationResultWriter {
+
+    private static final Logger LOGGER = getLogger(BinaryValidationResultWriter.class);
+
+    public static final int DEFAULT_SEGMENT_RECORDS = 1_000_000;
+    public static final int DEFAULT_BLOCK_BYTES = 64 * 1024;
+
+    private final Path validationRoot;
+    private final boolean writeFailureOnly;
+    private final boolean replace;
+    private final ResultCompression compression;
+    private final int segmentRecords;
+    private final int blockBytes;
+    private final AtomicInteger segmentCount = new AtomicInteger();
+    private final ThreadLocal<Segment> segments = new ThreadLocal<>();
+    private final ConcurrentLinkedQueue<Segment> openSegments = new ConcurrentLinkedQueue<>();
+    private BufferedWriter replacedLog;
+
+    /**
+     * Constructor
+     *
+     * @param validationRoot the directory holding the segment files
+     * @param writeFailureOnly flag to indicate if we should write only failed validations or all
+     * @param compression the compression of the blocks
+     */
+    public BinaryValidationResultWriter(final Path validationRoot, final boolean writeFailureOnly,
+                                        final ResultCompression compression) {
+        this(validationRoot, writeFailureOnly, false, compression, DEFAULT_SEGMENT_RECORDS, DEFAULT_BLOCK_BYTES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param validationRoot the directory holding the segment files
+     * @param writeFailureOnly flag to indicate if we should write only failed validations or all
+     * @param replace flag to indicate the results of each object replace those of a previous run
+     * @param compression the compression of the blocks
+     * @param segmentRecords the number of records after which a segment is rotated
+     * @param blockBytes the number of uncompressed bytes after which a block is compressed and written
+     */
+    public BinaryValidationResultWriter(final Path validationRoot, final boolean writeFailureOnly,
+                                        final boolean replace, final ResultCompression compression,
+                                        final int segmentRecords, final int blockBytes) {
+        this.validationRoot = validationRoot;
+        this.writeFailureOnly = writeFailureOnly;
+        this.replace = replace;
+        this.compression = compression;
+        this.segmentRecords = segmentRecords;
+        this.blockBytes = blockBytes;
+        validationRoot.toFile().mkdirs();
+    }
+
+    @Override
+    public void write(final List<ValidationResult> results) {
+        results.forEach(this::accept);
+    }
+
+    @Override
+    public void accept(final ValidationResult result) {
+        if (result.getStatus() == OK && writeFailureOnly) {
+            return;
+        }
+
+        try {
+            var segment = segments.get();
+            if (segment != null && segment.closed) {
+                segment = null;
+            } else if (segment != null && !Objects.equals(segment.lastObjectId, result.getSourceObjectId())) {
+                if (segment.records >= segmentRecords) {
+                    openSegments.remove(segment);
+                    segment.close();
+                    segment = null;
+                } else if (segment.block.size() >= blockBytes) {
+                    segment.flushBlock();
+                }
+            }
+            if (segment == null) {
+                segment = openSegment();
+                segments.set(segment);
+            }
+            segment.write(result);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write validation result", e);
+        }
+    }
+
+    @Override
+    public void completeObject(final String pid) {
+        if (!replace) {
+            return;
+        }
+
+        try {
+            var segment = segments.get();
+            if (segment == null || segment.closed) {
+                segment = openSegment();
+                segments.set(segment);
+            }
+            segment.blockReplaced.add(pid);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to replace the results of " + pid, e);
+        }
+    }
+
+    /**
+     * Delete the segments left by a previous run, so that a run which is not resumed does not report them again
+     */
+    public void clear() {
+        for (final var segment : new BinaryValidationResultReader().segments(validationRoot)) {
+            try {
+                Files.delete(segment);
+                Files.deleteIfExists(BinaryResultCodec.indexOf(segment));
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to delete result segment " + segment, e);
+            }
+        }
+        try {
+            Files.deleteIfExists(BinaryResultCodec.replacedLogOf(validationRoot));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to delete the replaced results log", e);
+        }
+    }
+
+    /**
+     * Flush and close the open segments. Each thread may write again afterwards, which starts a new segment.
+     */
+    @Override
+    public void close() {
+        segments.remove();
+        Segment segment;
+        while ((segment = openSegments.poll()) != null) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                LOGGER.error("Failed to close result segment {}", segment.path, e);
+            }
+        }
+        synchronized (this) {
+            if (replacedLog != null) {
+                try {
+                    replacedLog.close();
+                } catch (IOException e) {
+                    LOGGER.error("Failed to close the replaced results log", e);
+                }
+                replacedLog = null;
+            }
+        }
+    }
+
+    /**
+     * Record that the objects of a block which has been written replace their previous results
+     */
+    private synchronized void recordReplaced(final Path segment, final Collection<String> pids) throws IOException {
+        if (replacedLog == null) {
+            replacedLog = Files.newBufferedWriter(BinaryResultCodec.replacedLogOf(validationRoot), CREATE, APPEND);
+        }
+        for (final var pid : pids) {
+            replacedLog.write(pid + "\t" + segment.getFileName() + System.lineSeparator());
+        }
+        replacedLog.flush();
+    }
+
+    private Segment openSegment() throws IOException {
+        while (true) {
+            final var path = validationRoot.resolve(String.format("segment-%06d%s", segmentCount.getAndIncrement(),
+                                                                  BinaryResultCodec.EXTENSION));
+            try {
+                // segments of a resumed run are kept
+                Files.createFile(path);
+            } catch (FileAlreadyExistsException e) {
+                continue;
+            }
+
+            LOGGER.debug("Writing results to segment {}", path);
+            final var segment = new Segment(path);
+            openSegments.add(segment);
+            return segment;
+        }
+    }
+
+    private class Segment {
+        private final Path path;
+        private final DataOutputStream out;
+        private final DataOutputStream index;
+        private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+        private final Set<String> blockObjects = new LinkedHashSet<>();
+        private final Set<String> blockReplaced = new LinkedHashSet<>();
+        private BinaryResultCodec.Encoder encoder;
+        private long offset;
+        private int records;
+        private String lastObjectId;
+        private volatile boolean closed;
+
+        Segment(final Path path) throws IOException {
+            this.path = path;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+            this.index = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(BinaryResultCodec.indexOf(path))));
+            BinaryResultCodec.writeHeader(out, compression);
+            this.offset = out.size();
+        }
+
+        void write(final ValidationResult result) throws IOException {
+            if (encoder == null) {
+                encoder = new BinaryResultCodec.Encoder(new DataOutputStream(block));
+            }
+            encoder.encode(result);
+            records++;
+            lastObjectId = result.getSourceObjectId();
+            if (lastObjectId != null) {
+                blockObjects.add(lastObjectId);
+            }
+        }
+
+        void flushBlock() throws IOException {
+            if (encoder == null && blockReplaced.isEmpty()) {
+                return;
+            }
+
+            final var compressed = new ByteArrayOutputStream(block.size() / 4);
+            try (var stream = compression.compress(compressed)) {
+                block.writeTo(stream);
+            }
+            out.writeInt(compressed.size());
+            compressed.writeTo(out);
+
+            for (final var objectId : blockObjects) {
+                index.writeUTF(objectId);
+                index.writeLong(offset);
+            }
+            offset += Integer.BYTES + compressed.size();
+
+            if (!blockReplaced.isEmpty()) {
+                // the new results must be on disk before they supersede the old ones
+                out.flush();
+                index.flush();
+                recordReplaced(path, blockReplaced);
+            }
+
+            block.reset();
+            blockObjects.clear();
+            blockReplaced.clear();
+            encoder = null;
+        }
+
+        void close() throws IOException {
+            try {
+                flushBlock();
+            } finally {
+                closed = true;
+                out.close();
+                index.close();
+            }
+        }
+    }
+}
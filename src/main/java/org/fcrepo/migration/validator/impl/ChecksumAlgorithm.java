@@ -0,0 +1,92 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Digest algorithms which may be recorded for a datastream, along with the names each system uses for them. Fedora 3
+ * uses the FOXML contentDigest TYPE, OCFL inventories use the OCFL name, and Fedora 6 headers use a urn of the java
+ * standard name.
+ *
+ * @author mikejritter
+ */
+@SuppressWarnings("deprecation")
+public enum ChecksumAlgorithm {
+    md5("MD5", "md5", "MD5", Hashing.md5()),
+    sha1("SHA-1", "sha1", "SHA-1", Hashing.sha1()),
+    sha256("SHA-256", "sha256", "SHA-256", Hashing.sha256()),
+    sha512("SHA-512", "sha512", "SHA-512", Hashing.sha512());
+
+    private final String foxmlType;
+    private final String ocflName;
+    private final String javaName;
+    private final HashFunction hashFunction;
+
+    ChecksumAlgorithm(final String foxmlType,
+                      final String ocflName,
+                      final String javaName,
+                      final HashFunction hashFunction) {
+        this.foxmlType = foxmlType;
+        this.ocflName = ocflName;
+        this.javaName = javaName;
+        this.hashFunction = hashFunction;
+    }
+
+    public String getFoxmlType() {
+        return foxmlType;
+    }
+
+    public String getOcflName() {
+        return ocflName;
+    }
+
+    public String getJavaName() {
+        return javaName;
+    }
+
+    /**
+     * @return the prefix of Fedora 6 header digests for this algorithm, e.g. urn:sha-512
+     */
+    public String getUrnPrefix() {
+        return "urn:" + javaName.toLowerCase();
+    }
+
+    public Hasher hasher() {
+        return hashFunction.newHasher();
+    }
+
+    /**
+     * @param type the TYPE of a FOXML contentDigest
+     * @return the algorithm, or empty if it is not supported
+     */
+    public static Optional<ChecksumAlgorithm> fromFoxmlType(final String type) {
+        return Arrays.stream(values()).filter(algorithm -> algorithm.foxmlType.equalsIgnoreCase(type)).findFirst();
+    }
+
+    /**
+     * @param name the name of an OCFL digest algorithm
+     * @return the algorithm, or empty if it is not supported
+     */
+    public static Optional<ChecksumAlgorithm> fromOcflName(final String name) {
+        return Arrays.stream(values()).filter(algorithm -> algorithm.ocflName.equalsIgnoreCase(name)).findFirst();
+    }
+
+    /**
+     * @param urn a Fedora 6 header digest, e.g. urn:sha-512:abcd
+     * @return the algorithm, or empty if it is not supported
+     */
+    public static Optional<ChecksumAlgorithm> fromUrn(final String urn) {
+        final var lowercase = urn.toLowerCase();
+        return Arrays.stream(values()).filter(algorithm -> lowercase.startsWith(algorithm.getUrnPrefix() + ":"))
+                     .findFirst();
+    }
+}
@@ -0,0 +1,419 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.HashCode;
+import org.fcrepo.migration.DatastreamVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A checksum cache which persists across validation runs so that unchanged Fedora 3 datastream files do not need to
+ * be read again. Digests are keyed by the path of the file and the algorithm, and are stored with the size, modified
+ * time, and inode of the file when it was hashed.
+ *
+ * The cache is an append-only log of length prefixed records. On open the log is scanned once to build an index of
+ * the offset of the latest record for each key, and records are read back from the log on lookup. A record left
+ * incomplete by an interrupted run is truncated.
+ *
+ * Independently of the persistent log, digests are memoized for the length of a run by the identity of the file, or
+ * its real path if the file system has no file keys. Datastream versions and objects which share a file have it
+ * hashed once, and concurrent workers which need the same file wait on a single computation. The memo is bounded, so
+ * a file evicted from it may be hashed again.
+ *
+ * @author mikejritter
+ */
+public class ChecksumCache implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChecksumCache.class);
+
+    private static final int MAGIC = 0x46434b31;
+
+    private final ChecksumCacheMode mode;
+    private final Path logFile;
+    private final Map<String, Long> index = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final Cache<String, CompletableFuture<HashCode>> memo;
+    private final IoThrottle throttle;
+    private FileChannel channel;
+
+    /**
+     * Constructor for a cache without a run scoped memo
+     *
+     * @param logFile the file holding the cache
+     * @param mode the cache mode
+     * @throws RuntimeException if the cache cannot be opened
+     */
+    public ChecksumCache(final Path logFile, final ChecksumCacheMode mode) {
+        this(logFile, mode, 0);
+    }
+
+    /**
+     * Constructor for a cache which does not limit reads of source files
+     *
+     * @param logFile the file holding the cache
+     * @param mode the cache mode
+     * @param memoSize the maximum number of digests held in memory for the run, or 0 to disable the memo
+     * @throws RuntimeException if the cache cannot be opened
+     */
+    public ChecksumCache(final Path logFile, final ChecksumCacheMode mode, final long memoSize) {
+        this(logFile, mode, memoSize, IoThrottle.unlimited("source"));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param logFile the file holding the cache
+     * @param mode the cache mode
+     * @param memoSize the maximum number of digests held in memory for the run, or 0 to disable the memo
+     * @param throttle the throttle for reads of source files
+     * @throws RuntimeException if the cache cannot be opened
+     */
+    public ChecksumCache(final Path logFile,
+                         final ChecksumCacheMode mode,
+                         final long memoSize,
+                         final IoThrottle throttle) {
+        this.mode = mode;
+        this.logFile = logFile;
+        this.throttle = throttle;
+        this.memo = memoSize > 0 ? Caffeine.newBuilder().maximumSize(memoSize).build() : null;
+        if (mode != ChecksumCacheMode.off) {
+            try {
+                open();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to open checksum cache " + logFile, e);
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(logFile.toAbsolutePath().getParent());
+        channel = FileChannel.open(logFile, CREATE, READ, WRITE);
+        if (channel.size() == 0) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, MAGIC));
+            return;
+        }
+
+        channel.position(0);
+        final var input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a checksum cache: " + logFile);
+        }
+
+        long offset = Integer.BYTES;
+        try {
+            while (true) {
+                final var length = input.readInt();
+                final var record = new byte[length];
+                input.readFully(record);
+                final var entry = Entry.read(record);
+                index.put(key(entry.path, entry.algorithm), offset);
+                offset += Integer.BYTES + length;
+            }
+        } catch (EOFException e) {
+            if (offset < channel.size()) {
+                LOGGER.warn("Truncating incomplete record in checksum cache {} at offset {}", logFile, offset);
+                channel.truncate(offset);
+            }
+        }
+        channel.position(channel.size());
+        LOGGER.info("Loaded {} entries from checksum cache {}", index.size(), logFile);
+    }
+
+    /**
+     * Digest a datastream version, using cached digests of its local file where possible. Datastreams without a local
+     * file are always hashed.
+     *
+     * @param dsVersion the datastream version
+     * @param algorithms the algorithms to compute
+     * @return the digest of each algorithm
+     * @throws IOException if the datastream cannot be read
+     */
+    public Map<ChecksumAlgorithm, HashCode> digest(final DatastreamVersion dsVersion,
+                                                   final Collection<ChecksumAlgorithm> algorithms)
+        throws IOException {
+        final var file = dsVersion.getFile().filter(File::isFile);
+        if (file.isEmpty()) {
+            return MultiDigester.digest(dsVersion, algorithms, throttle);
+        }
+
+        return digest(file.get().toPath(), algorithms);
+    }
+
+    /**
+     * Digest a file, using cached digests where possible. If another thread is already hashing the same file, its
+     * result is shared instead of reading the file again.
+     *
+     * @param file the file
+     * @param algorithms the algorithms to compute
+     * @return the digest of each algorithm
+     * @throws IOException if the file cannot be read
+     */
+    public Map<ChecksumAlgorithm, HashCode> digest(final Path file, final Collection<ChecksumAlgorithm> algorithms)
+        throws IOException {
+        if (mode == ChecksumCacheMode.off && memo == null) {
+            return MultiDigester.digest(file, algorithms, throttle);
+        }
+
+        throttle.acquireOp();
+        final var path = memo != null ? file.toRealPath() : file.toAbsolutePath();
+        final var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        final var size = attributes.size();
+        final var modified = attributes.lastModifiedTime().toMillis();
+        final var inode = Objects.toString(attributes.fileKey(), "");
+
+        // claim the algorithms no other thread is computing for this file, and wait on the rest
+        final var owned = new EnumMap<ChecksumAlgorithm, CompletableFuture<HashCode>>(ChecksumAlgorithm.class);
+        final var inFlight = new EnumMap<ChecksumAlgorithm, CompletableFuture<HashCode>>(ChecksumAlgorithm.class);
+        for (final var algorithm : algorithms) {
+            final var future = new CompletableFuture<HashCode>();
+            final var existing = memo == null ? null :
+                                 memo.asMap().putIfAbsent(memoKey(path, size, modified, inode, algorithm), future);
+            if (existing == null) {
+                owned.put(algorithm, future);
+            } else {
+                shared.increment();
+                inFlight.put(algorithm, existing);
+            }
+        }
+
+        final var digests = new EnumMap<ChecksumAlgorithm, HashCode>(ChecksumAlgorithm.class);
+        try {
+            digests.putAll(load(path, size, modified, inode, owned.keySet()));
+            owned.forEach((algorithm, future) -> future.complete(digests.get(algorithm)));
+        } catch (IOException | RuntimeException e) {
+            owned.forEach((algorithm, future) -> {
+                future.completeExceptionally(e);
+                if (memo != null) {
+                    memo.asMap().remove(memoKey(path, size, modified, inode, algorithm), future);
+                }
+            });
+            throw e;
+        }
+
+        for (final var entry : inFlight.entrySet()) {
+            try {
+                digests.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        return digests;
+    }
+
+    /**
+     * Read digests from the persistent cache, or compute and record the ones which are missing
+     */
+    private Map<ChecksumAlgorithm, HashCode> load(final Path path,
+                                                  final long size,
+                                                  final long modified,
+                                                  final String inode,
+                                                  final Collection<ChecksumAlgorithm> algorithms)
+        throws IOException {
+        if (algorithms.isEmpty()) {
+            return Map.of();
+        } else if (mode == ChecksumCacheMode.off) {
+            return MultiDigester.digest(path, algorithms, throttle);
+        }
+
+        final var digests = new EnumMap<ChecksumAlgorithm, HashCode>(ChecksumAlgorithm.class);
+        final var missing = new ArrayList<ChecksumAlgorithm>();
+        for (final var algorithm : algorithms) {
+            final var cached = lookup(path.toString(), algorithm)
+                .filter(entry -> mode == ChecksumCacheMode.trust || entry.matches(size, modified, inode));
+            if (cached.isPresent()) {
+                hits.increment();
+                digests.put(algorithm, HashCode.fromBytes(cached.get().digest));
+            } else {
+                misses.increment();
+                missing.add(algorithm);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            final var computed = MultiDigester.digest(path, missing, throttle);
+            for (final var result : computed.entrySet()) {
+                append(new Entry(path.toString(), size, modified, inode, result.getKey(),
+                                 result.getValue().asBytes()));
+            }
+            digests.putAll(computed);
+        }
+
+        return digests;
+    }
+
+    /**
+     * Files are identified by their inode when the file system provides one, so hard links share a digest. Otherwise
+     * the real path of the file is used.
+     */
+    private static String memoKey(final Path path, final long size, final long modified, final String inode,
+                                  final ChecksumAlgorithm algorithm) {
+        final var identity = inode.isEmpty() ? path.toString() : inode;
+        return algorithm.name() + ":" + size + ":" + modified + ":" + identity;
+    }
+
+    private Optional<Entry> lookup(final String path, final ChecksumAlgorithm algorithm) throws IOException {
+        final var offset = index.get(key(path, algorithm));
+        if (offset == null) {
+            return Optional.empty();
+        }
+
+        final var lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+        readFully(lengthBuffer, offset);
+        final var record = ByteBuffer.allocate(lengthBuffer.getInt(0));
+        readFully(record, offset + Integer.BYTES);
+        return Optional.of(Entry.read(record.array()));
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        var read = 0;
+        while (buffer.hasRemaining()) {
+            final var count = channel.read(buffer, position + read);
+            if (count < 0) {
+                throw new EOFException("Unexpected end of checksum cache " + logFile);
+            }
+            read += count;
+        }
+    }
+
+    private synchronized void append(final Entry entry) throws IOException {
+        final var record = entry.write();
+        final var buffer = ByteBuffer.allocate(Integer.BYTES + record.length).putInt(record.length).put(record);
+        buffer.flip();
+        final var offset = channel.size();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        index.put(key(entry.path, entry.algorithm), offset);
+    }
+
+    private static String key(final String path, final ChecksumAlgorithm algorithm) {
+        return algorithm.name() + ":" + path;
+    }
+
+    public ChecksumCacheMode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the number of digests read from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of digests shared from the run scoped memo
+     */
+    public long getShared() {
+        return shared.sum();
+    }
+
+    /**
+     * @return the number of digests which were computed
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    /**
+     * A single record of the cache
+     */
+    private static class Entry {
+        private final String path;
+        private final long size;
+        private final long modified;
+        private final String inode;
+        private final ChecksumAlgorithm algorithm;
+        private final byte[] digest;
+
+        Entry(final String path, final long size, final long modified, final String inode,
+              final ChecksumAlgorithm algorithm, final byte[] digest) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.inode = inode;
+            this.algorithm = algorithm;
+            this.digest = digest;
+        }
+
+        boolean matches(final long size, final long modified, final String inode) {
+            return this.size == size && this.modified == modified && this.inode.equals(inode);
+        }
+
+        byte[] write() throws IOException {
+            final var bytes = new ByteArrayOutputStream(path.length() + digest.length + 64);
+            try (var output = new DataOutputStream(bytes)) {
+                output.writeUTF(path);
+                output.writeLong(size);
+                output.writeLong(modified);
+                output.writeUTF(inode);
+                output.writeByte(algorithm.ordinal());
+                output.writeByte(digest.length);
+                output.write(digest);
+            }
+            return bytes.toByteArray();
+        }
+
+        static Entry read(final byte[] record) throws IOException {
+            final var input = new DataInputStream(new ByteArrayInputStream(record));
+            final var path = input.readUTF();
+            final var size = input.readLong();
+            final var modified = input.readLong();
+            final var inode = input.readUTF();
+            final var algorithm = ChecksumAlgorithm.values()[input.readUnsignedByte()];
+            final var digest = new byte[input.readUnsignedByte()];
+            input.readFully(digest);
+            return new Entry(path, size, modified, inode, algorithm, digest);
+        }
+    }
+}
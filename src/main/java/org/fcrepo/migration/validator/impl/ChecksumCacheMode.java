@@ -0,0 +1,17 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+/**
+ * How the persistent checksum cache is used. In verify mode a cached digest is only used when the size, modified
+ * time, and inode of the file are unchanged since it was recorded. In trust mode a cached digest is used for any file
+ * at the same path. When off, every datastream is hashed and nothing is recorded.
+ *
+ * @author mikejritter
+ */
+public enum ChecksumCacheMode {
+    verify, trust, off
+}
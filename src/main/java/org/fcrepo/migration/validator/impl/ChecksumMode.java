@@ -0,0 +1,19 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+/**
+ * How datastream checksums are validated. In single mode the source is hashed with the configured
+ * {@link F6DigestAlgorithm} and compared against the Fedora 6 headers. In multi mode the source is read once and
+ * hashed with every algorithm which has a recorded digest: the Fedora 6 headers, the OCFL inventory, and the FOXML
+ * contentDigest. In recorded mode the FOXML contentDigest is compared with the digests recorded by Fedora 6 without
+ * reading the datastream, and only datastreams without comparable digests are hashed.
+ *
+ * @author mikejritter
+ */
+public enum ChecksumMode {
+    single, multi, recorded
+}
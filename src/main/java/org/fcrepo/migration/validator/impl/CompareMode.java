@@ -0,0 +1,17 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+/**
+ * How datastream content is compared during checksum validations. In digest mode the datastream is hashed according
+ * to the {@link ChecksumMode}. In bytes mode a datastream with a local file is compared byte for byte with the OCFL
+ * content file, and only datastreams without a local file are hashed.
+ *
+ * @author mikejritter
+ */
+public enum CompareMode {
+    digest, bytes
+}
@@ -0,0 +1,137 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Compares the content of two files byte for byte. Both files are read through FileChannels into direct buffers, which
+ * are allocated once per thread, and each pair of chunks is compared with {@link ByteBuffer#mismatch(ByteBuffer)}.
+ * Reads of each file may be limited by an {@link IoThrottle}.
+ *
+ * @author mikejritter
+ */
+public final class ContentComparator {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final String INODE_ATTRIBUTES = "unix:ino,dev";
+    private static final boolean UNIX_ATTRIBUTES =
+        FileSystems.getDefault().supportedFileAttributeViews().contains("unix");
+
+    private static final ThreadLocal<ByteBuffer[]> BUFFERS = ThreadLocal.withInitial(() -> new ByteBuffer[] {
+        ByteBuffer.allocateDirect(BUFFER_SIZE), ByteBuffer.allocateDirect(BUFFER_SIZE)
+    });
+
+    private static final IoThrottle NO_THROTTLE = IoThrottle.unlimited("none");
+
+    private ContentComparator() {
+    }
+
+    /**
+     * Check if two paths are the same physical file, e.g. a hard link from the Fedora 3 datastream store into the OCFL
+     * content directory. The inode and device id are compared where the unix attribute view is available, otherwise
+     * this falls back to {@link Files#isSameFile(Path, Path)}.
+     *
+     * @param source the source file
+     * @param target the target file
+     * @return true if both paths are the same file
+     * @throws IOException if either file cannot be read
+     */
+    public static boolean isSameFile(final Path source, final Path target) throws IOException {
+        if (UNIX_ATTRIBUTES) {
+            final var sourceAttributes = Files.readAttributes(source, INODE_ATTRIBUTES);
+            final var targetAttributes = Files.readAttributes(target, INODE_ATTRIBUTES);
+            return Objects.equals(sourceAttributes.get("ino"), targetAttributes.get("ino")) &&
+                   Objects.equals(sourceAttributes.get("dev"), targetAttributes.get("dev"));
+        }
+        return Files.isSameFile(source, target);
+    }
+
+    /**
+     * Find the offset of the first byte which differs between two files. The comparison stops at the first difference.
+     *
+     * @param source the source file
+     * @param target the target file
+     * @return the offset of the first difference, or -1 if the files are identical. If one file is a prefix of the
+     *         other, the length of the shorter file is returned.
+     * @throws IOException if either file cannot be read
+     */
+    public static long mismatch(final Path source, final Path target) throws IOException {
+        return mismatch(source, target, NO_THROTTLE, NO_THROTTLE);
+    }
+
+    /**
+     * Find the offset of the first byte which differs between two files. The comparison stops at the first difference.
+     *
+     * @param source the source file
+     * @param target the target file
+     * @param sourceThrottle the throttle for reads of the source file
+     * @param targetThrottle the throttle for reads of the target file
+     * @return the offset of the first difference, or -1 if the files are identical. If one file is a prefix of the
+     *         other, the length of the shorter file is returned.
+     * @throws IOException if either file cannot be read
+     */
+    public static long mismatch(final Path source,
+                                final Path target,
+                                final IoThrottle sourceThrottle,
+                                final IoThrottle targetThrottle) throws IOException {
+        if (isSameFile(source, target)) {
+            return -1;
+        }
+
+        final var buffers = BUFFERS.get();
+        final var sourceBuffer = buffers[0];
+        final var targetBuffer = buffers[1];
+
+        sourceThrottle.acquireOp();
+        targetThrottle.acquireOp();
+        try (var sourceChannel = FileChannel.open(source, READ);
+             var targetChannel = FileChannel.open(target, READ)) {
+            long position = 0;
+            while (true) {
+                final var sourceEnd = fill(sourceChannel, sourceBuffer, sourceThrottle);
+                final var targetEnd = fill(targetChannel, targetBuffer, targetThrottle);
+
+                final var mismatch = sourceBuffer.mismatch(targetBuffer);
+                if (mismatch >= 0) {
+                    return position + mismatch;
+                }
+                if (sourceEnd && targetEnd) {
+                    return -1;
+                }
+                position += sourceBuffer.remaining();
+            }
+        }
+    }
+
+    /**
+     * Fill a buffer from a channel and flip it for reading
+     *
+     * @return true if the end of the channel was reached
+     */
+    private static boolean fill(final FileChannel channel,
+                                final ByteBuffer buffer,
+                                final IoThrottle throttle) throws IOException {
+        buffer.clear();
+        var end = false;
+        while (buffer.hasRemaining() && !end) {
+            final var read = channel.read(buffer);
+            end = read < 0;
+            throttle.acquireOp();
+            throttle.acquireBytes(read);
+        }
+        buffer.flip();
+        return end;
+    }
+}
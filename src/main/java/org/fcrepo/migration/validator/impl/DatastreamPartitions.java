@@ -0,0 +1,208 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.google.common.base.Throwables;
+import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.api.ValidationResultSink;
+import org.fcrepo.storage.ocfl.OcflObjectSession;
+
+/**
+ * Validates the datastreams of a large object in contiguous partitions in parallel, each with its own session. The
+ * first partition runs on the calling thread and streams its results to the sink of the object. The others hand their
+ * results over through a bounded queue which is drained once the partitions before them are done, so a partition holds
+ * at most queueSize results. The results are merged in partition order and renumbered, so the result indexes are the
+ * same as if the datastreams were validated in order.
+ *
+ * A partition only waits on the partitions submitted before it, so the executor must run tasks in the order they are
+ * submitted, e.g. a fixed thread pool.
+ *
+ * @author mikejritter
+ */
+class DatastreamPartitions {
+
+    /**
+     * The most results a partition holds before it waits for the partitions before it to be merged
+     */
+    static final int QUEUE_SIZE = 1024;
+
+    private static final ValidationResult END_OF_PARTITION = new ValidationResult();
+
+    private final Executor executor;
+    private final int queueSize;
+
+    /**
+     * Validates a single datastream of a partition
+     */
+    @FunctionalInterface
+    interface DatastreamValidator {
+        void validate(String dsId, Partition partition);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param executor the executor running every partition after the first
+     */
+    DatastreamPartitions(final Executor executor) {
+        this(executor, QUEUE_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param executor the executor running every partition after the first
+     * @param queueSize the most results held by a partition
+     */
+    DatastreamPartitions(final Executor executor, final int queueSize) {
+        this.executor = executor;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Validate the datastreams in partitions. The sessions opened for the partitions are closed once each partition
+     * is done.
+     *
+     * @param dsIds the ids of the datastreams
+     * @param partitionCount the number of partitions
+     * @param first the partition run on the calling thread, which receives the results of every partition
+     * @param sessionSupplier opens a session for each of the other partitions
+     * @param validator validates a datastream
+     */
+    void validate(final List<String> dsIds,
+                  final int partitionCount,
+                  final Partition first,
+                  final Supplier<OcflObjectSession> sessionSupplier,
+                  final DatastreamValidator validator) {
+        final var partitionSize = (dsIds.size() + partitionCount - 1) / partitionCount;
+        final var partitions = new ArrayList<Partition>();
+        final var futures = new ArrayList<CompletableFuture<Void>>();
+        for (var start = partitionSize; start < dsIds.size(); start += partitionSize) {
+            final var ids = dsIds.subList(start, Math.min(dsIds.size(), start + partitionSize));
+            final var partition = new Partition(queueSize);
+            partitions.add(partition);
+            futures.add(CompletableFuture.runAsync(() -> {
+                try (var session = sessionSupplier.get()) {
+                    partition.session = session;
+                    for (final var dsId : ids) {
+                        if (partition.cancelled) {
+                            break;
+                        }
+                        validator.validate(dsId, partition);
+                    }
+                } finally {
+                    partition.finish();
+                }
+            }, executor));
+        }
+
+        try {
+            dsIds.subList(0, partitionSize).forEach(dsId -> validator.validate(dsId, first));
+            for (var i = 0; i < partitions.size(); i++) {
+                merge(partitions.get(i), first);
+                futures.get(i).join();
+            }
+        } catch (CompletionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        } finally {
+            // release any partition still waiting to hand over its results
+            partitions.forEach(Partition::cancel);
+        }
+    }
+
+    private void merge(final Partition partition, final Partition first) {
+        try {
+            for (var result = partition.queue.take(); result != END_OF_PARTITION; result = partition.queue.take()) {
+                first.sink.accept(result.withIndex(first.index.getAndIncrement()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while merging the results of a partition", e);
+        }
+    }
+
+    /**
+     * The session and results of a group of datastreams validated on one thread
+     */
+    static class Partition {
+        private volatile OcflObjectSession session;
+        private final BlockingQueue<ValidationResult> queue;
+        private final ValidationResultSink sink;
+        private final AtomicInteger index;
+        private volatile boolean cancelled;
+
+        /**
+         * A partition which streams its results
+         *
+         * @param session the session of the partition
+         * @param sink receives the results
+         * @param index the index of the results
+         */
+        Partition(final OcflObjectSession session, final ValidationResultSink sink, final AtomicInteger index) {
+            this.session = session;
+            this.queue = null;
+            this.sink = sink;
+            this.index = index;
+        }
+
+        /**
+         * A partition which hands its results over through a bounded queue until they are merged. The session is set
+         * once the partition starts.
+         */
+        private Partition(final int queueSize) {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.sink = this::put;
+            this.index = new AtomicInteger();
+        }
+
+        OcflObjectSession session() {
+            return session;
+        }
+
+        ValidationResultSink sink() {
+            return sink;
+        }
+
+        AtomicInteger index() {
+            return index;
+        }
+
+        private void finish() {
+            put(END_OF_PARTITION);
+        }
+
+        /**
+         * Drop the remaining results once the object failed, releasing the thread if it is waiting on the queue
+         */
+        private void cancel() {
+            cancelled = true;
+            queue.clear();
+        }
+
+        private void put(final ValidationResult result) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                queue.put(result);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while handing over the results of a partition", e);
+            }
+        }
+    }
+}
@@ -12,9 +12,11 @@
 import org.fcrepo.storage.ocfl.OcflObjectSessionFactory;
 import org.slf4j.Logger;
 
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.FAIL;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class is responsible for performing all validations on a single F3 object.
@@ -29,6 +31,8 @@ public class F3ObjectValidationTask extends ValidationTask {
     private final OcflObjectSessionFactory ocflObjectSessionFactory;
     private final ValidationResultWriter writer;
     private final ObjectValidationConfig objectValidationConfig;
+    private final FailedObjectIndex failedObjectIndex;
+    private final ObjectFingerprintIndex fingerprintIndex;
 
     /**
      * Constructor
@@ -37,24 +41,44 @@ public class F3ObjectValidationTask extends ValidationTask {
      * @param ocflObjectSessionFactory The object session factory
      * @param writer                   The shared validation state
      * @param objectValidationConfig   The config to use when validating objects
+     * @param failedObjectIndex        The index to record the outcome of the object in
+     * @param fingerprintIndex         The index to record the fingerprint of the object in
      */
     public F3ObjectValidationTask(final FedoraObjectProcessor processor,
                                   final OcflObjectSessionFactory ocflObjectSessionFactory,
                                   final ValidationResultWriter writer,
-                                  final ObjectValidationConfig objectValidationConfig) {
+                                  final ObjectValidationConfig objectValidationConfig,
+                                  final FailedObjectIndex failedObjectIndex,
+                                  final ObjectFingerprintIndex fingerprintIndex) {
         super();
         this.processor = processor;
         this.ocflObjectSessionFactory = ocflObjectSessionFactory;
         this.writer = writer;
         this.objectValidationConfig = objectValidationConfig;
+        this.failedObjectIndex = failedObjectIndex;
+        this.fingerprintIndex = fingerprintIndex;
     }
 
     @Override
     public ValidationTask get() {
-        LOGGER.info("Processing {} ", processor.getObjectInfo().getPid());
+        final var info = processor.getObjectInfo();
+        LOGGER.info("Processing {} ", info.getPid());
+        // taken before validating so that changes made while the object is validated are seen by the next run
+        final Optional<String> fingerprint = fingerprintIndex == null ? Optional.empty() :
+                                             fingerprintIndex.fingerprint(info);
         final var validator = new Fedora3ObjectValidator(ocflObjectSessionFactory, objectValidationConfig);
-        final var results = validator.validate(processor);
-        writer.write(results);
+        final var failed = new AtomicBoolean();
+        validator.validate(processor, result -> {
+            if (result.getStatus() == FAIL) {
+                failed.set(true);
+            }
+            writer.accept(result);
+        });
+        writer.completeObject(info.getPid());
+        if (failedObjectIndex != null) {
+            failedObjectIndex.record(info.getPid(), failed.get(), info.getFoxmlPath());
+        }
+        fingerprint.ifPresent(value -> fingerprintIndex.record(info.getPid(), value));
         return this;
     }
 
@@ -18,10 +18,13 @@ public class F3ObjectValidationTaskBuilder extends AbstractValidationTaskBuilder
 
     private FedoraObjectProcessor processor;
     private ObjectValidationConfig objectValidationConfig;
+    private FailedObjectIndex failedObjectIndex;
+    private ObjectFingerprintIndex fingerprintIndex;
 
     @Override
     public F3ObjectValidationTask build() {
-        return new F3ObjectValidationTask(processor, objectSessionFactory, writer, objectValidationConfig);
+        return new F3ObjectValidationTask(processor, objectSessionFactory, writer, objectValidationConfig,
+                                          failedObjectIndex, fingerprintIndex);
     }
 
     /**
@@ -36,4 +39,20 @@ public F3ObjectValidationTaskBuilder withValidationConfig(final ObjectValidation
         this.objectValidationConfig = objectValidationConfig;
         return this;
     }
+
+    /**
+     * @param failedObjectIndex the index to record the outcome of the object in
+     */
+    public F3ObjectValidationTaskBuilder failedObjectIndex(final FailedObjectIndex failedObjectIndex) {
+        this.failedObjectIndex = failedObjectIndex;
+        return this;
+    }
+
+    /**
+     * @param fingerprintIndex the index to record the fingerprint of the object in
+     */
+    public F3ObjectValidationTaskBuilder fingerprintIndex(final ObjectFingerprintIndex fingerprintIndex) {
+        this.fingerprintIndex = fingerprintIndex;
+        return this;
+    }
 }
@@ -35,6 +35,13 @@ public String getOcflUrn() {
         return "urn:" + name;
     }
 
+    /**
+     * @return the matching ChecksumAlgorithm
+     */
+    public ChecksumAlgorithm getChecksumAlgorithm() {
+        return ChecksumAlgorithm.valueOf(name());
+    }
+
     public Hasher hasher() {
         return hashFunction.newHasher();
     }
@@ -0,0 +1,173 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+
+/**
+ * An index of the objects which failed validation, kept in the results directory so that a later run can re-validate
+ * only those objects without reading the results.
+ *
+ * The outcome of each validated object is appended to the index as pid, FAIL or OK, and the path of its FOXML, so an
+ * interrupted run leaves the index up to date. The latest outcome of an object wins, and only failed objects are held
+ * in memory. Closing the index compacts it to the objects which are still failing.
+ *
+ * @author mikejritter
+ */
+public class FailedObjectIndex implements Closeable {
+
+    private static final Logger LOGGER = getLogger(FailedObjectIndex.class);
+
+    public static final String FILE_NAME = "failed-objects.log";
+
+    private static final String FAIL = "FAIL";
+    private static final String OK = "OK";
+
+    private final Path file;
+    private final boolean readOnly;
+    private final Map<String, String> failures = new ConcurrentHashMap<>();
+    private BufferedWriter writer;
+
+    /**
+     * Constructor
+     *
+     * @param resultsDirectory the directory holding the index
+     */
+    public FailedObjectIndex(final Path resultsDirectory) {
+        this(resultsDirectory, false);
+    }
+
+    private FailedObjectIndex(final Path resultsDirectory, final boolean readOnly) {
+        this.file = resultsDirectory.resolve(FILE_NAME);
+        this.readOnly = readOnly;
+        load();
+    }
+
+    /**
+     * An index which is read from the results directory, but only records outcomes in memory
+     *
+     * @param resultsDirectory the directory holding the index
+     * @return the FailedObjectIndex
+     */
+    public static FailedObjectIndex readOnly(final Path resultsDirectory) {
+        return new FailedObjectIndex(resultsDirectory, true);
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (var lines = Files.lines(file)) {
+            lines.map(line -> line.split("\t", 3))
+                 .filter(parts -> parts.length == 3)
+                 .forEach(parts -> {
+                     if (FAIL.equals(parts[1])) {
+                         failures.put(parts[0], parts[2]);
+                     } else {
+                         failures.remove(parts[0]);
+                     }
+                 });
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read the failed object index " + file, e);
+        }
+        LOGGER.debug("Loaded {} failed objects from {}", failures.size(), file);
+    }
+
+    /**
+     * Record the outcome of validating an object
+     *
+     * @param pid the PID of the object
+     * @param failed true if any validation of the object failed
+     * @param foxmlPath the FOXML file of the object
+     */
+    public void record(final String pid, final boolean failed, final Path foxmlPath) {
+        final var path = foxmlPath == null ? "" : realPath(foxmlPath).toString();
+        if (failed) {
+            failures.put(pid, path);
+        } else {
+            failures.remove(pid);
+        }
+        if (readOnly) {
+            return;
+        }
+
+        synchronized (this) {
+            try {
+                if (writer == null) {
+                    Files.createDirectories(file.getParent());
+                    writer = Files.newBufferedWriter(file, CREATE, APPEND);
+                }
+                writer.write(pid + "\t" + (failed ? FAIL : OK) + "\t" + path + System.lineSeparator());
+                writer.flush();
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to update the failed object index " + file, e);
+            }
+        }
+    }
+
+    /**
+     * The FOXML of a re-validated object is a link to the original, which is what later runs need
+     */
+    private static Path realPath(final Path foxmlPath) {
+        try {
+            return foxmlPath.toRealPath();
+        } catch (IOException e) {
+            return foxmlPath.toAbsolutePath();
+        }
+    }
+
+    /**
+     * @return the path of the FOXML of each failed object, by PID
+     */
+    public Map<String, String> failures() {
+        return new TreeMap<>(failures);
+    }
+
+    /**
+     * Compact the index to the objects which are still failing
+     */
+    @Override
+    public synchronized void close() {
+        if (readOnly) {
+            return;
+        }
+
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            } else if (!Files.exists(file)) {
+                return;
+            }
+
+            final var compacted = file.resolveSibling(FILE_NAME + ".tmp");
+            try (var out = Files.newBufferedWriter(compacted)) {
+                for (final var failure : failures().entrySet()) {
+                    out.write(failure.getKey() + "\t" + FAIL + "\t" + failure.getValue() + System.lineSeparator());
+                }
+            }
+            Files.move(compacted, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.error("Failed to compact the failed object index {}", file, e);
+        }
+    }
+}
@@ -9,12 +9,14 @@
 import org.fcrepo.migration.handlers.ObjectAbstractionStreamingFedoraObjectHandler;
 import org.fcrepo.migration.validator.api.ObjectValidationConfig;
 import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.api.ValidationResultSink;
 import org.fcrepo.migration.validator.api.Validator;
 import org.fcrepo.storage.ocfl.OcflObjectSessionFactory;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.fcrepo.migration.validator.api.ValidationResult.Status.FAIL;
 import static org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel.OBJECT;
@@ -42,28 +44,43 @@ public Fedora3ObjectValidator(final OcflObjectSessionFactory factory,
 
     @Override
     public List<ValidationResult> validate(final FedoraObjectProcessor object) {
+        final var results = new ArrayList<ValidationResult>();
+        validate(object, results::add);
+        return results;
+    }
+
+    /**
+     * Validate an object, giving each result to a sink as soon as it is produced rather than holding the results of
+     * the object in memory
+     *
+     * @param object the object to validate
+     * @param sink receives the results
+     */
+    public void validate(final FedoraObjectProcessor object, final ValidationResultSink sink) {
+        final var count = new AtomicInteger();
+        final ValidationResultSink countingSink = result -> {
+            count.incrementAndGet();
+            sink.accept(result);
+        };
         final var objectInfo = object.getObjectInfo();
         var fedoraId = objectInfo.getFedoraURI();
         if (fedoraId == null) {
             fedoraId = "info:fedora/" + objectInfo.getPid();
         }
+        final var objectId = fedoraId;
         final var ocflSession = this.factory.newSession(fedoraId);
         final var handler = objectValidationConfig.isValidateHeadOnly()
-                            ? new HeadOnlyValidationHandler(ocflSession, objectValidationConfig)
-                            : new ValidatingObjectHandler(ocflSession, objectValidationConfig);
+                            ? new HeadOnlyValidationHandler(ocflSession, countingSink, objectValidationConfig)
+                            : new ValidatingObjectHandler(ocflSession, () -> factory.newSession(objectId),
+                                                          countingSink, objectValidationConfig);
 
         try (object) {
             object.processObject(new ObjectAbstractionStreamingFedoraObjectHandler(handler));
-            return handler.getValidationResults();
         } catch (Exception ex) {
             LOGGER.error("Source object {} could not be read due to: {}", objectInfo.getPid(), ex.getMessage(), ex);
-            final var results = handler.getValidationResults();
-            final var list = new ArrayList<>(results);
-            list.add(new ValidationResult(results.size(), FAIL, OBJECT,
+            sink.accept(new ValidationResult(count.get(), FAIL, OBJECT,
                     OBJECT_READABLE, fedoraId, ocflSession.ocflObjectId(), "Source object could not be read: " +
                     ex.getMessage()));
-
-            return list;
         }
     }
 
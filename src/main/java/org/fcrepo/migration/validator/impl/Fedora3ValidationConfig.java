@@ -8,6 +8,8 @@
 import org.fcrepo.migration.validator.api.ValidationConfig;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
 
 /**
  * A Fedora 3 Validation Configuration
@@ -18,12 +20,36 @@ public class Fedora3ValidationConfig extends ValidationConfig {
 
     private int limit;
     private boolean resume;
+    private boolean revalidateFailures;
+    private boolean incremental;
+    private boolean watch;
+    private long watchScanInterval = 300;
+    private long watchIdleTimeout = 60;
+    private long timeBudget;
     private boolean checksum;
     private boolean failureOnly;
+    private ResultFormat resultFormat = ResultFormat.json;
+    private ResultCompression resultCompression = ResultCompression.gzip;
     private boolean deleteInactive;
     private boolean validateHeadOnly;
     private boolean checkNumObjects;
     private F6DigestAlgorithm digestAlgorithm;
+    private ChecksumMode checksumMode = ChecksumMode.single;
+    private ChecksumCacheMode checksumCacheMode = ChecksumCacheMode.off;
+    private File checksumCacheFile;
+    private long checksumMemoSize = 10000;
+    private boolean verifyTarget;
+    private CompareMode compareMode = CompareMode.digest;
+    private long sourceReadRate;
+    private long sourceIops;
+    private long targetReadRate;
+    private long targetIops;
+    private int ioLaneLimit;
+    private ScheduleMode scheduleMode = ScheduleMode.source;
+    private int scheduleWindow = 100;
+    private int datastreamThreads;
+    private long memoryBudget;
+    private Map<File, Integer> ioLanes = Map.of();
     private F3SourceTypes sourceType;
     private File exportedDirectory;
     private File datastreamsDirectory;
@@ -31,6 +57,11 @@ public class Fedora3ValidationConfig extends ValidationConfig {
     private File indexDirectory;
     private String fedora3Hostname;
     private File objectsToValidate;
+    private long headersCacheSize = 512;
+    private long headersCacheMaxWeight;
+    private long rootIdCacheSize = 512;
+    private long cacheExpiryMinutes = 10;
+    private OcflCacheScope headersCacheScope = OcflCacheScope.global;
 
     /**
      * @return
@@ -151,6 +182,203 @@ public F6DigestAlgorithm getDigestAlgorithm() {
         return digestAlgorithm;
     }
 
+    public ChecksumMode getChecksumMode() {
+        return checksumMode;
+    }
+
+    /**
+     * @param checksumMode how datastream checksums are validated
+     */
+    public Fedora3ValidationConfig setChecksumMode(final ChecksumMode checksumMode) {
+        this.checksumMode = checksumMode;
+        return this;
+    }
+
+    public ChecksumCacheMode getChecksumCacheMode() {
+        return checksumCacheMode;
+    }
+
+    /**
+     * @param checksumCacheMode how the persistent checksum cache is used
+     */
+    public Fedora3ValidationConfig setChecksumCacheMode(final ChecksumCacheMode checksumCacheMode) {
+        this.checksumCacheMode = checksumCacheMode;
+        return this;
+    }
+
+    /**
+     * @return the checksum cache file, defaulting to checksum-cache.log in the results directory
+     */
+    public Path getChecksumCacheFile() {
+        return checksumCacheFile != null ? checksumCacheFile.toPath() :
+               getResultsDirectory().resolve("checksum-cache.log");
+    }
+
+    /**
+     * @param checksumCacheFile the file holding the persistent checksum cache
+     */
+    public Fedora3ValidationConfig setChecksumCacheFile(final File checksumCacheFile) {
+        this.checksumCacheFile = checksumCacheFile;
+        return this;
+    }
+
+    public long getChecksumMemoSize() {
+        return checksumMemoSize;
+    }
+
+    /**
+     * @param checksumMemoSize the maximum number of source digests shared between datastreams during a run
+     */
+    public Fedora3ValidationConfig setChecksumMemoSize(final long checksumMemoSize) {
+        this.checksumMemoSize = checksumMemoSize;
+        return this;
+    }
+
+    public boolean isVerifyTarget() {
+        return verifyTarget;
+    }
+
+    /**
+     * @param verifyTarget hash the content files in the OCFL repository along with the source datastreams
+     */
+    public Fedora3ValidationConfig setVerifyTarget(final boolean verifyTarget) {
+        this.verifyTarget = verifyTarget;
+        return this;
+    }
+
+    public CompareMode getCompareMode() {
+        return compareMode;
+    }
+
+    /**
+     * @param compareMode how datastream content is compared with the OCFL content files
+     */
+    public Fedora3ValidationConfig setCompareMode(final CompareMode compareMode) {
+        this.compareMode = compareMode;
+        return this;
+    }
+
+    public long getSourceReadRate() {
+        return sourceReadRate;
+    }
+
+    /**
+     * @param sourceReadRate the maximum bytes per second read from Fedora 3 datastreams, or 0 for no limit
+     */
+    public Fedora3ValidationConfig setSourceReadRate(final long sourceReadRate) {
+        this.sourceReadRate = sourceReadRate;
+        return this;
+    }
+
+    public long getSourceIops() {
+        return sourceIops;
+    }
+
+    /**
+     * @param sourceIops the maximum I/O operations per second against Fedora 3 datastreams, or 0 for no limit
+     */
+    public Fedora3ValidationConfig setSourceIops(final long sourceIops) {
+        this.sourceIops = sourceIops;
+        return this;
+    }
+
+    public long getTargetReadRate() {
+        return targetReadRate;
+    }
+
+    /**
+     * @param targetReadRate the maximum bytes per second read from OCFL content files, or 0 for no limit
+     */
+    public Fedora3ValidationConfig setTargetReadRate(final long targetReadRate) {
+        this.targetReadRate = targetReadRate;
+        return this;
+    }
+
+    public long getTargetIops() {
+        return targetIops;
+    }
+
+    /**
+     * @param targetIops the maximum I/O operations per second against OCFL content files, or 0 for no limit
+     */
+    public Fedora3ValidationConfig setTargetIops(final long targetIops) {
+        this.targetIops = targetIops;
+        return this;
+    }
+
+    public int getIoLaneLimit() {
+        return ioLaneLimit;
+    }
+
+    /**
+     * @param ioLaneLimit the maximum number of concurrent reads against each storage device, or 0 for no limit
+     */
+    public Fedora3ValidationConfig setIoLaneLimit(final int ioLaneLimit) {
+        this.ioLaneLimit = ioLaneLimit;
+        return this;
+    }
+
+    public ScheduleMode getScheduleMode() {
+        return scheduleMode;
+    }
+
+    /**
+     * @param scheduleMode the order in which objects are dispatched for validation
+     */
+    public Fedora3ValidationConfig setScheduleMode(final ScheduleMode scheduleMode) {
+        this.scheduleMode = scheduleMode;
+        return this;
+    }
+
+    public int getScheduleWindow() {
+        return scheduleWindow;
+    }
+
+    /**
+     * @param scheduleWindow the number of the most expensive objects dispatched first in longest mode
+     */
+    public Fedora3ValidationConfig setScheduleWindow(final int scheduleWindow) {
+        this.scheduleWindow = scheduleWindow;
+        return this;
+    }
+
+    public int getDatastreamThreads() {
+        return datastreamThreads;
+    }
+
+    /**
+     * @param datastreamThreads the number of threads shared by all objects to validate datastreams in parallel, or 0
+     *                          to validate the datastreams of an object on its own thread
+     */
+    public Fedora3ValidationConfig setDatastreamThreads(final int datastreamThreads) {
+        this.datastreamThreads = datastreamThreads;
+        return this;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * @param memoryBudget the estimated memory in megabytes which objects in flight may use, or 0 for no limit
+     */
+    public Fedora3ValidationConfig setMemoryBudget(final long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        return this;
+    }
+
+    public Map<File, Integer> getIoLanes() {
+        return ioLanes;
+    }
+
+    /**
+     * @param ioLanes the maximum number of concurrent reads against the storage devices holding specific paths
+     */
+    public Fedora3ValidationConfig setIoLanes(final Map<File, Integer> ioLanes) {
+        this.ioLanes = ioLanes;
+        return this;
+    }
+
     public boolean validateHeadOnly() {
         return validateHeadOnly;
     }
@@ -199,6 +427,37 @@ public Fedora3ValidationConfig setFailureOnly(final boolean failureOnly) {
         return this;
     }
 
+    public ResultFormat getResultFormat() {
+        return resultFormat;
+    }
+
+    /**
+     * @param resultFormat the format validation results are written in
+     */
+    public Fedora3ValidationConfig setResultFormat(final ResultFormat resultFormat) {
+        this.resultFormat = resultFormat;
+        return this;
+    }
+
+    public ResultCompression getResultCompression() {
+        return resultCompression;
+    }
+
+    /**
+     * @param resultCompression the compression of the blocks of binary result segments
+     */
+    public Fedora3ValidationConfig setResultCompression(final ResultCompression resultCompression) {
+        this.resultCompression = resultCompression;
+        return this;
+    }
+
+    /**
+     * @return the directory validation results are written to for the configured result format
+     */
+    public Path getResultOutputDirectory() {
+        return resultFormat == ResultFormat.binary ? getBinaryOutputDirectory() : getJsonOutputDirectory();
+    }
+
     public int getLimit() {
         return limit;
     }
@@ -216,4 +475,137 @@ public Fedora3ValidationConfig setResume(final boolean resume) {
         this.resume = resume;
         return this;
     }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * @param incremental true to skip objects which have not changed since they were last validated
+     */
+    public Fedora3ValidationConfig setIncremental(final boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * @param watch true to validate objects as they are written to the OCFL repository
+     */
+    public Fedora3ValidationConfig setWatch(final boolean watch) {
+        this.watch = watch;
+        return this;
+    }
+
+    public long getWatchScanInterval() {
+        return watchScanInterval;
+    }
+
+    /**
+     * @param watchScanInterval the number of seconds between scans of the OCFL root in watch mode
+     */
+    public Fedora3ValidationConfig setWatchScanInterval(final long watchScanInterval) {
+        this.watchScanInterval = watchScanInterval;
+        return this;
+    }
+
+    public long getWatchIdleTimeout() {
+        return watchIdleTimeout;
+    }
+
+    /**
+     * @param watchIdleTimeout the number of minutes without new objects after which watch mode stops, 0 for none
+     */
+    public Fedora3ValidationConfig setWatchIdleTimeout(final long watchIdleTimeout) {
+        this.watchIdleTimeout = watchIdleTimeout;
+        return this;
+    }
+
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * @param timeBudget the number of minutes after which no more objects are validated, 0 for none
+     */
+    public Fedora3ValidationConfig setTimeBudget(final long timeBudget) {
+        this.timeBudget = timeBudget;
+        return this;
+    }
+
+    public boolean isRevalidateFailures() {
+        return revalidateFailures;
+    }
+
+    /**
+     * @param revalidateFailures true to validate only the objects which failed in the previous run
+     */
+    public Fedora3ValidationConfig setRevalidateFailures(final boolean revalidateFailures) {
+        this.revalidateFailures = revalidateFailures;
+        return this;
+    }
+
+    public long getHeadersCacheSize() {
+        return headersCacheSize;
+    }
+
+    /**
+     * @param headersCacheSize the maximum number of entries in the OCFL headers cache
+     */
+    public Fedora3ValidationConfig setHeadersCacheSize(final long headersCacheSize) {
+        this.headersCacheSize = headersCacheSize;
+        return this;
+    }
+
+    public long getHeadersCacheMaxWeight() {
+        return headersCacheMaxWeight;
+    }
+
+    /**
+     * @param headersCacheMaxWeight the approximate maximum number of bytes held by the OCFL headers cache. When
+     *                              greater than 0, this is used instead of the headers cache size.
+     */
+    public Fedora3ValidationConfig setHeadersCacheMaxWeight(final long headersCacheMaxWeight) {
+        this.headersCacheMaxWeight = headersCacheMaxWeight;
+        return this;
+    }
+
+    public long getRootIdCacheSize() {
+        return rootIdCacheSize;
+    }
+
+    /**
+     * @param rootIdCacheSize the maximum number of entries in the OCFL root id cache
+     */
+    public Fedora3ValidationConfig setRootIdCacheSize(final long rootIdCacheSize) {
+        this.rootIdCacheSize = rootIdCacheSize;
+        return this;
+    }
+
+    public long getCacheExpiryMinutes() {
+        return cacheExpiryMinutes;
+    }
+
+    /**
+     * @param cacheExpiryMinutes the number of minutes after last access an OCFL cache entry expires
+     */
+    public Fedora3ValidationConfig setCacheExpiryMinutes(final long cacheExpiryMinutes) {
+        this.cacheExpiryMinutes = cacheExpiryMinutes;
+        return this;
+    }
+
+    public OcflCacheScope getHeadersCacheScope() {
+        return headersCacheScope;
+    }
+
+    /**
+     * @param headersCacheScope whether the OCFL headers cache is shared by all sessions or scoped to a single session
+     */
+    public Fedora3ValidationConfig setHeadersCacheScope(final OcflCacheScope headersCacheScope) {
+        this.headersCacheScope = headersCacheScope;
+        return this;
+    }
 }
@@ -5,6 +5,7 @@
  */
 package org.fcrepo.migration.validator.impl;
 
+import org.fcrepo.migration.FedoraObjectProcessor;
 import org.fcrepo.migration.ObjectSource;
 import org.fcrepo.migration.validator.api.ObjectValidationConfig;
 import org.fcrepo.migration.validator.api.ResumeManager;
@@ -15,14 +16,25 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static java.lang.String.format;
+
 /**
  * This class is responsible for coordinating and managing the lifecycle of the classes involved in a validation run.
  *
@@ -32,10 +44,14 @@ public class Fedora3ValidationExecutionManager implements ValidationExecutionMan
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Fedora3ValidationExecutionManager.class);
 
-    private long numProcessed;
+    private volatile long numProcessed;
+    private volatile long numSkipped;
     private final int limit;
+    private final ScheduleMode scheduleMode;
+    private final int scheduleWindow;
     private final AtomicBoolean abort;
     private final Semaphore semaphore;
+    private final MemoryBudget memoryBudget;
     private final ResumeManager resumeManager;
     private final ExecutorService executorService;
     private final OcflObjectSessionFactory ocflObjectSessionFactory;
@@ -43,68 +59,89 @@ public class Fedora3ValidationExecutionManager implements ValidationExecutionMan
     private final ObjectSource source;
     private final Set<String> objectsToValidate;
     private final ObjectValidationConfig objectValidationConfig;
+    private final FailedObjectIndex failedObjectIndex;
+    private final ObjectFingerprintIndex fingerprintIndex;
+    private final boolean revalidateFailures;
+    private final boolean incremental;
+    private final boolean watch;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
     private final ApplicationConfigurationHelper config;
+    private final boolean closeSharedResources;
+    private volatile boolean cancelled;
+    private volatile boolean stopped;
+    private final long timeBudget;
+    private volatile long deadline = Long.MAX_VALUE;
 
     /**
      * Constructor
      * @param config The config
      */
     public Fedora3ValidationExecutionManager(final ApplicationConfigurationHelper config) {
+        this(config, true);
+    }
+
+    /**
+     * Constructor
+     * @param config The config
+     * @param closeSharedResources false to leave the executors, checksum cache, and linked objects of the config in
+     *                             place once the run is complete, so the config can be used again
+     */
+    public Fedora3ValidationExecutionManager(final ApplicationConfigurationHelper config,
+                                             final boolean closeSharedResources) {
+        this(config, config.validationResultWriter(), closeSharedResources);
+    }
+
+    /**
+     * Constructor
+     * @param config The config
+     * @param writer The writer given the results of the run, in place of the writer of the config
+     * @param closeSharedResources false to leave the executors, checksum cache, and linked objects of the config in
+     *                             place once the run is complete, so the config can be used again
+     */
+    public Fedora3ValidationExecutionManager(final ApplicationConfigurationHelper config,
+                                             final ValidationResultWriter writer,
+                                             final boolean closeSharedResources) {
         this.config = config;
+        this.closeSharedResources = closeSharedResources;
         this.limit = config.getLimit();
+        this.scheduleMode = config.getScheduleMode();
+        this.scheduleWindow = config.getScheduleWindow();
         this.source = config.objectSource();
-        this.writer = config.validationResultWriter();
+        this.writer = writer;
         this.objectsToValidate = config.readObjectsToValidate();
         this.ocflObjectSessionFactory = config.ocflObjectSessionFactory();
         this.executorService = Executors.newFixedThreadPool(config.getThreadCount());
         this.semaphore = new Semaphore(config.getThreadCount());
+        this.memoryBudget = config.memoryBudget();
         this.objectValidationConfig = config.getObjectValidationConfig();
         this.abort = new AtomicBoolean();
         this.resumeManager = config.resumeManager();
+        this.failedObjectIndex = config.failedObjectIndex();
+        this.revalidateFailures = config.isRevalidateFailures();
+        this.fingerprintIndex = config.objectFingerprintIndex();
+        this.incremental = config.isIncremental();
+        this.watch = config.isWatch();
+        this.timeBudget = config.getTimeBudgetMillis();
         this.numProcessed = 0;
     }
 
     @Override
     public boolean doValidation() {
-        try {
-            var halted = false;
-
-            // When iterating, we block on the semaphore as creating a new ObjectProcessor will open a file handle
-            for (final var objectProcessor : source) {
-                if (resumeManager.accept(objectProcessor.getObjectInfo().getPid())) {
-                    if (abort.get() || halted) {
-                        break;
-                    }
-
-                    numProcessed++;
-                    final var sourceObjectId = objectProcessor.getObjectInfo().getPid();
-                    try {
-                        if (objectsToValidate.isEmpty() || objectsToValidate.contains(sourceObjectId)) {
-                            final var task = new F3ObjectValidationTaskBuilder()
-                                .processor(objectProcessor)
-                                .withValidationConfig(objectValidationConfig)
-                                .writer(writer)
-                                .objectSessionFactory(ocflObjectSessionFactory)
-                                .build();
-                            submit(task);
-                        }
-                    } catch (InterruptedException ex) {
-                        LOGGER.error("Error submitting task", ex);
-                        abort.set(true);
-                    }
+        if (timeBudget > 0) {
+            deadline = System.currentTimeMillis() + timeBudget;
+        }
 
-                    halted = limit != 0 && limit <= numProcessed;
-                }
-            }
+        try {
+            final var halted = watch ? !watchObjects() : validateSource();
 
             // only run repository validator for full runs
-            if (!halted) {
+            if (!halted && !revalidateFailures && !cancelled && !isStopping()) {
                 final var repositoryTask = new F3RepositoryValidationTask(config, writer);
                 submit(repositoryTask);
             }
 
             awaitCompletion();
-            resumeManager.updateResumeFile();
+            logCacheStats();
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         } finally {
@@ -117,10 +154,329 @@ public boolean doValidation() {
         return !abort.get();
     }
 
+    /**
+     * Cancel the run. No more objects are submitted, the objects being validated are completed, and
+     * {@link #doValidation()} returns false.
+     */
+    public void cancel() {
+        LOGGER.info("Cancelling the validation run");
+        cancelled = true;
+        abort.set(true);
+    }
+
+    /**
+     * Stop the run gracefully. No more objects are submitted, the objects being validated are completed, and their
+     * results and the resume file are written so that the run can be continued with resume. Unlike a cancelled run,
+     * {@link #doValidation()} returns true.
+     */
+    public void stop() {
+        if (!stopped) {
+            LOGGER.info("Stopping the validation run once the objects being validated are complete");
+            stopped = true;
+        }
+    }
+
+    /**
+     * @return true if the run was stopped, or ran out of time, before every object was submitted
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Check if no more objects should be submitted, stopping the run once its time budget is spent
+     */
+    private boolean isStopping() {
+        if (!stopped && System.currentTimeMillis() >= deadline) {
+            LOGGER.info("The time budget of {}ms is spent", timeBudget);
+            stop();
+        }
+        return stopped;
+    }
+
+    /**
+     * Validate the objects of the source in the order of the source, after any dispatched first
+     *
+     * @return true if the run was halted by the limit
+     * @throws InterruptedException on interrupt
+     */
+    private boolean validateSource() throws InterruptedException {
+        var halted = false;
+        final var scanned = dispatchLongest();
+
+        // When iterating, we block on the semaphore as creating a new ObjectProcessor will open a file handle
+        for (final var objectProcessor : source) {
+            if (scanned.contains(objectProcessor.getObjectInfo().getPid())) {
+                objectProcessor.close();
+                continue;
+            }
+
+            if (resumeManager.accept(objectProcessor.getObjectInfo().getPid())) {
+                if (abort.get() || halted || isStopping()) {
+                    break;
+                }
+
+                final var sourceObjectId = objectProcessor.getObjectInfo().getPid();
+                final var selected = objectsToValidate.isEmpty() || objectsToValidate.contains(sourceObjectId);
+                if (selected && isUnchanged(objectProcessor)) {
+                    // a skipped object is not processed, so it does not count toward the limit
+                    objectProcessor.close();
+                    continue;
+                }
+
+                numProcessed++;
+                try {
+                    if (selected) {
+                        submitObject(objectProcessor);
+                    }
+                } catch (InterruptedException ex) {
+                    LOGGER.error("Error submitting task", ex);
+                    abort.set(true);
+                }
+
+                halted = limit != 0 && limit <= numProcessed;
+            }
+        }
+        return halted;
+    }
+
+    /**
+     * In longest mode, pre-scan the object source and dispatch the most expensive objects from largest to smallest.
+     * Only the processors of the objects within the schedule window are held open during the scan. In incremental
+     * mode, the objects found unchanged by the scan are skipped, and are not checked again in source order.
+     *
+     * @return the pids of the objects which were dispatched or skipped
+     * @throws InterruptedException on interrupt
+     */
+    private Set<String> dispatchLongest() throws InterruptedException {
+        if (scheduleMode != ScheduleMode.longest) {
+            return Set.of();
+        } else if (limit != 0) {
+            LOGGER.warn("Objects are dispatched in source order when a limit is set");
+            return Set.of();
+        }
+
+        final var scanned = new HashSet<String>();
+        final var window = new PriorityQueue<ObjectCost>(Comparator.comparingLong(ObjectCost::getCost));
+        for (final var objectProcessor : source) {
+            final var info = objectProcessor.getObjectInfo();
+            if (!resumeManager.accept(info.getPid()) ||
+                !(objectsToValidate.isEmpty() || objectsToValidate.contains(info.getPid()))) {
+                objectProcessor.close();
+                continue;
+            }
+            if (isUnchanged(objectProcessor)) {
+                scanned.add(info.getPid());
+                objectProcessor.close();
+                continue;
+            }
+
+            final long cost;
+            try {
+                cost = ObjectCostEstimator.estimate(info.getFoxmlPath());
+            } catch (IOException e) {
+                // leave the object to be validated, and its errors reported, in source order
+                LOGGER.warn("Unable to estimate the cost of {}", info.getPid(), e);
+                objectProcessor.close();
+                continue;
+            }
+
+            window.add(new ObjectCost(objectProcessor, cost));
+            if (window.size() > scheduleWindow) {
+                window.poll().getProcessor().close();
+            }
+        }
+
+        final var ordered = new ArrayList<>(window);
+        ordered.sort(Comparator.comparingLong(ObjectCost::getCost).reversed());
+        LOGGER.info("Dispatching the {} largest objects first", ordered.size());
+
+        for (final var objectCost : ordered) {
+            final var objectProcessor = objectCost.getProcessor();
+            if (abort.get() || isStopping()) {
+                objectProcessor.close();
+                continue;
+            }
+
+            numProcessed++;
+            scanned.add(objectProcessor.getObjectInfo().getPid());
+            submitObject(objectProcessor);
+        }
+        return scanned;
+    }
+
+    /**
+     * In watch mode, validate each object of the source once its OCFL object has been written. The source is read
+     * once up front to find the FOXML of each object and the OCFL object root it is migrated to. Changed object roots
+     * are then validated in batches, and an object which changes again while it is being validated is validated
+     * again once it completes.
+     *
+     * The FOXML and object root of every object of the source are held for the whole run, along with the inventory
+     * modified times held by the watcher, which is roughly 1KB per object.
+     *
+     * @return true if every object of the source was validated
+     * @throws InterruptedException on interrupt
+     */
+    private boolean watchObjects() throws InterruptedException {
+        final var inventoryReader = config.inventoryReader();
+        final var objectRoots = new HashMap<Path, String>();
+        final var foxml = new HashMap<String, Path>();
+        for (final var objectProcessor : source) {
+            final var info = objectProcessor.getObjectInfo();
+            if (resumeManager.accept(info.getPid()) &&
+                (objectsToValidate.isEmpty() || objectsToValidate.contains(info.getPid()))) {
+                objectRoots.put(Path.of(inventoryReader.objectRootPath("info:fedora/" + info.getPid())),
+                                info.getPid());
+                foxml.put(info.getPid(), info.getFoxmlPath());
+            }
+            objectProcessor.close();
+        }
+
+        final var remaining = new HashSet<>(foxml.keySet());
+        final var deferred = new HashSet<String>();
+        final var idleTimeout = TimeUnit.MINUTES.toMillis(config.getWatchIdleTimeout());
+        LOGGER.info("Watching the OCFL repository for the {} objects of the source", remaining.size());
+        try (var watcher = config.ocflWatcher()) {
+            watcher.start();
+            var lastChange = System.currentTimeMillis();
+            while (!abort.get() && !isStopping() && !(remaining.isEmpty() && deferred.isEmpty())) {
+                final var ready = new HashMap<String, Path>();
+                for (final var objectRoot : watcher.poll(1, TimeUnit.SECONDS)) {
+                    final var pid = objectRoots.get(objectRoot);
+                    if (pid != null && inFlight.contains(pid)) {
+                        deferred.add(pid);
+                    } else if (pid != null) {
+                        ready.put(pid, foxml.get(pid));
+                    }
+                }
+                for (final var it = deferred.iterator(); it.hasNext();) {
+                    final var pid = it.next();
+                    if (!inFlight.contains(pid)) {
+                        ready.put(pid, foxml.get(pid));
+                        it.remove();
+                    }
+                }
+
+                if (!ready.isEmpty()) {
+                    lastChange = System.currentTimeMillis();
+                    validateObjects(ready, remaining);
+                } else if (idleTimeout > 0 && System.currentTimeMillis() - lastChange > idleTimeout) {
+                    LOGGER.warn("No objects were written for {} minutes, stopping with {} objects not validated",
+                                config.getWatchIdleTimeout(), remaining.size());
+                    break;
+                }
+            }
+        }
+        return remaining.isEmpty();
+    }
+
+    private void validateObjects(final Map<String, Path> foxml, final Set<String> remaining)
+        throws InterruptedException {
+        LOGGER.debug("Validating {} written objects", foxml.size());
+        for (final var objectProcessor : config.objectSource(foxml)) {
+            final var pid = objectProcessor.getObjectInfo().getPid();
+            remaining.remove(pid);
+            if (abort.get() || isStopping() || isUnchanged(objectProcessor)) {
+                objectProcessor.close();
+                continue;
+            }
+
+            numProcessed++;
+            submitObject(objectProcessor);
+        }
+    }
+
+    /**
+     * In incremental mode, check if an object is unchanged since it was last validated and count it as skipped
+     *
+     * @param objectProcessor the processor of the object
+     * @return true if the object can be skipped
+     */
+    private boolean isUnchanged(final FedoraObjectProcessor objectProcessor) {
+        if (!incremental || !fingerprintIndex.isUnchanged(objectProcessor.getObjectInfo())) {
+            return false;
+        }
+
+        LOGGER.debug("Skipping {}, it is unchanged since it was last validated",
+                     objectProcessor.getObjectInfo().getPid());
+        numSkipped++;
+        return true;
+    }
+
+    private void submitObject(final FedoraObjectProcessor objectProcessor) throws InterruptedException {
+        inFlight.add(objectProcessor.getObjectInfo().getPid());
+        final var task = new F3ObjectValidationTaskBuilder()
+            .processor(objectProcessor)
+            .withValidationConfig(objectValidationConfig)
+            .failedObjectIndex(failedObjectIndex)
+            .fingerprintIndex(fingerprintIndex)
+            .writer(writer)
+            .objectSessionFactory(ocflObjectSessionFactory)
+            .build();
+        if (!submit(task, estimateMemory(objectProcessor))) {
+            // the run was stopped while waiting for a thread, leave the object to the next run
+            inFlight.remove(objectProcessor.getObjectInfo().getPid());
+            objectProcessor.close();
+            numProcessed--;
+        }
+    }
+
+    /**
+     * Estimate the memory needed to validate an object when the memory budget is limited
+     *
+     * @param objectProcessor the processor of the object
+     * @return the estimated memory in bytes
+     */
+    private long estimateMemory(final FedoraObjectProcessor objectProcessor) {
+        if (!memoryBudget.isLimited()) {
+            return 0;
+        }
+
+        final var info = objectProcessor.getObjectInfo();
+        try {
+            final var bytes = ObjectCostEstimator.estimateMemory(info.getFoxmlPath());
+            if (memoryBudget.exceeds(bytes)) {
+                LOGGER.warn("{} needs an estimated {} bytes, more than the memory budget, and will run alone",
+                            info.getPid(), bytes);
+            }
+            return bytes;
+        } catch (IOException e) {
+            LOGGER.warn("Unable to estimate the memory of {}", info.getPid(), e);
+            return 0;
+        }
+    }
+
     private void submit(final ValidationTask task) throws InterruptedException {
-        semaphore.acquire();
+        submit(task, 0);
+    }
+
+    /**
+     * Submit a task once its memory and a thread are available
+     *
+     * @param task the task to run
+     * @param memory the estimated memory of the task in bytes
+     * @return false if the run was stopped while waiting, and the task was not submitted
+     * @throws InterruptedException on interrupt
+     */
+    private boolean submit(final ValidationTask task, final long memory) throws InterruptedException {
+        final var memoryPermits = memoryBudget.acquire(memory);
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            memoryBudget.release(memoryPermits);
+            throw e;
+        }
+        if (isStopping()) {
+            semaphore.release();
+            memoryBudget.release(memoryPermits);
+            return false;
+        }
         CompletableFuture.supplyAsync(task, executorService)
-                         .whenComplete(this::finishTask);
+                         .whenComplete((completed, throwable) -> {
+                             memoryBudget.release(memoryPermits);
+                             finishTask(completed, throwable);
+                         });
+        return true;
     }
 
     /**
@@ -138,6 +494,9 @@ private void finishTask(final ValidationTask task, final Throwable throwable) {
         } else {
             task.getPid().ifPresent(resumeManager::completed);
         }
+        if (task != null) {
+            task.getPid().ifPresent(inFlight::remove);
+        }
 
         semaphore.release();
     }
@@ -152,6 +511,22 @@ private void awaitCompletion() throws InterruptedException {
         semaphore.acquire(config.getThreadCount());
     }
 
+    /**
+     * Log the hit, miss, and eviction counts of the OCFL caches for the run
+     */
+    private void logCacheStats() {
+        config.ocflCacheStats().forEach((name, stats) ->
+            LOGGER.info("OCFL {} cache: hits={}, misses={}, hitRate={}, evictions={}, evictionWeight={}", name,
+                        stats.hitCount(), stats.missCount(), format("%.3f", stats.hitRate()), stats.evictionCount(),
+                        stats.evictionWeight()));
+
+        final var checksumCache = objectValidationConfig.getChecksumCache();
+        if (checksumCache.getMode() != ChecksumCacheMode.off || checksumCache.getShared() > 0) {
+            LOGGER.info("Checksum cache: hits={}, misses={}, shared={}", checksumCache.getHits(),
+                        checksumCache.getMisses(), checksumCache.getShared());
+        }
+    }
+
     /**
      * Shutsdown the executor and closes all resources.
      *
@@ -166,6 +541,46 @@ private void shutdown() throws InterruptedException {
             }
         } finally {
             //close any open resources.
+            writer.close();
+            failedObjectIndex.close();
+            fingerprintIndex.close();
+            // the resume file is written last, so it only lists objects whose results are written
+            try {
+                resumeManager.updateResumeFile();
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to write the resume file", e);
+            }
+            if (closeSharedResources) {
+                config.shutdownTargetExecutor();
+                config.shutdownDatastreamExecutor();
+                config.deleteLinkedObjects();
+                try {
+                    objectValidationConfig.getChecksumCache().close();
+                } catch (IOException e) {
+                    LOGGER.error("Failed to close checksum cache", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * An object processor held open with its estimated cost during the pre-scan
+     */
+    private static class ObjectCost {
+        private final FedoraObjectProcessor processor;
+        private final long cost;
+
+        ObjectCost(final FedoraObjectProcessor processor, final long cost) {
+            this.processor = processor;
+            this.cost = cost;
+        }
+
+        FedoraObjectProcessor getProcessor() {
+            return processor;
+        }
+
+        long getCost() {
+            return cost;
         }
     }
 
@@ -176,4 +591,12 @@ private void shutdown() throws InterruptedException {
     public long getNumProcessed() {
         return numProcessed;
     }
+
+    /**
+     * Returns the number of PIDs which were skipped by an incremental run as they were unchanged
+     * @return numSkipped
+     */
+    public long getNumSkipped() {
+        return numSkipped;
+    }
 }
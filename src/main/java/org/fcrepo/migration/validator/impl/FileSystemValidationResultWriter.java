@@ -6,6 +6,7 @@
 package org.fcrepo.migration.validator.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
 import org.fcrepo.migration.validator.api.ValidationResult;
 import org.fcrepo.migration.validator.api.ValidationResultWriter;
 import org.slf4j.Logger;
@@ -14,12 +15,16 @@
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 import static org.fcrepo.migration.validator.api.ValidationResult.Status.OK;
 import static org.fcrepo.migration.validator.impl.ValidationResultUtils.resolvePathToJsonResult;
+import static org.fcrepo.migration.validator.impl.ValidationResultUtils.resolvePathToObjectResults;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -31,9 +36,15 @@ public class FileSystemValidationResultWriter implements ValidationResultWriter
 
     private static final Logger LOGGER = getLogger(FileSystemValidationResultWriter.class);
 
+    private static final String REPLACE_MARKER = ".replace";
+    private static final String REMOVE_MARKER = ".remove";
+    private static final String REPLACED = ".replaced";
+
     private final Path validationRoot;
+    private final Path stagingRoot;
     private final boolean writeFailureOnly;
     private final UnaryOperator<String> pathEncoder;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
      * Constructor
@@ -42,31 +53,146 @@ public class FileSystemValidationResultWriter implements ValidationResultWriter
      * @param writeFailureOnly Flag to indicate if we should write only failed validations or all
      */
     public FileSystemValidationResultWriter(final Path validationRoot, final boolean writeFailureOnly) {
+        this(validationRoot, writeFailureOnly, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param validationRoot The root of validation report associated with the run
+     * @param writeFailureOnly Flag to indicate if we should write only failed validations or all
+     * @param replace Flag to indicate the results of each object replace those of a previous run. The results are
+     *                staged next to the validation root and swapped in when the object is complete.
+     */
+    public FileSystemValidationResultWriter(final Path validationRoot, final boolean writeFailureOnly,
+                                            final boolean replace) {
         this.validationRoot = validationRoot;
+        this.stagingRoot = replace ? validationRoot.resolveSibling(validationRoot.getFileName() + "-staging") : null;
         this.writeFailureOnly = writeFailureOnly;
         validationRoot.toFile().mkdirs();
 
         pathEncoder = original -> URLEncoder.encode(original, Charset.defaultCharset());
+        if (replace) {
+            recover();
+        }
     }
 
     @Override
     public void write(final List<ValidationResult> results) {
-        final var objectMapper = new ObjectMapper();
-        for (final var result : results) {
-            if (result.getStatus() == OK && writeFailureOnly) {
-                continue;
+        results.forEach(this::accept);
+    }
+
+    @Override
+    public void accept(final ValidationResult result) {
+        if (result.getStatus() == OK && writeFailureOnly) {
+            return;
+        }
+
+        final var root = stagingRoot != null && result.getSourceObjectId() != null ? stagingRoot : validationRoot;
+        final var jsonFilePath = root.resolve(resolvePathToJsonResult(result, pathEncoder));
+        LOGGER.debug("Writing of results here: {}", jsonFilePath);
+        final var file = jsonFilePath.toFile();
+        file.getParentFile().mkdirs();
+        try (final var writer = new FileWriter(file)) {
+            final var resultStr = objectMapper.writeValueAsString(result);
+            writer.write(resultStr);
+        } catch (final IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * When replacing results, move the previous results of the object aside and move the staged results into their
+     * place. An object without staged results, e.g. one which now passes when only failures are written, is left
+     * without results.
+     *
+     * The two moves are not atomic together, so a marker is created in the staging directory before either of them.
+     * If the run is killed part way through, the next writer rolls the replacement forward from the marker, see
+     * {@link #recover()}.
+     */
+    @Override
+    public void completeObject(final String pid) {
+        if (stagingRoot == null) {
+            return;
+        }
+
+        final var staged = stagingRoot.resolve(resolvePathToObjectResults(pid, pathEncoder));
+        try {
+            final var marker = sibling(staged, Files.exists(staged) ? REPLACE_MARKER : REMOVE_MARKER);
+            Files.createDirectories(marker.getParent());
+            Files.createFile(marker);
+            rollForward(staged, marker);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to replace the results of " + pid, e);
+        }
+    }
+
+    /**
+     * Swap the staged results of an object into place. Each step checks what the steps before it left behind, so a
+     * replacement which was interrupted at any point can be run again.
+     *
+     * @param staged the staged results of the object
+     * @param marker the marker of the replacement
+     */
+    private void rollForward(final Path staged, final Path marker) throws IOException {
+        final var target = validationRoot.resolve(stagingRoot.relativize(staged));
+        final var replaced = sibling(staged, REPLACED);
+        final var hasStaged = marker.getFileName().toString().endsWith(REPLACE_MARKER);
+        // once the staged results are moved, the results in place are the new ones
+        if (!hasStaged || Files.exists(staged)) {
+            if (Files.exists(target)) {
+                Files.createDirectories(replaced.getParent());
+                Files.move(target, replaced, ATOMIC_MOVE);
+            }
+            if (hasStaged) {
+                Files.createDirectories(target.getParent());
+                Files.move(staged, target, ATOMIC_MOVE);
             }
+        }
+        FileUtils.deleteDirectory(replaced.toFile());
+        Files.delete(marker);
+    }
 
-            final var jsonFilePath = this.validationRoot.resolve(resolvePathToJsonResult(result, pathEncoder));
-            LOGGER.debug("Writing of results here: {}", jsonFilePath);
-            final var file = jsonFilePath.toFile();
-            file.getParentFile().mkdirs();
-            try (final var writer = new FileWriter(file)) {
-                final var resultStr = objectMapper.writeValueAsString(result);
-                writer.write(resultStr);
-            } catch (final IOException ex) {
-                throw new RuntimeException(ex);
+    /**
+     * Complete the replacements left by a run which was killed, then drop the staging directory. The staged results
+     * of objects which were not complete are discarded, as those objects are validated again.
+     */
+    private void recover() {
+        if (!Files.exists(stagingRoot)) {
+            return;
+        }
+
+        try {
+            final List<Path> markers;
+            try (var files = Files.walk(stagingRoot)) {
+                markers = files.filter(Files::isRegularFile)
+                               .filter(file -> file.getFileName().toString().endsWith(REPLACE_MARKER) ||
+                                               file.getFileName().toString().endsWith(REMOVE_MARKER))
+                               .collect(Collectors.toList());
+            }
+            for (final var marker : markers) {
+                final var name = marker.getFileName().toString();
+                final var staged = marker.resolveSibling(name.substring(0, name.lastIndexOf('.')));
+                LOGGER.info("Completing the interrupted replacement of the results in {}", staged);
+                rollForward(staged, marker);
             }
+            FileUtils.deleteDirectory(stagingRoot.toFile());
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to recover the staged results in " + stagingRoot, e);
         }
     }
+
+    /**
+     * Drop the staging directory once every object is complete
+     */
+    @Override
+    public void close() {
+        if (stagingRoot != null) {
+            recover();
+        }
+    }
+
+    private static Path sibling(final Path path, final String suffix) {
+        return path.resolveSibling(path.getFileName() + suffix);
+    }
 }
@@ -5,24 +5,22 @@
  */
 package org.fcrepo.migration.validator.impl;
 
-import static java.lang.String.format;
 import static org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel.OBJECT;
 import static org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel.OBJECT_RESOURCE;
 import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.BINARY_VERSION_COUNT;
 import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.SOURCE_OBJECT_EXISTS_IN_TARGET;
 import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.SOURCE_OBJECT_RESOURCE_EXISTS_IN_TARGET;
 
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import io.ocfl.api.OcflRepository;
-import io.ocfl.api.model.ObjectVersionId;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
+import org.fcrepo.migration.DatastreamVersion;
 import org.fcrepo.migration.ObjectInfo;
 import org.fcrepo.migration.ObjectProperties;
 import org.fcrepo.migration.ObjectReference;
@@ -30,7 +28,9 @@
 import org.fcrepo.migration.validator.api.ObjectValidationConfig;
 import org.fcrepo.migration.validator.api.ValidationHandler;
 import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.api.ValidationResultSink;
 import org.fcrepo.storage.ocfl.OcflObjectSession;
+import org.fcrepo.storage.ocfl.ResourceHeaders;
 import org.fcrepo.storage.ocfl.exception.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,13 +45,13 @@ public class HeadOnlyValidationHandler implements ValidationHandler {
     private ObjectInfo objectInfo;
 
     private final AtomicInteger index;
-    private final Path ocflRoot;
     private final boolean checksum;
     private final boolean deleteInactive;
-    private final OcflRepository repository;
     private final OcflObjectSession ocflSession;
-    private final F6DigestAlgorithm digestAlgorithm;
-    private final List<ValidationResult> validationResults;
+    private final OcflTargetResolver targetResolver;
+    private final ObjectValidationConfig config;
+    private final List<ValidationResult> validationResults = new ArrayList<>();
+    private final ValidationResultSink resultSink;
 
     /**
      * Constructor
@@ -60,14 +60,26 @@ public class HeadOnlyValidationHandler implements ValidationHandler {
      * @param config the validation config
      */
     public HeadOnlyValidationHandler(final OcflObjectSession session, final ObjectValidationConfig config) {
+        this(session, null, config);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param session the ocfl session
+     * @param resultSink receives each result as it is produced, or null to collect the results in a list
+     * @param config the validation config
+     */
+    public HeadOnlyValidationHandler(final OcflObjectSession session,
+                                     final ValidationResultSink resultSink,
+                                     final ObjectValidationConfig config) {
         this.index = new AtomicInteger();
+        this.resultSink = resultSink != null ? resultSink : validationResults::add;
         this.ocflSession = session;
         this.checksum = config.isChecksum();
-        this.ocflRoot = config.getOcflRoot();
         this.deleteInactive = config.deleteInactive();
-        this.digestAlgorithm = config.getDigestAlgorithm();
-        this.repository = config.getOcflRepository();
-        this.validationResults = new ArrayList<>();
+        this.config = config;
+        this.targetResolver = new OcflTargetResolver(session.ocflObjectId(), config);
     }
 
     @Override
@@ -121,17 +133,17 @@ private boolean initialObjectValidation(final ObjectProperties objectProperties)
                            .ifPresent(is -> RDFDataMgr.read(model, is, RDFFormat.NTRIPLES.getLang()));
 
                 properties.forEach(op -> validateObjectProperty(ocflId, objectInfo, op, headers, model, builder)
-                    .ifPresent(validationResults::add));
+                    .ifPresent(resultSink::accept));
                 continueValidations = true;
             } else {
-                validationResults.add(builder.fail(SOURCE_OBJECT_EXISTS_IN_TARGET, errorDeleted));
+                resultSink.accept(builder.fail(SOURCE_OBJECT_EXISTS_IN_TARGET, errorDeleted));
             }
         } catch (final NotFoundException ignored) {
             // object not in ocfl, check if it is deleted in F3 as well
             if (isDeleted) {
-                validationResults.add(builder.ok(SOURCE_OBJECT_EXISTS_IN_TARGET, successDeleted));
+                resultSink.accept(builder.ok(SOURCE_OBJECT_EXISTS_IN_TARGET, successDeleted));
             } else {
-                validationResults.add(builder.fail(SOURCE_OBJECT_EXISTS_IN_TARGET, errorActive));
+                resultSink.accept(builder.fail(SOURCE_OBJECT_EXISTS_IN_TARGET, errorActive));
             }
         }
 
@@ -157,9 +169,9 @@ private void validateDatastream(final String dsId, final ObjectReference objectR
             final var error = "Source object resource does not exist in target for source version";
             try {
                 ocflSession.readHeaders(targetResource);
-                validationResults.add(builder.fail(SOURCE_OBJECT_RESOURCE_EXISTS_IN_TARGET, error));
+                resultSink.accept(builder.fail(SOURCE_OBJECT_RESOURCE_EXISTS_IN_TARGET, error));
             } catch (NotFoundException ex) {
-                validationResults.add(builder.ok(SOURCE_OBJECT_RESOURCE_EXISTS_IN_TARGET, success));
+                resultSink.accept(builder.ok(SOURCE_OBJECT_RESOURCE_EXISTS_IN_TARGET, success));
             }
 
             return;
@@ -172,33 +184,84 @@ private void validateDatastream(final String dsId, final ObjectReference objectR
             final var headers = ocflSession.readHeaders(targetResource);
             final var versions = ocflSession.listVersions(targetResource);
             final var ocflVersionInfo = versions.get(0);
-            final var objectVersionId = ObjectVersionId.version(ocflVersionInfo.getOcflObjectId(),
-                                                                ocflVersionInfo.getVersionNumber());
-            final var ocflObject = repository.getObject(objectVersionId);
+            final var targetFile = targetResolver.getContentPath(ocflVersionInfo.getVersionNumber(), headers);
 
             // datastream validations
-            validateSizeMeta(head, headers, "HEAD", builder).ifPresent(validationResults::add);
-            validateSizeOnDisk(head, ocflRoot, headers, ocflObject, "HEAD", builder).ifPresent(validationResults::add);
-            validateCreatedDate(created, headers, "HEAD", builder).ifPresent(validationResults::add);
-            validateLastModified(head, headers, "HEAD", builder).ifPresent(validationResults::add);
+            validateSizeMeta(head, headers, "HEAD", builder).ifPresent(resultSink::accept);
+            validateSizeOnDisk(head, targetFile, "HEAD", builder).ifPresent(resultSink::accept);
+            validateCreatedDate(created, headers, "HEAD", builder).ifPresent(resultSink::accept);
+            validateLastModified(head, headers, "HEAD", builder).ifPresent(resultSink::accept);
             if (checksum) {
-                validateChecksum(head, headers, digestAlgorithm, "HEAD", builder).ifPresent(validationResults::add);
+                validateChecksumMode(head, ocflVersionInfo.getVersionNumber(), headers, targetFile, "HEAD", builder)
+                    .forEach(resultSink::accept);
             }
 
             // validate we have only one version in ocfl
             if (versions.size() == 1) {
                 final var versionSuccess = "Resource has single binary version";
-                validationResults.add(builder.ok(BINARY_VERSION_COUNT, versionSuccess));
+                resultSink.accept(builder.ok(BINARY_VERSION_COUNT, versionSuccess));
             } else {
                 final var versionFailure = "Resource has more than just a HEAD version: count=%s";
-                validationResults.add(builder.fail(BINARY_VERSION_COUNT, format(versionFailure, versions.size())));
+                resultSink.accept(builder.fail(BINARY_VERSION_COUNT, versionFailure, versions.size()));
             }
         } catch (NotFoundException ignored) {
             final var readError = "Source object resource does not exist in target";
-            validationResults.add(builder.fail(SOURCE_OBJECT_RESOURCE_EXISTS_IN_TARGET, readError));
+            resultSink.accept(builder.fail(SOURCE_OBJECT_RESOURCE_EXISTS_IN_TARGET, readError));
         }
     }
 
+    @Override
+    public ChecksumCache checksumCache() {
+        return config.getChecksumCache();
+    }
+
+    @Override
+    public ChecksumMode checksumMode() {
+        return config.getChecksumMode();
+    }
+
+    @Override
+    public F6DigestAlgorithm digestAlgorithm() {
+        return config.getDigestAlgorithm();
+    }
+
+    @Override
+    public CompareMode compareMode() {
+        return config.getCompareMode();
+    }
+
+    @Override
+    public boolean verifyTarget() {
+        return config.isVerifyTarget();
+    }
+
+    @Override
+    public Executor targetExecutor() {
+        return config.getTargetExecutor();
+    }
+
+    @Override
+    public List<RecordedDigest> recordedDigests(final DatastreamVersion dsVersion,
+                                                final String versionNumber,
+                                                final ResourceHeaders headers) {
+        return targetResolver.getRecordedDigests(dsVersion, versionNumber, headers);
+    }
+
+    @Override
+    public IoThrottle sourceThrottle() {
+        return config.getSourceThrottle();
+    }
+
+    @Override
+    public IoThrottle targetThrottle() {
+        return config.getTargetThrottle();
+    }
+
+    @Override
+    public IoLanes ioLanes() {
+        return config.getIoLanes();
+    }
+
     @Override
     public List<ValidationResult> getValidationResults() {
         return validationResults;
@@ -0,0 +1,165 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the number of concurrent reads against each storage device. Paths are grouped into lanes by the device of
+ * the file store which holds them, and each lane has its own limit and a fair queue of the workers waiting on it, so a
+ * slow device only holds back the work which reads from it.
+ *
+ * Devices are identified by the unix:dev attribute when it is available, which needs only a stat of the file, and by
+ * {@link Files#getFileStore(Path)} otherwise. A limit of 0 means the lane is unlimited.
+ *
+ * @author mikejritter
+ */
+public class IoLanes {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IoLanes.class);
+
+    /**
+     * An I/O operation run inside one or more lanes
+     *
+     * @param <T> the result of the operation
+     */
+    @FunctionalInterface
+    public interface IoCallable<T> {
+        T call() throws IOException;
+    }
+
+    private final int defaultLimit;
+    private final Map<Object, Integer> limits;
+    private final Map<Object, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger laneCount = new AtomicInteger();
+
+    /**
+     * Constructor
+     *
+     * @param defaultLimit the number of concurrent reads allowed against each device, or 0 for unlimited
+     * @param limits the number of concurrent reads allowed for the devices holding specific paths, e.g. mount points
+     */
+    public IoLanes(final int defaultLimit, final Map<Path, Integer> limits) {
+        this.defaultLimit = defaultLimit;
+        this.limits = new HashMap<>();
+        limits.forEach((path, limit) -> {
+            try {
+                this.limits.put(device(path), limit);
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to find the device of " + path, e);
+            }
+        });
+    }
+
+    /**
+     * @return lanes which never block
+     */
+    public static IoLanes unlimited() {
+        return new IoLanes(0, Map.of());
+    }
+
+    /**
+     * Run an operation inside the lane of a path
+     *
+     * @param path the path read by the operation
+     * @param callable the operation
+     * @param <T> the result of the operation
+     * @return the result
+     * @throws IOException if the operation fails or is interrupted while waiting for the lane
+     */
+    public <T> T call(final Path path, final IoCallable<T> callable) throws IOException {
+        return call(List.of(path), callable);
+    }
+
+    /**
+     * Run an operation inside the lanes of several paths. Lanes are always acquired in the same order so operations
+     * which read from the same devices cannot deadlock, and a device shared by several of the paths is only acquired
+     * once.
+     *
+     * @param paths the paths read by the operation
+     * @param callable the operation
+     * @param <T> the result of the operation
+     * @return the result
+     * @throws IOException if the operation fails or is interrupted while waiting for a lane
+     */
+    public <T> T call(final Collection<Path> paths, final IoCallable<T> callable) throws IOException {
+        if (defaultLimit == 0 && limits.isEmpty()) {
+            return callable.call();
+        }
+
+        final var required = new ArrayList<Lane>(paths.size());
+        for (final var path : paths) {
+            lane(path).filter(lane -> !required.contains(lane)).ifPresent(required::add);
+        }
+        required.sort(Comparator.comparingInt(lane -> lane.order));
+
+        final var acquired = new ArrayList<Lane>(required.size());
+        try {
+            for (final var lane : required) {
+                lane.semaphore.acquire();
+                acquired.add(lane);
+            }
+            return callable.call();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for I/O lane");
+        } finally {
+            acquired.forEach(lane -> lane.semaphore.release());
+        }
+    }
+
+    private Optional<Lane> lane(final Path path) {
+        final Object device;
+        try {
+            device = device(path);
+        } catch (IOException e) {
+            // let the operation report the missing file
+            LOGGER.debug("Unable to find the device of {}", path, e);
+            return Optional.empty();
+        }
+
+        final var lane = lanes.computeIfAbsent(device, key -> {
+            final var limit = limits.getOrDefault(key, defaultLimit);
+            LOGGER.info("Reads from {} limited to {} concurrent operations", path, limit == 0 ? "unlimited" : limit);
+            return new Lane(laneCount.getAndIncrement(), limit);
+        });
+        return lane.semaphore == null ? Optional.empty() : Optional.of(lane);
+    }
+
+    private static Object device(final Path path) throws IOException {
+        try {
+            return Files.getAttribute(path, "unix:dev");
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            return Files.getFileStore(path);
+        }
+    }
+
+    private static class Lane {
+        private final int order;
+        private final Semaphore semaphore;
+
+        Lane(final int order, final int limit) {
+            this.order = order;
+            this.semaphore = limit > 0 ? new Semaphore(limit, true) : null;
+        }
+    }
+}
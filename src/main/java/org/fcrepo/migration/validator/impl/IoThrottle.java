@@ -0,0 +1,169 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the rate of reads from a storage system with a pair of token buckets, one for bytes read and one for I/O
+ * operations (opening, reading a chunk of, or checking the size of a file). A throttle is shared by every worker
+ * thread which reads from the same storage. A limit of 0 means unlimited.
+ *
+ * Limits can be changed during a run through JMX, where each throttle is registered as
+ * org.fcrepo.migration.validator:type=IoThrottle,name=[name].
+ *
+ * @author mikejritter
+ */
+public class IoThrottle implements IoThrottleMBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IoThrottle.class);
+
+    private final String name;
+    private final TokenBucket bytes;
+    private final TokenBucket ops;
+
+    /**
+     * Constructor
+     *
+     * @param name the name of the storage being throttled, e.g. source
+     * @param bytesPerSecond the maximum number of bytes read per second, or 0 for unlimited
+     * @param opsPerSecond the maximum number of I/O operations per second, or 0 for unlimited
+     */
+    public IoThrottle(final String name, final long bytesPerSecond, final long opsPerSecond) {
+        this.name = name;
+        this.bytes = new TokenBucket(bytesPerSecond);
+        this.ops = new TokenBucket(opsPerSecond);
+    }
+
+    /**
+     * @param name the name of the storage
+     * @return a throttle which never blocks
+     */
+    public static IoThrottle unlimited(final String name) {
+        return new IoThrottle(name, 0, 0);
+    }
+
+    /**
+     * Register this throttle with the platform MBean server so its limits can be changed at runtime
+     *
+     * @return this throttle
+     */
+    public IoThrottle register() {
+        try {
+            final var objectName = new ObjectName("org.fcrepo.migration.validator:type=IoThrottle,name=" + name);
+            final var server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            LOGGER.warn("Unable to register {} I/O throttle with JMX", name, e);
+        }
+        return this;
+    }
+
+    /**
+     * Block until a number of bytes may be read
+     *
+     * @param count the number of bytes
+     */
+    public void acquireBytes(final long count) {
+        bytes.acquire(count);
+    }
+
+    /**
+     * Block until an I/O operation may be performed
+     */
+    public void acquireOp() {
+        ops.acquire(1);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getBytesPerSecond() {
+        return bytes.getRate();
+    }
+
+    @Override
+    public void setBytesPerSecond(final long bytesPerSecond) {
+        LOGGER.info("Setting {} I/O throttle to {} bytes per second", name, bytesPerSecond);
+        bytes.setRate(bytesPerSecond);
+    }
+
+    @Override
+    public long getOpsPerSecond() {
+        return ops.getRate();
+    }
+
+    @Override
+    public void setOpsPerSecond(final long opsPerSecond) {
+        LOGGER.info("Setting {} I/O throttle to {} operations per second", name, opsPerSecond);
+        ops.setRate(opsPerSecond);
+    }
+
+    /**
+     * A token bucket which refills at a fixed rate and holds up to one second of tokens. Requests larger than the
+     * available tokens are allowed to go into debt, and the requesting thread sleeps until the debt is repaid, so
+     * large reads are not starved by small ones.
+     */
+    private static class TokenBucket {
+        private long rate;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(final long rate) {
+            setRate(rate);
+        }
+
+        synchronized long getRate() {
+            return rate;
+        }
+
+        synchronized void setRate(final long rate) {
+            this.rate = Math.max(0, rate);
+            this.tokens = this.rate;
+            this.lastRefill = System.nanoTime();
+        }
+
+        void acquire(final long count) {
+            final long waitNanos = reserve(count);
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        /**
+         * Take tokens from the bucket
+         *
+         * @return the number of nanoseconds to wait before the tokens are available
+         */
+        private synchronized long reserve(final long count) {
+            if (rate == 0 || count <= 0) {
+                return 0;
+            }
+
+            final var now = System.nanoTime();
+            tokens = Math.min(rate, tokens + (now - lastRefill) * rate / 1e9);
+            lastRefill = now;
+            tokens -= count;
+            return tokens >= 0 ? 0 : (long) (-tokens * 1e9 / rate);
+        }
+    }
+}
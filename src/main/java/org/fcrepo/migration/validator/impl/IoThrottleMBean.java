@@ -0,0 +1,34 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+/**
+ * JMX management interface for adjusting an {@link IoThrottle} while a validation run is in progress
+ *
+ * @author mikejritter
+ */
+public interface IoThrottleMBean {
+
+    /**
+     * @return the maximum number of bytes read per second, or 0 if unlimited
+     */
+    long getBytesPerSecond();
+
+    /**
+     * @param bytesPerSecond the maximum number of bytes read per second, or 0 for unlimited
+     */
+    void setBytesPerSecond(long bytesPerSecond);
+
+    /**
+     * @return the maximum number of I/O operations per second, or 0 if unlimited
+     */
+    long getOpsPerSecond();
+
+    /**
+     * @param opsPerSecond the maximum number of I/O operations per second, or 0 for unlimited
+     */
+    void setOpsPerSecond(long opsPerSecond);
+}
@@ -0,0 +1,86 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * A global budget of the memory used by objects in flight. Objects acquire their estimated memory before they are
+ * dispatched and release it when their validation completes. An object whose estimate exceeds the budget acquires the
+ * whole budget, so it waits for every other object to finish and runs alone rather than failing the run.
+ *
+ * The budget is held as a fair semaphore of kilobyte permits, so a large object waiting on the budget is not starved
+ * by the smaller objects dispatched after it.
+ *
+ * @author mikejritter
+ */
+public class MemoryBudget {
+
+    private static final long PERMIT_BYTES = 1024;
+
+    private final int totalPermits;
+    private final Semaphore permits;
+
+    /**
+     * Constructor
+     *
+     * @param budgetBytes the memory budget in bytes, or 0 for unlimited
+     */
+    public MemoryBudget(final long budgetBytes) {
+        this.totalPermits = (int) Math.min(Integer.MAX_VALUE, (budgetBytes + PERMIT_BYTES - 1) / PERMIT_BYTES);
+        this.permits = totalPermits > 0 ? new Semaphore(totalPermits, true) : null;
+    }
+
+    /**
+     * @return a budget which never blocks
+     */
+    public static MemoryBudget unlimited() {
+        return new MemoryBudget(0);
+    }
+
+    /**
+     * @return true if the budget limits the memory of objects in flight
+     */
+    public boolean isLimited() {
+        return permits != null;
+    }
+
+    /**
+     * @param bytes the estimated memory of an object
+     * @return true if the object must run alone
+     */
+    public boolean exceeds(final long bytes) {
+        return isLimited() && bytes > totalPermits * PERMIT_BYTES;
+    }
+
+    /**
+     * Block until the memory of an object is available
+     *
+     * @param bytes the estimated memory of the object
+     * @return the number of permits acquired, to be passed to {@link #release(int)}
+     * @throws InterruptedException on interrupt
+     */
+    public int acquire(final long bytes) throws InterruptedException {
+        if (!isLimited()) {
+            return 0;
+        }
+
+        final var count = (int) Math.max(1, Math.min(totalPermits, (bytes + PERMIT_BYTES - 1) / PERMIT_BYTES));
+        permits.acquire(count);
+        return count;
+    }
+
+    /**
+     * Release the memory of an object
+     *
+     * @param count the number of permits returned by {@link #acquire(long)}
+     */
+    public void release(final int count) {
+        if (count > 0) {
+            permits.release(count);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import org.fcrepo.migration.DatastreamVersion;
+
+/**
+ * Computes several digests of a datastream in a single pass, so large datastreams only need to be read once no
+ * matter how many algorithms they are compared with.
+ *
+ * Datastreams with a local file are read through a FileChannel into a large direct buffer which is handed to each
+ * hasher as a ByteBuffer. Other datastreams are read from their content stream. Buffers are allocated once per thread
+ * and reused for every datastream the thread validates. Reads may be limited by an {@link IoThrottle}.
+ *
+ * @author mikejritter
+ */
+public final class MultiDigester {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int DIRECT_BUFFER_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<byte[]> HEAP_BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+    private static final ThreadLocal<ByteBuffer> DIRECT_BUFFERS =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(DIRECT_BUFFER_SIZE));
+
+    private static final IoThrottle NO_THROTTLE = IoThrottle.unlimited("none");
+
+    private MultiDigester() {
+    }
+
+    /**
+     * Digest a datastream version, reading its local file directly when one exists
+     *
+     * @param dsVersion the datastream version
+     * @param algorithms the algorithms to compute
+     * @return the digest of each algorithm
+     * @throws IOException if the datastream cannot be read
+     */
+    public static Map<ChecksumAlgorithm, HashCode> digest(final DatastreamVersion dsVersion,
+                                                          final Collection<ChecksumAlgorithm> algorithms)
+        throws IOException {
+        return digest(dsVersion, algorithms, NO_THROTTLE);
+    }
+
+    /**
+     * Digest a datastream version, reading its local file directly when one exists
+     *
+     * @param dsVersion the datastream version
+     * @param algorithms the algorithms to compute
+     * @param throttle the throttle for reads of the datastream
+     * @return the digest of each algorithm
+     * @throws IOException if the datastream cannot be read
+     */
+    public static Map<ChecksumAlgorithm, HashCode> digest(final DatastreamVersion dsVersion,
+                                                          final Collection<ChecksumAlgorithm> algorithms,
+                                                          final IoThrottle throttle)
+        throws IOException {
+        final var file = dsVersion.getFile().filter(File::isFile);
+        if (file.isPresent()) {
+            return digest(file.get().toPath(), algorithms, throttle);
+        }
+
+        throttle.acquireOp();
+        try (var content = dsVersion.getContent()) {
+            return digest(content, algorithms, throttle);
+        }
+    }
+
+    /**
+     * Read a file through a FileChannel and feed each chunk to a hasher for every algorithm
+     *
+     * @param file the file to digest
+     * @param algorithms the algorithms to compute
+     * @return the digest of each algorithm
+     * @throws IOException if the file cannot be read
+     */
+    public static Map<ChecksumAlgorithm, HashCode> digest(final Path file,
+                                                          final Collection<ChecksumAlgorithm> algorithms)
+        throws IOException {
+        return digest(file, algorithms, NO_THROTTLE);
+    }
+
+    /**
+     * Read a file through a FileChannel and feed each chunk to a hasher for every algorithm
+     *
+     * @param file the file to digest
+     * @param algorithms the algorithms to compute
+     * @param throttle the throttle for reads of the file
+     * @return the digest of each algorithm
+     * @throws IOException if the file cannot be read
+     */
+    public static Map<ChecksumAlgorithm, HashCode> digest(final Path file,
+                                                          final Collection<ChecksumAlgorithm> algorithms,
+                                                          final IoThrottle throttle)
+        throws IOException {
+        final var hashers = hashers(algorithms);
+        final var buffer = DIRECT_BUFFERS.get();
+
+        throttle.acquireOp();
+        try (var channel = FileChannel.open(file, READ)) {
+            buffer.clear();
+            int read;
+            while ((read = channel.read(buffer)) != -1) {
+                throttle.acquireOp();
+                throttle.acquireBytes(read);
+                buffer.flip();
+                for (final var hasher : hashers.values()) {
+                    // each hasher consumes the buffer, so rewind it for the next
+                    buffer.rewind();
+                    hasher.putBytes(buffer);
+                }
+                buffer.clear();
+            }
+        }
+
+        return hash(hashers);
+    }
+
+    /**
+     * Read a stream and feed each chunk to a hasher for every algorithm
+     *
+     * @param inputStream the stream to digest, which is not closed
+     * @param algorithms the algorithms to compute
+     * @return the digest of each algorithm
+     * @throws IOException if the stream cannot be read
+     */
+    public static Map<ChecksumAlgorithm, HashCode> digest(final InputStream inputStream,
+                                                          final Collection<ChecksumAlgorithm> algorithms)
+        throws IOException {
+        return digest(inputStream, algorithms, NO_THROTTLE);
+    }
+
+    /**
+     * Read a stream and feed each chunk to a hasher for every algorithm
+     *
+     * @param inputStream the stream to digest, which is not closed
+     * @param algorithms the algorithms to compute
+     * @param throttle the throttle for reads of the stream
+     * @return the digest of each algorithm
+     * @throws IOException if the stream cannot be read
+     */
+    public static Map<ChecksumAlgorithm, HashCode> digest(final InputStream inputStream,
+                                                          final Collection<ChecksumAlgorithm> algorithms,
+                                                          final IoThrottle throttle)
+        throws IOException {
+        final var hashers = hashers(algorithms);
+        final var buffer = HEAP_BUFFERS.get();
+
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            throttle.acquireOp();
+            throttle.acquireBytes(read);
+            for (final var hasher : hashers.values()) {
+                hasher.putBytes(buffer, 0, read);
+            }
+        }
+
+        return hash(hashers);
+    }
+
+    private static Map<ChecksumAlgorithm, Hasher> hashers(final Collection<ChecksumAlgorithm> algorithms) {
+        final var hashers = new EnumMap<ChecksumAlgorithm, Hasher>(ChecksumAlgorithm.class);
+        algorithms.forEach(algorithm -> hashers.computeIfAbsent(algorithm, ChecksumAlgorithm::hasher));
+        return hashers;
+    }
+
+    private static Map<ChecksumAlgorithm, HashCode> hash(final Map<ChecksumAlgorithm, Hasher> hashers) {
+        final var digests = new EnumMap<ChecksumAlgorithm, HashCode>(ChecksumAlgorithm.class);
+        hashers.forEach((algorithm, hasher) -> digests.put(algorithm, hasher.hash()));
+        return digests;
+    }
+}
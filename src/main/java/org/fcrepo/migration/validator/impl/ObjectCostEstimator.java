@@ -0,0 +1,114 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Estimates the cost of validating an object from a single pass over its FOXML. The cost is the size of the FOXML, plus
+ * the recorded size of each datastream version, plus a fixed overhead for each version to account for the lookups and
+ * header validations which happen regardless of size. The FOXML is not parsed; each datastream and datastreamVersion
+ * element is matched on its own line, as Fedora 3 writes them.
+ *
+ * The memory needed to validate an object is estimated separately: the FOXML, including inline XML datastreams, is
+ * held in memory by the object processor, and every version of the RELS-INT is parsed into a Jena model.
+ *
+ * @author mikejritter
+ */
+public final class ObjectCostEstimator {
+
+    /**
+     * The cost of a datastream version in addition to its content, in bytes
+     */
+    static final long VERSION_COST = 256 * 1024;
+
+    /**
+     * The memory used for each byte of FOXML
+     */
+    static final long FOXML_MEMORY_FACTOR = 4;
+
+    /**
+     * The memory used for each byte of RELS-INT parsed into a model
+     */
+    static final long RDF_MEMORY_FACTOR = 20;
+
+    private static final Pattern DATASTREAM = Pattern.compile("<(\\w+:)?datastream\\s");
+    private static final Pattern DATASTREAM_VERSION = Pattern.compile("<(\\w+:)?datastreamVersion\\s");
+    private static final Pattern SIZE = Pattern.compile("\\sSIZE=\"(\\d+)\"");
+    private static final String RELS_INT_ID = "ID=\"RELS-INT\"";
+
+    private ObjectCostEstimator() {
+    }
+
+    /**
+     * Estimate the cost of validating an object
+     *
+     * @param foxml the FOXML of the object
+     * @return the estimated cost, roughly in bytes read
+     * @throws IOException if the FOXML cannot be read
+     */
+    public static long estimate(final Path foxml) throws IOException {
+        var cost = Files.size(foxml);
+        try (Stream<String> lines = lines(foxml)) {
+            cost += lines.filter(line -> DATASTREAM_VERSION.matcher(line).find())
+                         .mapToLong(ObjectCostEstimator::versionCost)
+                         .sum();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return cost;
+    }
+
+    /**
+     * Estimate the memory needed to validate an object
+     *
+     * @param foxml the FOXML of the object
+     * @return the estimated memory in bytes
+     * @throws IOException if the FOXML cannot be read
+     */
+    public static long estimateMemory(final Path foxml) throws IOException {
+        var relsIntSize = 0L;
+        var inRelsInt = false;
+        try (Stream<String> lines = lines(foxml)) {
+            for (final var it = lines.iterator(); it.hasNext();) {
+                final var line = it.next();
+                if (DATASTREAM.matcher(line).find()) {
+                    inRelsInt = line.contains(RELS_INT_ID);
+                } else if (inRelsInt && DATASTREAM_VERSION.matcher(line).find()) {
+                    relsIntSize += size(line);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return Files.size(foxml) * FOXML_MEMORY_FACTOR + relsIntSize * RDF_MEMORY_FACTOR;
+    }
+
+    /**
+     * Read the lines of the FOXML as ISO-8859-1. Only ascii is matched, and unlike UTF-8 every byte can be decoded,
+     * so content which is not valid UTF-8 does not fail the estimate.
+     */
+    private static Stream<String> lines(final Path foxml) throws IOException {
+        return Files.lines(foxml, ISO_8859_1);
+    }
+
+    private static long versionCost(final String line) {
+        return VERSION_COST + size(line);
+    }
+
+    private static long size(final String line) {
+        final var matcher = SIZE.matcher(line);
+        // managed datastreams migrated from older versions of Fedora 3 may record a size of 0
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.fcrepo.migration.ObjectInfo;
+import org.slf4j.Logger;
+
+/**
+ * An index of the fingerprint of each validated object, kept in the results directory so that an incremental run can
+ * skip the objects which have not changed since they were last validated.
+ *
+ * The fingerprint of an object combines its source, the size and modified time of the FOXML and the Fedora 3
+ * lastModifiedDate, with its target, the head version and inventory digest of the OCFL object, and with the options
+ * the object was validated with, so that changing e.g. the checksum options validates every object again.
+ * Fingerprints are appended to the index as objects are validated, the latest fingerprint of an object wins, and
+ * closing the index compacts it to one line per object.
+ *
+ * @author mikejritter
+ */
+public class ObjectFingerprintIndex implements Closeable {
+
+    private static final Logger LOGGER = getLogger(ObjectFingerprintIndex.class);
+
+    public static final String FILE_NAME = "fingerprints.log";
+
+    private static final Pattern LAST_MODIFIED =
+        Pattern.compile("NAME=\"info:fedora/fedora-system:def/view#lastModifiedDate\"\\s+VALUE=\"([^\"]*)\"");
+    private static final Pattern DATASTREAM = Pattern.compile("<(\\w+:)?datastream\\s");
+
+    private final Path file;
+    private final OcflInventoryReader inventoryReader;
+    private final String options;
+    private final boolean readOnly;
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private BufferedWriter writer;
+
+    /**
+     * Constructor
+     *
+     * @param resultsDirectory the directory holding the index
+     * @param inventoryReader the reader of the OCFL inventories
+     */
+    public ObjectFingerprintIndex(final Path resultsDirectory, final OcflInventoryReader inventoryReader) {
+        this(resultsDirectory, inventoryReader, "");
+    }
+
+    /**
+     * Constructor
+     *
+     * @param resultsDirectory the directory holding the index
+     * @param inventoryReader the reader of the OCFL inventories
+     * @param options the validation options, which are part of every fingerprint
+     */
+    public ObjectFingerprintIndex(final Path resultsDirectory,
+                                  final OcflInventoryReader inventoryReader,
+                                  final String options) {
+        this(resultsDirectory, inventoryReader, options, false);
+    }
+
+    private ObjectFingerprintIndex(final Path resultsDirectory,
+                                   final OcflInventoryReader inventoryReader,
+                                   final String options,
+                                   final boolean readOnly) {
+        this.file = resultsDirectory.resolve(FILE_NAME);
+        this.inventoryReader = inventoryReader;
+        this.options = options;
+        this.readOnly = readOnly;
+        load();
+    }
+
+    /**
+     * An index which is read from the results directory, but only records fingerprints in memory
+     *
+     * @param resultsDirectory the directory holding the index
+     * @param inventoryReader the reader of the OCFL inventories
+     * @param options the validation options, which are part of every fingerprint
+     * @return the ObjectFingerprintIndex
+     */
+    public static ObjectFingerprintIndex readOnly(final Path resultsDirectory,
+                                                  final OcflInventoryReader inventoryReader,
+                                                  final String options) {
+        return new ObjectFingerprintIndex(resultsDirectory, inventoryReader, options, true);
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (var lines = Files.lines(file)) {
+            lines.map(line -> line.split("\t", 2))
+                 .filter(parts -> parts.length == 2)
+                 .forEach(parts -> fingerprints.put(parts[0], parts[1]));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read the object fingerprint index " + file, e);
+        }
+        LOGGER.debug("Loaded {} object fingerprints from {}", fingerprints.size(), file);
+    }
+
+    /**
+     * Compute the current fingerprint of an object
+     *
+     * @param info the object
+     * @return the fingerprint, or empty if it cannot be computed
+     */
+    public Optional<String> fingerprint(final ObjectInfo info) {
+        if (info.getFoxmlPath() == null) {
+            return Optional.empty();
+        }
+
+        try {
+            final var target = inventoryReader.fingerprint("info:fedora/" + info.getPid()).orElse("none");
+            return Optional.of(sourceFingerprint(info.getFoxmlPath()) + "|" + target + "|" + options);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Unable to compute the fingerprint of {}", info.getPid(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The size, modified time, and Fedora 3 lastModifiedDate of the FOXML of an object. The FOXML is only read up to
+     * the object properties.
+     *
+     * @param foxml the FOXML of the object
+     * @return the fingerprint of the source
+     * @throws IOException if the FOXML cannot be read
+     */
+    static String sourceFingerprint(final Path foxml) throws IOException {
+        var lastModified = "";
+        try (Stream<String> lines = Files.lines(foxml)) {
+            for (final var it = lines.iterator(); it.hasNext();) {
+                final var line = it.next();
+                final var matcher = LAST_MODIFIED.matcher(line);
+                if (matcher.find()) {
+                    lastModified = matcher.group(1);
+                    break;
+                } else if (DATASTREAM.matcher(line).find()) {
+                    break;
+                }
+            }
+        }
+        return Files.size(foxml) + ":" + Files.getLastModifiedTime(foxml).toMillis() + ":" + lastModified;
+    }
+
+    /**
+     * @param info the object
+     * @return true if the object has the same fingerprint as when it was last validated
+     */
+    public boolean isUnchanged(final ObjectInfo info) {
+        final var previous = fingerprints.get(info.getPid());
+        return previous != null && fingerprint(info).map(previous::equals).orElse(false);
+    }
+
+    /**
+     * Record the fingerprint of a validated object
+     *
+     * @param pid the PID of the object
+     * @param fingerprint the fingerprint computed before the object was validated
+     */
+    public synchronized void record(final String pid, final String fingerprint) {
+        fingerprints.put(pid, fingerprint);
+        if (readOnly) {
+            return;
+        }
+
+        try {
+            if (writer == null) {
+                Files.createDirectories(file.getParent());
+                writer = Files.newBufferedWriter(file, CREATE, APPEND);
+            }
+            writer.write(pid + "\t" + fingerprint + System.lineSeparator());
+            writer.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to update the object fingerprint index " + file, e);
+        }
+    }
+
+    /**
+     * Compact the index to the latest fingerprint of each object
+     */
+    @Override
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+
+        try {
+            writer.close();
+            writer = null;
+
+            final var compacted = file.resolveSibling(FILE_NAME + ".tmp");
+            try (var out = Files.newBufferedWriter(compacted)) {
+                for (final var fingerprint : fingerprints.entrySet()) {
+                    out.write(fingerprint.getKey() + "\t" + fingerprint.getValue() + System.lineSeparator());
+                }
+            }
+            Files.move(compacted, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.error("Failed to compact the object fingerprint index {}", file, e);
+        }
+    }
+}
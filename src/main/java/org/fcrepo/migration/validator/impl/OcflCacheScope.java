@@ -0,0 +1,17 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+/**
+ * The scope of the OCFL resource headers cache. A global cache is shared by every OCFL session created during a run,
+ * while a session cache is created for each session and discarded along with it. As each session only reads from a
+ * single OCFL object, session scoped caches avoid evicting entries which other objects are still using.
+ *
+ * @author mikejritter
+ */
+public enum OcflCacheScope {
+    global, session
+}
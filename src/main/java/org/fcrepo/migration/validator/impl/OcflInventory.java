@@ -0,0 +1,130 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * A minimal, read only view of an OCFL inventory which holds only what is needed for structural validations: the
+ * version numbers, the logical paths of each version, and the digest and content path of each file. Paths and digests
+ * are stored in parallel arrays and each version maps its sorted logical paths to an index into the manifest, so an
+ * object with thousands of versions does not need an object graph per file.
+ *
+ * @author mikejritter
+ */
+public final class OcflInventory {
+
+    private final String objectId;
+    private final String objectRootPath;
+    private final String digestAlgorithm;
+    private final int head;
+    private final String[] manifestDigests;
+    private final String[] manifestPaths;
+    private final String[][] logicalPaths;
+    private final int[][] manifestIndexes;
+
+    /**
+     * Constructor
+     *
+     * @param objectId the id of the ocfl object
+     * @param objectRootPath the path of the object root, relative to the ocfl root
+     * @param digestAlgorithm the ocfl name of the inventory digest algorithm
+     * @param head the head version number
+     * @param manifestDigests the digest of each manifest entry
+     * @param manifestPaths the content path of each manifest entry, relative to the object root
+     * @param logicalPaths the sorted logical paths of each version, indexed by version number - 1
+     * @param manifestIndexes the manifest entry of each logical path, indexed by version number - 1
+     */
+    OcflInventory(final String objectId,
+                  final String objectRootPath,
+                  final String digestAlgorithm,
+                  final int head,
+                  final String[] manifestDigests,
+                  final String[] manifestPaths,
+                  final String[][] logicalPaths,
+                  final int[][] manifestIndexes) {
+        this.objectId = objectId;
+        this.objectRootPath = objectRootPath;
+        this.digestAlgorithm = digestAlgorithm;
+        this.head = head;
+        this.manifestDigests = manifestDigests;
+        this.manifestPaths = manifestPaths;
+        this.logicalPaths = logicalPaths;
+        this.manifestIndexes = manifestIndexes;
+    }
+
+    /**
+     * Parse an ocfl version number, e.g. v1 or v0003
+     *
+     * @param version the version number
+     * @return the version as an int
+     */
+    public static int parseVersion(final String version) {
+        if (version == null || version.length() < 2 || version.charAt(0) != 'v') {
+            throw new IllegalArgumentException("Invalid OCFL version number: " + version);
+        }
+        return Integer.parseInt(version.substring(1));
+    }
+
+    public String getObjectId() {
+        return objectId;
+    }
+
+    public String getObjectRootPath() {
+        return objectRootPath;
+    }
+
+    /**
+     * @return the ocfl name of the digest algorithm used by the inventory, e.g. sha512
+     */
+    public String getDigestAlgorithm() {
+        return digestAlgorithm;
+    }
+
+    public int getHead() {
+        return head;
+    }
+
+    public int getVersionCount() {
+        return logicalPaths.length;
+    }
+
+    /**
+     * Get the storage path of a file relative to the ocfl root
+     *
+     * @param version the version number, e.g. v1
+     * @param logicalPath the logical path of the file
+     * @return the storage relative path, or empty if the file is not in the version
+     */
+    public Optional<String> getStorageRelativePath(final String version, final String logicalPath) {
+        final var index = manifestIndex(version, logicalPath);
+        return index < 0 ? Optional.empty() : Optional.of(objectRootPath + "/" + manifestPaths[index]);
+    }
+
+    /**
+     * Get the digest the inventory records for a file
+     *
+     * @param version the version number, e.g. v1
+     * @param logicalPath the logical path of the file
+     * @return the lowercase digest, or empty if the file is not in the version
+     */
+    public Optional<String> getDigest(final String version, final String logicalPath) {
+        final var index = manifestIndex(version, logicalPath);
+        return index < 0 ? Optional.empty() : Optional.of(manifestDigests[index]);
+    }
+
+    private int manifestIndex(final String version, final String logicalPath) {
+        final var versionIndex = parseVersion(version) - 1;
+        if (logicalPath == null || versionIndex < 0 || versionIndex >= logicalPaths.length ||
+            logicalPaths[versionIndex] == null) {
+            return -1;
+        }
+
+        final var pathIndex = Arrays.binarySearch(logicalPaths[versionIndex], logicalPath);
+        return pathIndex < 0 ? -1 : manifestIndexes[versionIndex][pathIndex];
+    }
+}
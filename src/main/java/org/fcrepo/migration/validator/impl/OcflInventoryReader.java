@@ -0,0 +1,314 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ocfl.api.DigestAlgorithmRegistry;
+import io.ocfl.core.extension.storage.layout.HashedNTupleLayoutExtension;
+import io.ocfl.core.extension.storage.layout.config.HashedNTupleLayoutConfig;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads OCFL inventories with the Jackson streaming API into an {@link OcflInventory}. Only the id, digest algorithm,
+ * head, manifest, and version states are read; fixity blocks and version metadata are skipped without being parsed
+ * into objects.
+ *
+ * Objects are located with the hashed n-tuple storage layout of the ocfl root. If the object has a mutable head, its
+ * inventory is read instead of the root inventory.
+ *
+ * @author mikejritter
+ */
+public class OcflInventoryReader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OcflInventoryReader.class);
+
+    private static final String INVENTORY = "inventory.json";
+    private static final String MUTABLE_HEAD_INVENTORY = "extensions/0005-mutable-head/head/inventory.json";
+    private static final String LAYOUT_CONFIG = "extensions/0004-hashed-n-tuple-storage-layout/config.json";
+
+    private final Path ocflRoot;
+    private final JsonFactory jsonFactory;
+    private final HashedNTupleLayoutExtension layout;
+
+    /**
+     * Constructor
+     *
+     * @param ocflRoot the ocfl root directory
+     */
+    public OcflInventoryReader(final Path ocflRoot) {
+        this.ocflRoot = ocflRoot;
+        this.jsonFactory = new JsonFactory();
+        this.layout = new HashedNTupleLayoutExtension();
+        this.layout.init(readLayoutConfig(ocflRoot.resolve(LAYOUT_CONFIG)));
+    }
+
+    private static HashedNTupleLayoutConfig readLayoutConfig(final Path configFile) {
+        final var config = new HashedNTupleLayoutConfig();
+        if (Files.exists(configFile)) {
+            try {
+                final var json = new ObjectMapper().readTree(configFile.toFile());
+                if (json.hasNonNull("digestAlgorithm")) {
+                    config.setDigestAlgorithm(DigestAlgorithmRegistry.getAlgorithm(json.get("digestAlgorithm")
+                                                                                       .asText()));
+                }
+                if (json.hasNonNull("tupleSize")) {
+                    config.setTupleSize(json.get("tupleSize").asInt());
+                }
+                if (json.hasNonNull("numberOfTuples")) {
+                    config.setNumberOfTuples(json.get("numberOfTuples").asInt());
+                }
+                if (json.hasNonNull("shortObjectRoot")) {
+                    config.setShortObjectRoot(json.get("shortObjectRoot").asBoolean());
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Unable to read storage layout config {}, using defaults", configFile, e);
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Read the inventory of an ocfl object
+     *
+     * @param ocflObjectId the id of the ocfl object
+     * @throws RuntimeException if the inventory cannot be read
+     * @return the inventory, or empty if the object has no inventory
+     */
+    public Optional<OcflInventory> read(final String ocflObjectId) {
+        final var objectRootPath = layout.mapObjectId(ocflObjectId);
+        final var inventoryFile = inventoryFile(ocflRoot.resolve(objectRootPath));
+        if (Files.notExists(inventoryFile)) {
+            return Optional.empty();
+        }
+
+        try (final var inputStream = Files.newInputStream(inventoryFile)) {
+            return Optional.of(parse(objectRootPath, inputStream));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read inventory " + inventoryFile, e);
+        }
+    }
+
+    /**
+     * Identify the current state of an ocfl object by its head version and the digest of its inventory. The digest
+     * is taken from the inventory sidecar, so only the head of the inventory is parsed.
+     *
+     * @param ocflObjectId the id of the ocfl object
+     * @throws RuntimeException if the inventory cannot be read
+     * @return the fingerprint, or empty if the object has no inventory
+     */
+    public Optional<String> fingerprint(final String ocflObjectId) {
+        final var inventoryFile = inventoryFile(ocflRoot.resolve(layout.mapObjectId(ocflObjectId)));
+        if (Files.notExists(inventoryFile)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of("v" + readHead(inventoryFile) + ":" + inventoryDigest(inventoryFile));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read inventory " + inventoryFile, e);
+        }
+    }
+
+    /**
+     * @param ocflObjectId the id of the ocfl object
+     * @return the path of the object root relative to the ocfl root
+     */
+    public String objectRootPath(final String ocflObjectId) {
+        return layout.mapObjectId(ocflObjectId);
+    }
+
+    /**
+     * @return the number of directories between the ocfl root and an object root, including the object root
+     */
+    public int objectRootDepth() {
+        return Path.of(layout.mapObjectId("depth")).getNameCount();
+    }
+
+    /**
+     * @param objectRoot the object root of an ocfl object
+     * @return the inventory of the mutable head if the object has one, otherwise the inventory of the object root
+     */
+    static Path inventoryFile(final Path objectRoot) {
+        final var mutableHead = objectRoot.resolve(MUTABLE_HEAD_INVENTORY);
+        return Files.exists(mutableHead) ? mutableHead : objectRoot.resolve(INVENTORY);
+    }
+
+    private int readHead(final Path inventoryFile) throws IOException {
+        try (final var parser = jsonFactory.createParser(inventoryFile.toFile())) {
+            expect(parser.nextToken(), START_OBJECT);
+            while (parser.nextToken() == FIELD_NAME) {
+                final var field = parser.currentName();
+                parser.nextToken();
+                if ("head".equals(field)) {
+                    return OcflInventory.parseVersion(parser.getText());
+                }
+                parser.skipChildren();
+            }
+        }
+        throw new IOException("Invalid inventory: no head in " + inventoryFile);
+    }
+
+    /**
+     * Read the digest of an inventory from its sidecar, e.g. inventory.json.sha512, or compute it if there is none
+     */
+    private static String inventoryDigest(final Path inventoryFile) throws IOException {
+        try (var siblings = Files.list(inventoryFile.getParent())) {
+            final var sidecar = siblings.filter(file -> file.getFileName().toString().startsWith(INVENTORY + "."))
+                                        .findFirst();
+            if (sidecar.isPresent()) {
+                return Files.readString(sidecar.get()).trim().split("\\s+", 2)[0];
+            }
+        }
+        try (var inputStream = Files.newInputStream(inventoryFile)) {
+            return DigestUtils.sha512Hex(inputStream);
+        }
+    }
+
+    /**
+     * Parse an inventory
+     *
+     * @param objectRootPath the path of the object root relative to the ocfl root
+     * @param inputStream the inventory json
+     * @return the inventory
+     * @throws IOException if the inventory cannot be parsed
+     */
+    public OcflInventory parse(final String objectRootPath, final InputStream inputStream) throws IOException {
+        String id = null;
+        String digestAlgorithm = null;
+        int head = 0;
+        final Map<String, String> manifest = new LinkedHashMap<>();
+        final TreeMap<Integer, TreeMap<String, String>> versions = new TreeMap<>();
+
+        try (final var parser = jsonFactory.createParser(inputStream)) {
+            expect(parser.nextToken(), START_OBJECT);
+            while (parser.nextToken() == FIELD_NAME) {
+                final var field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id":
+                        id = parser.getText();
+                        break;
+                    case "digestAlgorithm":
+                        digestAlgorithm = parser.getText();
+                        break;
+                    case "head":
+                        head = OcflInventory.parseVersion(parser.getText());
+                        break;
+                    case "manifest":
+                        // only the first content path of a digest is needed to locate the file on disk
+                        readDigestMap(parser, (digest, path) -> manifest.putIfAbsent(digest, path));
+                        break;
+                    case "versions":
+                        readVersions(parser, versions);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        return compact(id, objectRootPath, digestAlgorithm, head, manifest, versions);
+    }
+
+    private void readVersions(final JsonParser parser,
+                              final Map<Integer, TreeMap<String, String>> versions) throws IOException {
+        expect(parser.currentToken(), START_OBJECT);
+        while (parser.nextToken() == FIELD_NAME) {
+            final var versionNumber = OcflInventory.parseVersion(parser.currentName());
+            expect(parser.nextToken(), START_OBJECT);
+            while (parser.nextToken() == FIELD_NAME) {
+                final var field = parser.currentName();
+                parser.nextToken();
+                if ("state".equals(field)) {
+                    final var state = versions.computeIfAbsent(versionNumber, ignored -> new TreeMap<>());
+                    readDigestMap(parser, (digest, logicalPath) -> state.put(logicalPath, digest));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Read a json object of digest to an array of paths, e.g. a manifest or version state
+     */
+    private void readDigestMap(final JsonParser parser,
+                               final BiConsumer<String, String> consumer) throws IOException {
+        expect(parser.currentToken(), START_OBJECT);
+        while (parser.nextToken() == FIELD_NAME) {
+            final var digest = parser.currentName().toLowerCase();
+            expect(parser.nextToken(), START_ARRAY);
+            while (parser.nextToken() != END_ARRAY) {
+                consumer.accept(digest, parser.getText());
+            }
+        }
+    }
+
+    private OcflInventory compact(final String id,
+                                  final String objectRootPath,
+                                  final String digestAlgorithm,
+                                  final int head,
+                                  final Map<String, String> manifest,
+                                  final TreeMap<Integer, TreeMap<String, String>> versions) {
+        final var manifestDigests = new String[manifest.size()];
+        final var manifestPaths = new String[manifest.size()];
+        final var digestIndexes = new HashMap<String, Integer>(manifest.size() * 2);
+        var i = 0;
+        for (final var entry : manifest.entrySet()) {
+            manifestDigests[i] = entry.getKey();
+            manifestPaths[i] = entry.getValue();
+            digestIndexes.put(entry.getKey(), i);
+            i++;
+        }
+
+        final var versionCount = versions.isEmpty() ? 0 : Math.max(head, versions.lastKey());
+        final var logicalPaths = new String[versionCount][];
+        final var manifestIndexes = new int[versionCount][];
+        versions.forEach((versionNumber, state) -> {
+            final var paths = new String[state.size()];
+            final var indexes = new int[state.size()];
+            var j = 0;
+            // the state is a TreeMap so the paths are already sorted for binary searches
+            for (final var entry : state.entrySet()) {
+                paths[j] = entry.getKey();
+                indexes[j] = digestIndexes.getOrDefault(entry.getValue(), -1);
+                j++;
+            }
+            logicalPaths[versionNumber - 1] = paths;
+            manifestIndexes[versionNumber - 1] = indexes;
+        });
+
+        return new OcflInventory(id, objectRootPath, digestAlgorithm, head, manifestDigests, manifestPaths,
+                                 logicalPaths, manifestIndexes);
+    }
+
+    private static void expect(final JsonToken actual, final JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Invalid inventory: expected " + expected + " but found " + actual);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import io.ocfl.api.OcflRepository;
+import io.ocfl.api.model.ObjectVersionId;
+import io.ocfl.api.model.OcflObjectVersionFile;
+import org.fcrepo.migration.DatastreamVersion;
+import org.fcrepo.migration.validator.api.ObjectValidationConfig;
+import org.fcrepo.storage.ocfl.ResourceHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves the files of a single OCFL object on disk. The inventory of the object is read once with the
+ * {@link OcflInventoryReader} and reused for every resource and version of the object. If the inventory cannot be
+ * located or read this way, the full ocfl-java object model is used instead.
+ *
+ * @author mikejritter
+ */
+public class OcflTargetResolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OcflTargetResolver.class);
+
+    private final Path ocflRoot;
+    private final String ocflObjectId;
+    private final OcflRepository repository;
+    private final OcflInventoryReader inventoryReader;
+    private Optional<OcflInventory> inventory;
+
+    /**
+     * Constructor
+     *
+     * @param ocflObjectId the id of the ocfl object
+     * @param config the validation config
+     */
+    public OcflTargetResolver(final String ocflObjectId, final ObjectValidationConfig config) {
+        this.ocflObjectId = ocflObjectId;
+        this.ocflRoot = config.getOcflRoot();
+        this.repository = config.getOcflRepository();
+        this.inventoryReader = config.getInventoryReader();
+    }
+
+    /**
+     * @return the inventory of the object, if it could be read without the full object model
+     */
+    public synchronized Optional<OcflInventory> getInventory() {
+        if (inventory == null) {
+            try {
+                inventory = inventoryReader.read(ocflObjectId);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Unable to read inventory for {}, falling back to the OCFL object model",
+                            ocflObjectId, e);
+                inventory = Optional.empty();
+            }
+        }
+        return inventory;
+    }
+
+    /**
+     * Get the path of the content file for a resource
+     *
+     * @param versionNumber the ocfl version number, e.g. v1
+     * @param headers the headers of the resource at the given version
+     * @return the path of the content file, or empty if it does not exist in the version or the resource has no
+     *         content file, as with external and redirect datastreams
+     */
+    public Optional<Path> getContentPath(final String versionNumber, final ResourceHeaders headers) {
+        final var contentPath = headers.getContentPath();
+        if (contentPath == null) {
+            return Optional.empty();
+        }
+
+        final var storagePath = getInventory().map(inv -> inv.getStorageRelativePath(versionNumber, contentPath))
+                                              .orElseGet(() -> objectModelFile(versionNumber, contentPath)
+                                                  .map(OcflObjectVersionFile::getStorageRelativePath));
+        return storagePath.map(ocflRoot::resolve);
+    }
+
+    /**
+     * Get the digest the inventory records for the content file of a resource
+     *
+     * @param versionNumber the ocfl version number, e.g. v1
+     * @param headers the headers of the resource at the given version
+     * @return the digest, or empty if it is not recorded with a supported algorithm
+     */
+    public Optional<RecordedDigest> getInventoryDigest(final String versionNumber, final ResourceHeaders headers) {
+        return getInventory().flatMap(inv -> ChecksumAlgorithm.fromOcflName(inv.getDigestAlgorithm()).flatMap(
+            algorithm -> inv.getDigest(versionNumber, headers.getContentPath())
+                            .map(digest -> new RecordedDigest(RecordedDigest.INVENTORY, algorithm, digest))));
+    }
+
+    /**
+     * Collect every supported digest recorded for a datastream version: the Fedora 6 headers, the OCFL inventory, and
+     * the FOXML contentDigest
+     *
+     * @param dsVersion the Fedora 3 datastream version
+     * @param versionNumber the ocfl version number, e.g. v1
+     * @param headers the headers of the resource at the given version
+     * @return the recorded digests
+     */
+    public List<RecordedDigest> getRecordedDigests(final DatastreamVersion dsVersion,
+                                                   final String versionNumber,
+                                                   final ResourceHeaders headers) {
+        final var digests = RecordedDigest.fromHeaders(headers);
+        getInventoryDigest(versionNumber, headers).ifPresent(digests::add);
+        RecordedDigest.fromFoxml(dsVersion).ifPresent(digests::add);
+        return digests;
+    }
+
+    private Optional<OcflObjectVersionFile> objectModelFile(final String versionNumber, final String contentPath) {
+        final var objectVersion = repository.getObject(ObjectVersionId.version(ocflObjectId, versionNumber));
+        return Optional.ofNullable(objectVersion.getFile(contentPath));
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+/**
+ * Watches an OCFL root for objects whose inventory was created or updated.
+ *
+ * New objects are noticed through a WatchService registered on the storage layout directories above the object
+ * roots, as an object root is moved into place once its inventory is written. Object roots themselves are not
+ * registered, so updates to existing objects, and anything the WatchService misses or cannot register, are found by a
+ * periodic scan comparing the modified time of each inventory with the one last seen. A new layout directory is
+ * scanned on its own when it is registered, as objects may be added below it before it is watched. At most
+ * MAX_WATCHED_DIRECTORIES are watched, and no more once the watches of the system run out, e.g. inotify's
+ * max_user_watches; the directories which are not watched are left to the periodic scan.
+ *
+ * A changed object is only returned once it has been quiet for the quiet period, and only if its inventory differs
+ * from when it was last returned, so an object is returned once however many events it causes. As with
+ * {@link OcflInventoryReader}, the inventory of the mutable head of an object is used when it has one.
+ *
+ * The modified time of the inventory of every object in the ocfl root is kept, which is around 200 bytes per object.
+ *
+ * @author mikejritter
+ */
+public class OcflWatcher implements Closeable {
+
+    private static final Logger LOGGER = getLogger(OcflWatcher.class);
+
+    public static final long DEFAULT_QUIET_MILLIS = 5000;
+
+    private static final int MAX_WATCHED_DIRECTORIES = 8192;
+
+    private final Path ocflRoot;
+    private final int objectRootDepth;
+    private final long quietMillis;
+    private final long scanMillis;
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private final Map<Path, Long> pending = new HashMap<>();
+    private final Map<Path, FileTime> seen = new HashMap<>();
+    private WatchService watchService;
+    private boolean watchesExhausted;
+    private long nextScan;
+
+    /**
+     * Constructor
+     *
+     * @param ocflRoot the ocfl root directory
+     * @param objectRootDepth the number of directories between the ocfl root and an object root
+     * @param quietMillis the time an object must be unchanged before it is returned
+     * @param scanMillis the interval between scans of the ocfl root
+     */
+    public OcflWatcher(final Path ocflRoot, final int objectRootDepth, final long quietMillis,
+                       final long scanMillis) {
+        this.ocflRoot = ocflRoot;
+        this.objectRootDepth = objectRootDepth;
+        this.quietMillis = quietMillis;
+        this.scanMillis = scanMillis;
+    }
+
+    /**
+     * Start watching the ocfl root. Objects which already exist are returned by the first poll.
+     */
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            register(ocflRoot);
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.warn("Unable to watch {}, relying on scans every {}ms", ocflRoot, scanMillis, e);
+        }
+        nextScan = 0;
+    }
+
+    /**
+     * Wait for objects to change
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return the object roots, relative to the ocfl root, of the changed objects, or empty if none changed in time
+     * @throws InterruptedException on interrupt
+     */
+    public Set<Path> poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final var deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+        while (true) {
+            var now = System.currentTimeMillis();
+            if (now >= nextScan) {
+                scan(now);
+                nextScan = now + scanMillis;
+            }
+
+            final var ready = ready(now);
+            if (!ready.isEmpty() || now >= deadline) {
+                return ready;
+            }
+
+            final var wait = Math.max(1, Math.min(deadline, Math.min(nextScan, now + quietMillis)) - now);
+            if (watchService == null) {
+                Thread.sleep(wait);
+                continue;
+            }
+
+            var key = watchService.poll(wait, TimeUnit.MILLISECONDS);
+            while (key != null) {
+                process(key);
+                key = watchService.poll();
+            }
+        }
+    }
+
+    private void process(final WatchKey key) {
+        final var directory = keys.get(key);
+        for (final var event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                LOGGER.debug("Missed events in {}, scanning", directory);
+                nextScan = 0;
+                continue;
+            }
+
+            final var child = directory.resolve((Path) event.context());
+            if (depth(child) == objectRootDepth) {
+                pending.put(ocflRoot.relativize(child), System.currentTimeMillis());
+            } else if (Files.isDirectory(child)) {
+                // objects may be added below the directory before it is registered
+                register(child);
+                scanNew(child);
+            }
+        }
+        if (!key.reset()) {
+            keys.remove(key);
+        }
+    }
+
+    private void register(final Path directory) {
+        if (depth(directory) >= objectRootDepth) {
+            return;
+        } else if (watchesExhausted || keys.size() >= MAX_WATCHED_DIRECTORIES) {
+            LOGGER.debug("Not watching {}, it will be scanned", directory);
+            return;
+        }
+
+        try {
+            keys.put(directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), directory);
+            try (var children = Files.list(directory)) {
+                children.filter(Files::isDirectory).forEach(this::register);
+            }
+        } catch (NoSuchFileException e) {
+            LOGGER.debug("{} was removed before it was watched", directory);
+        } catch (IOException e) {
+            // most likely the watches of the system ran out, so stop registering directories
+            watchesExhausted = true;
+            LOGGER.warn("Unable to watch {} after watching {} directories, the directories which are not watched " +
+                        "will be found by scans every {}ms: {}", directory, keys.size(), scanMillis, e.getMessage());
+        }
+    }
+
+    /**
+     * Find the object roots below a new directory, which may have been added before the directory was registered.
+     * The objects are returned once their inventory is written.
+     */
+    private void scanNew(final Path directory) {
+        final var now = System.currentTimeMillis();
+        try (var paths = Files.walk(directory, objectRootDepth - depth(directory))) {
+            paths.filter(path -> depth(path) == objectRootDepth)
+                 .forEach(objectRoot -> pending.putIfAbsent(ocflRoot.relativize(objectRoot), now));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Failed to scan {}, it is left to the next scan", directory, e);
+        }
+    }
+
+    private void scan(final long now) {
+        LOGGER.debug("Scanning {} for changed inventories", ocflRoot);
+        try (var paths = Files.walk(ocflRoot, objectRootDepth)) {
+            paths.filter(path -> depth(path) == objectRootDepth)
+                 .forEach(objectRoot -> {
+                     final var relative = ocflRoot.relativize(objectRoot);
+                     final var modified = modified(objectRoot);
+                     if (modified != null && !modified.equals(seen.get(relative))) {
+                         pending.putIfAbsent(relative, now);
+                     }
+                 });
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to scan {}", ocflRoot, e);
+        }
+    }
+
+    private Set<Path> ready(final long now) {
+        final var ready = new LinkedHashSet<Path>();
+        final var it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            final var entry = it.next();
+            if (now - entry.getValue() < quietMillis) {
+                continue;
+            }
+
+            final var modified = modified(ocflRoot.resolve(entry.getKey()));
+            if (modified == null) {
+                // the inventory has not been written yet
+                continue;
+            }
+            it.remove();
+            if (!modified.equals(seen.put(entry.getKey(), modified))) {
+                ready.add(entry.getKey());
+            }
+        }
+        return ready;
+    }
+
+    private static FileTime modified(final Path objectRoot) {
+        try {
+            return Files.getLastModifiedTime(OcflInventoryReader.inventoryFile(objectRoot));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private int depth(final Path path) {
+        return ocflRoot.relativize(path).getNameCount() - (path.equals(ocflRoot) ? 1 : 0);
+    }
+
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close the watch service", e);
+            }
+        }
+    }
+}
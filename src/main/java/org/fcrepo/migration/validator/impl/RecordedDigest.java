@@ -0,0 +1,88 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.fcrepo.migration.DatastreamVersion;
+import org.fcrepo.storage.ocfl.ResourceHeaders;
+
+/**
+ * A digest of a datastream which has been recorded by one of the repositories, e.g. in the Fedora 6 headers
+ *
+ * @author mikejritter
+ */
+public class RecordedDigest {
+
+    public static final String HEADERS = "Fedora 6 headers";
+    public static final String INVENTORY = "OCFL inventory";
+    public static final String FOXML = "FOXML contentDigest";
+
+    private final String location;
+    private final ChecksumAlgorithm algorithm;
+    private final String value;
+
+    /**
+     * Constructor
+     *
+     * @param location where the digest was recorded
+     * @param algorithm the algorithm of the digest
+     * @param value the hex value of the digest
+     */
+    public RecordedDigest(final String location, final ChecksumAlgorithm algorithm, final String value) {
+        this.location = location;
+        this.algorithm = algorithm;
+        this.value = value.toLowerCase();
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public ChecksumAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Read the supported digests from Fedora 6 headers. Digests are stored as urn:algorithm:hash.
+     *
+     * @param headers the headers
+     * @return the digests
+     */
+    public static List<RecordedDigest> fromHeaders(final ResourceHeaders headers) {
+        final var digests = new ArrayList<RecordedDigest>();
+        if (headers.getDigests() != null) {
+            for (final URI uri : headers.getDigests()) {
+                final var urn = uri.toString();
+                ChecksumAlgorithm.fromUrn(urn).ifPresent(algorithm -> digests.add(
+                    new RecordedDigest(HEADERS, algorithm, urn.substring(urn.lastIndexOf(":") + 1))));
+            }
+        }
+        return digests;
+    }
+
+    /**
+     * Read the FOXML contentDigest of a datastream version. Fedora 3 writes an empty digest when checksums are
+     * disabled, so those are skipped.
+     *
+     * @param dsVersion the datastream version
+     * @return the digest, if one was recorded with a supported algorithm
+     */
+    public static Optional<RecordedDigest> fromFoxml(final DatastreamVersion dsVersion) {
+        return Optional.ofNullable(dsVersion.getContentDigest())
+                       .filter(digest -> digest.getDigest() != null && !digest.getDigest().isBlank())
+                       .flatMap(digest -> ChecksumAlgorithm.fromFoxmlType(digest.getType())
+                                                           .map(algorithm -> new RecordedDigest(FOXML, algorithm,
+                                                                                                digest.getDigest())));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * How the blocks of binary result segments are compressed. The ordinal is stored in the header of each segment, so
+ * new codecs must only be appended.
+ *
+ * @author mikejritter
+ */
+public enum ResultCompression {
+    none {
+        @Override
+        public OutputStream compress(final OutputStream out) {
+            return out;
+        }
+
+        @Override
+        public InputStream decompress(final InputStream in) {
+            return in;
+        }
+    },
+    gzip {
+        @Override
+        public OutputStream compress(final OutputStream out) throws IOException {
+            return new GZIPOutputStream(out);
+        }
+
+        @Override
+        public InputStream decompress(final InputStream in) throws IOException {
+            return new GZIPInputStream(in);
+        }
+    };
+
+    /**
+     * @param out the stream to write compressed bytes to
+     * @return a stream which compresses what is written to it, and finishes the compressed data when closed
+     * @throws IOException if the stream cannot be created
+     */
+    public abstract OutputStream compress(final OutputStream out) throws IOException;
+
+    /**
+     * @param in the stream of compressed bytes
+     * @return a stream of the decompressed bytes
+     * @throws IOException if the stream cannot be created
+     */
+    public abstract InputStream decompress(final InputStream in) throws IOException;
+}
@@ -0,0 +1,16 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+/**
+ * How validation results are written. In json mode each result is its own file, in binary mode results are appended
+ * to segment files with the compact encoding of {@link BinaryResultCodec}.
+ *
+ * @author mikejritter
+ */
+public enum ResultFormat {
+    json, binary
+}
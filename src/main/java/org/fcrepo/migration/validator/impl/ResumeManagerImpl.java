@@ -5,10 +5,12 @@
  */
 package org.fcrepo.migration.validator.impl;
 
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListSet;
 
@@ -53,12 +55,20 @@ private void loadResumeFile() throws IOException {
         }
     }
 
+    /**
+     * Write the processed PIDs to a temporary file which then replaces the resume file, so that a run stopped while
+     * the file is written leaves the previous resume file in place
+     */
     public void updateResumeFile() {
         final String lineSeparator = System.lineSeparator();
-        try (var writer = Files.newBufferedWriter(resumeFile, StandardOpenOption.TRUNCATE_EXISTING)) {
-            for (String pid : processedPids) {
-                writer.write(pid + lineSeparator);
+        final var updated = resumeFile.resolveSibling(resumeFile.getFileName() + ".tmp");
+        try {
+            try (var writer = Files.newBufferedWriter(updated)) {
+                for (String pid : processedPids) {
+                    writer.write(pid + lineSeparator);
+                }
             }
+            Files.move(updated, resumeFile, ATOMIC_MOVE, REPLACE_EXISTING);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,18 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+/**
+ * The order in which objects are dispatched for validation. In source mode objects are dispatched in the order the
+ * object source enumerates them. In longest mode the source is pre-scanned, the most expensive objects (as estimated
+ * by {@link ObjectCostEstimator}) are dispatched first from largest to smallest, and the rest follow in source order so
+ * that large objects do not finish long after everything else.
+ *
+ * @author mikejritter
+ */
+public enum ScheduleMode {
+    source, longest
+}
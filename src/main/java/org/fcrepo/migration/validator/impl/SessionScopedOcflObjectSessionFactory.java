@@ -0,0 +1,93 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ocfl.api.MutableOcflRepository;
+import org.fcrepo.storage.ocfl.CommitType;
+import org.fcrepo.storage.ocfl.DefaultOcflObjectSessionFactory;
+import org.fcrepo.storage.ocfl.OcflObjectSession;
+import org.fcrepo.storage.ocfl.OcflObjectSessionFactory;
+import org.fcrepo.storage.ocfl.ResourceHeaders;
+import org.fcrepo.storage.ocfl.cache.Cache;
+
+/**
+ * An OcflObjectSessionFactory which gives each session its own headers cache. The headers read while validating an
+ * object are never needed by another object, so scoping the cache to the session keeps one large object from
+ * evicting the entries of every other object in flight. The root id cache is still shared between all sessions.
+ *
+ * @author mikejritter
+ */
+public class SessionScopedOcflObjectSessionFactory implements OcflObjectSessionFactory {
+
+    private final MutableOcflRepository repository;
+    private final Path workDirectory;
+    private final ObjectMapper objectMapper;
+    private final Supplier<Cache<String, ResourceHeaders>> headersCacheSupplier;
+    private final Cache<String, String> rootIdCache;
+    private final CommitType commitType;
+    private final String versionMessage;
+    private final String versionUserName;
+    private final String versionUserAddress;
+    private boolean useUnsafeWrite;
+
+    /**
+     * Constructor
+     *
+     * @param repository the ocfl repository
+     * @param workDirectory the staging directory for sessions
+     * @param objectMapper the object mapper for reading headers
+     * @param headersCacheSupplier supplies a new headers cache for each session
+     * @param rootIdCache the shared root id cache
+     * @param commitType the default commit type
+     * @param versionMessage the default version message
+     * @param versionUserName the default version user name
+     * @param versionUserAddress the default version user address
+     */
+    public SessionScopedOcflObjectSessionFactory(final MutableOcflRepository repository,
+                                                 final Path workDirectory,
+                                                 final ObjectMapper objectMapper,
+                                                 final Supplier<Cache<String, ResourceHeaders>> headersCacheSupplier,
+                                                 final Cache<String, String> rootIdCache,
+                                                 final CommitType commitType,
+                                                 final String versionMessage,
+                                                 final String versionUserName,
+                                                 final String versionUserAddress) {
+        this.repository = repository;
+        this.workDirectory = workDirectory;
+        this.objectMapper = objectMapper;
+        this.headersCacheSupplier = headersCacheSupplier;
+        this.rootIdCache = rootIdCache;
+        this.commitType = commitType;
+        this.versionMessage = versionMessage;
+        this.versionUserName = versionUserName;
+        this.versionUserAddress = versionUserAddress;
+    }
+
+    @Override
+    public OcflObjectSession newSession(final String ocflObjectId) {
+        // the delegate is never closed as that would close the shared repository
+        final var delegate = new DefaultOcflObjectSessionFactory(repository, workDirectory, objectMapper,
+                                                                 headersCacheSupplier.get(), rootIdCache,
+                                                                 commitType, versionMessage, versionUserName,
+                                                                 versionUserAddress);
+        delegate.useUnsafeWrite(useUnsafeWrite);
+        return delegate.newSession(ocflObjectId);
+    }
+
+    @Override
+    public void close() {
+        repository.close();
+    }
+
+    @Override
+    public void useUnsafeWrite(final boolean useUnsafeWrite) {
+        this.useUnsafeWrite = useUnsafeWrite;
+    }
+}
@@ -18,7 +18,6 @@
 import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.SOURCE_OBJECT_RESOURCE_EXISTS_IN_TARGET;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -27,14 +26,16 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import com.google.common.collect.Sets;
-import io.ocfl.api.OcflRepository;
-import io.ocfl.api.model.ObjectVersionId;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
+import org.fcrepo.migration.DatastreamVersion;
 import org.fcrepo.migration.ObjectInfo;
 import org.fcrepo.migration.ObjectProperties;
 import org.fcrepo.migration.ObjectReference;
@@ -42,6 +43,8 @@
 import org.fcrepo.migration.validator.api.ObjectValidationConfig;
 import org.fcrepo.migration.validator.api.ValidationHandler;
 import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.api.ValidationResultSink;
+import org.fcrepo.migration.validator.impl.DatastreamPartitions.Partition;
 import org.fcrepo.storage.ocfl.OcflObjectSession;
 import org.fcrepo.storage.ocfl.OcflVersionInfo;
 import org.fcrepo.storage.ocfl.ResourceHeaders;
@@ -57,17 +60,25 @@
 public class ValidatingObjectHandler implements ValidationHandler {
     private static final Logger LOGGER = getLogger(ValidatingObjectHandler.class);
 
+    /**
+     * The fewest datastreams validated by a partition, so that only large objects are split
+     */
+    static final int MIN_PARTITION_SIZE = 64;
+
     private F3State objectState;
     private ObjectInfo objectInfo;
     private final boolean checksum;
     private final boolean deleteInactive;
-    private final Path ocflRoot;
-    private final OcflRepository repository;
     private final OcflObjectSession ocflSession;
+    private final Supplier<OcflObjectSession> sessionSupplier;
+    private final OcflTargetResolver targetResolver;
     private final List<ValidationResult> validationResults = new ArrayList<>();
+    private final ValidationResultSink resultSink;
     private final AtomicInteger index;
-    private final Set<String> headDatastreamIds = new HashSet<>();
-    private final F6DigestAlgorithm digestAlgorithm;
+    private final Set<String> headDatastreamIds = ConcurrentHashMap.newKeySet();
+    private final ObjectValidationConfig config;
+    private final int datastreamThreads;
+    private final Executor datastreamExecutor;
 
     // track changes from RELS-INT
     private final Map<String, List<String>> relsFilenames = new HashMap<>();
@@ -82,7 +93,7 @@ public void processObjectVersions(final Iterable<ObjectVersionReference> iterabl
             LOGGER.debug("beginning processing on object: pid={}", objectInfo);
             if (initialObjectValidation(objectReference.getObjectProperties())) {
                 preprocessRelsInt(objectReference);
-                objectReference.listDatastreamIds().forEach(dsId -> validateDatastream(dsId, objectReference));
+                validateDatastreams(objectReference);
                 completeObjectValidation();
             }
         }
@@ -134,19 +145,90 @@ private void preprocessRelsInt(final ObjectReference objectReference) {
     }
 
     /**
-     * Constructor
+     * Constructor for a handler which validates all datastreams of an object with one session
      *
      * @param session
      * @param config
      */
     public ValidatingObjectHandler(final OcflObjectSession session, final ObjectValidationConfig config) {
+        this(session, null, null, config);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param session the session used for object level validations
+     * @param sessionSupplier opens a new session to the same object for each partition of datastreams validated in
+     *                        parallel, or null to validate all datastreams with the given session
+     * @param resultSink receives each result as it is produced, or null to collect the results in a list
+     * @param config the validation config
+     */
+    public ValidatingObjectHandler(final OcflObjectSession session,
+                                   final Supplier<OcflObjectSession> sessionSupplier,
+                                   final ValidationResultSink resultSink,
+                                   final ObjectValidationConfig config) {
         this.ocflSession = session;
+        this.sessionSupplier = sessionSupplier;
+        this.resultSink = resultSink != null ? resultSink : validationResults::add;
         this.index = new AtomicInteger();
         this.checksum = config.isChecksum();
-        this.ocflRoot = config.getOcflRoot();
-        this.repository = config.getOcflRepository();
+        this.targetResolver = new OcflTargetResolver(session.ocflObjectId(), config);
         this.deleteInactive = config.deleteInactive();
-        this.digestAlgorithm = config.getDigestAlgorithm();
+        this.config = config;
+        this.datastreamThreads = sessionSupplier == null ? 0 : config.getDatastreamThreads();
+        this.datastreamExecutor = config.getDatastreamExecutor();
+    }
+
+    @Override
+    public ChecksumCache checksumCache() {
+        return config.getChecksumCache();
+    }
+
+    @Override
+    public ChecksumMode checksumMode() {
+        return config.getChecksumMode();
+    }
+
+    @Override
+    public F6DigestAlgorithm digestAlgorithm() {
+        return config.getDigestAlgorithm();
+    }
+
+    @Override
+    public CompareMode compareMode() {
+        return config.getCompareMode();
+    }
+
+    @Override
+    public boolean verifyTarget() {
+        return config.isVerifyTarget();
+    }
+
+    @Override
+    public Executor targetExecutor() {
+        return config.getTargetExecutor();
+    }
+
+    @Override
+    public List<RecordedDigest> recordedDigests(final DatastreamVersion dsVersion,
+                                                final String versionNumber,
+                                                final ResourceHeaders headers) {
+        return targetResolver.getRecordedDigests(dsVersion, versionNumber, headers);
+    }
+
+    @Override
+    public IoThrottle sourceThrottle() {
+        return config.getSourceThrottle();
+    }
+
+    @Override
+    public IoThrottle targetThrottle() {
+        return config.getTargetThrottle();
+    }
+
+    @Override
+    public IoLanes ioLanes() {
+        return config.getIoLanes();
     }
 
     /**
@@ -178,11 +260,11 @@ private boolean initialObjectValidation(final ObjectProperties objectProperties)
                        .getContentStream()
                        .ifPresent(is -> RDFDataMgr.read(model, is, RDFFormat.NTRIPLES.getLang()));
 
-            validationResults.add(builder.ok(SOURCE_OBJECT_EXISTS_IN_TARGET,
-                                             "Source object is present in target repository."));
+            resultSink.accept(builder.ok(SOURCE_OBJECT_EXISTS_IN_TARGET,
+                                         "Source object is present in target repository."));
         } catch (NotFoundException ex) {
-            validationResults.add(builder.fail(SOURCE_OBJECT_EXISTS_IN_TARGET,
-                                               "Source object is not present in target repository."));
+            resultSink.accept(builder.fail(SOURCE_OBJECT_EXISTS_IN_TARGET,
+                                           "Source object is not present in target repository."));
             return false;
         }
 
@@ -202,29 +284,54 @@ private boolean initialObjectValidation(final ObjectProperties objectProperties)
             // if an object is deleted, only validate that the deleted flag is set
             final ValidationResult deletedResult;
             if (headers.isDeleted()) {
-                deletedResult = builder.ok(SOURCE_OBJECT_DELETED, format(success, pid, objectState, true));
+                deletedResult = builder.ok(SOURCE_OBJECT_DELETED, success, pid, objectState, true);
             } else {
-                deletedResult = builder.fail(SOURCE_OBJECT_DELETED, format(error, pid, objectState, false));
+                deletedResult = builder.fail(SOURCE_OBJECT_DELETED, error, pid, objectState, false);
             }
 
-            validationResults.add(deletedResult);
+            resultSink.accept(deletedResult);
         } else {
             properties.forEach(op -> validateObjectProperty(ocflId, objectInfo, op, headers, model, builder)
-                .ifPresent(validationResults::add));
+                .ifPresent(resultSink::accept));
         }
 
         return true;
     }
 
+    /**
+     * Validate the datastreams of an object. Large objects are split into contiguous partitions of datastreams which
+     * are validated in parallel, each with its own session, see {@link DatastreamPartitions}.
+     */
+    private void validateDatastreams(final ObjectReference objectReference) {
+        final var dsIds = objectReference.listDatastreamIds();
+        final var partitionCount = Math.min(datastreamThreads, dsIds.size() / MIN_PARTITION_SIZE);
+        if (partitionCount <= 1) {
+            dsIds.forEach(dsId -> validateDatastream(dsId, objectReference));
+            return;
+        }
+
+        new DatastreamPartitions(datastreamExecutor).validate(
+            dsIds, partitionCount, new Partition(ocflSession, resultSink, index), sessionSupplier,
+            (dsId, partition) -> validateDatastream(dsId, objectReference, partition));
+    }
+
     public void validateDatastream(final String dsId, final ObjectReference objectReference) {
+        validateDatastream(dsId, objectReference, new Partition(ocflSession, resultSink, index));
+    }
+
+    private void validateDatastream(final String dsId,
+                                    final ObjectReference objectReference,
+                                    final Partition partition) {
+        final var session = partition.session();
+        final var results = partition.sink();
         final var dsVersions = objectReference.getDatastreamVersions(dsId);
         final var sourceObjectId = objectInfo.getPid();
-        final var targetObjectId = ocflSession.ocflObjectId();
+        final var targetObjectId = session.ocflObjectId();
         final var sourceResource = sourceObjectId + "/" + dsId;
         final var targetResource = targetObjectId + "/" + dsId;
-        final var targetVersions = ocflSession.listVersions(targetResource);
+        final var targetVersions = session.listVersions(targetResource);
         final var builder = new ValidationResultBuilder(sourceObjectId, targetObjectId, sourceResource, targetResource,
-                                                        OBJECT_RESOURCE, index);
+                                                        OBJECT_RESOURCE, partition.index());
 
         var sourceVersionCount = 0;
         var sourceDeletedCount = 0;
@@ -232,7 +339,7 @@ public void validateDatastream(final String dsId, final ObjectReference objectRe
 
         final var downloadFilenames = Optional.ofNullable(relsFilenames.get(sourceResource));
         final int softVersionCount =
-            downloadFilenames.map(filenames -> searchSoftVersions(sourceResource, targetVersions, filenames))
+            downloadFilenames.map(filenames -> searchSoftVersions(session, sourceResource, targetVersions, filenames))
                              .orElse(0);
 
         for (final var dsVersion : dsVersions) {
@@ -259,24 +366,20 @@ public void validateDatastream(final String dsId, final ObjectReference objectRe
 
             try {
                 final var ocflVersionInfo = targetVersions.get(currentVersion + sourceDeletedCount);
-                final var objectVersionId = ObjectVersionId.version(ocflVersionInfo.getOcflObjectId(),
-                                                                    ocflVersionInfo.getVersionNumber());
-                final var headers = ocflSession.readHeaders(targetResource, ocflVersionInfo.getVersionNumber());
-                final var ocflObject = repository.getObject(objectVersionId);
-
-                validateSizeMeta(dsVersion, headers, version, builder).ifPresent(validationResults::add);
-                validateSizeOnDisk(dsVersion, ocflRoot, headers, ocflObject, version, builder)
-                    .ifPresent(validationResults::add);
-                validateCreatedDate(sourceCreated, headers, version, builder).ifPresent(validationResults::add);
-                validateLastModified(dsVersion, headers, version, builder).ifPresent(validationResults::add);
+                final var headers = session.readHeaders(targetResource, ocflVersionInfo.getVersionNumber());
+                final var targetFile = targetResolver.getContentPath(ocflVersionInfo.getVersionNumber(), headers);
+
+                validateSizeMeta(dsVersion, headers, version, builder).ifPresent(results::accept);
+                validateSizeOnDisk(dsVersion, targetFile, version, builder).ifPresent(results::accept);
+                validateCreatedDate(sourceCreated, headers, version, builder).ifPresent(results::accept);
+                validateLastModified(dsVersion, headers, version, builder).ifPresent(results::accept);
                 if (checksum) {
-                    validateChecksum(dsVersion, headers, digestAlgorithm, version, builder)
-                        .ifPresent(validationResults::add);
+                    validateChecksumMode(dsVersion, ocflVersionInfo.getVersionNumber(), headers, targetFile, version,
+                                         builder).forEach(results::accept);
                 }
             } catch (NotFoundException | IndexOutOfBoundsException ex) {
                 final var error = "Source object resource does not exist in target for source version=%d";
-                validationResults.add(builder.fail(SOURCE_OBJECT_RESOURCE_EXISTS_IN_TARGET,
-                                                   format(error, currentVersion)));
+                results.accept(builder.fail(SOURCE_OBJECT_RESOURCE_EXISTS_IN_TARGET, error, currentVersion));
             }
 
             // check if we need to handle a delete as well
@@ -284,7 +387,7 @@ public void validateDatastream(final String dsId, final ObjectReference objectRe
             if (state.isDeleted(deleteInactive) || (isHead && objectState.isDeleted(deleteInactive))) {
                 sourceDeletedCount++;
                 headDatastreamIds.remove(dsId);
-                validateDeleted(targetResource, currentVersion, targetVersions, builder);
+                validateDeleted(partition, targetResource, currentVersion, targetVersions, builder);
             }
 
             sourceVersionCount++;
@@ -295,23 +398,25 @@ public void validateDatastream(final String dsId, final ObjectReference objectRe
         final var f3VersionCount = sourceVersionCount + softVersionCount;
         final var targetVersionCount = targetVersions.size() - sourceDeletedCount;
         if (f3VersionCount == targetVersionCount) {
-            final var details = format(versionSuccess, sourceVersionCount, softVersionCount, targetVersionCount);
-            validationResults.add(builder.ok(BINARY_VERSION_COUNT, details));
+            results.accept(builder.ok(BINARY_VERSION_COUNT, versionSuccess, sourceVersionCount, softVersionCount,
+                                      targetVersionCount));
         } else {
-            final var details = format(versionFailure, sourceVersionCount, softVersionCount, targetVersionCount);
-            validationResults.add(builder.fail(BINARY_VERSION_COUNT, details));
+            results.accept(builder.fail(BINARY_VERSION_COUNT, versionFailure, sourceVersionCount, softVersionCount,
+                                        targetVersionCount));
         }
     }
 
     /**
      * Search for filename updates from RELS-INT metadata changes
      *
+     * @param session the session of the OCFL object
      * @param sourceResource the name of the resource
      * @param targetVersions the OCFL versions
      * @param filenames the filename changes from RELS-INT data
      * @return the number of additional version to expect from updated filenames
      */
-    private int searchSoftVersions(final String sourceResource,
+    private int searchSoftVersions(final OcflObjectSession session,
+                                   final String sourceResource,
                                    final List<OcflVersionInfo> targetVersions,
                                    final List<String> filenames) {
         int transitions = 0;
@@ -321,8 +426,7 @@ private int searchSoftVersions(final String sourceResource,
             }
 
             final var f3Filename = filenames.remove(0);
-            final var headers = ocflSession.readHeaders(targetVersion.getResourceId(),
-                                                        targetVersion.getVersionNumber());
+            final var headers = session.readHeaders(targetVersion.getResourceId(), targetVersion.getVersionNumber());
             if (!f3Filename.equals(headers.getFilename())) {
                 LOGGER.debug("{} has filename update {} -> {}", sourceResource, headers.getFilename(), f3Filename);
                 transitions++;
@@ -332,7 +436,8 @@ private int searchSoftVersions(final String sourceResource,
         return transitions;
     }
 
-    private void validateDeleted(final String resource,
+    private void validateDeleted(final Partition partition,
+                                 final String resource,
                                  final int sourceVersionCount,
                                  final List<OcflVersionInfo> versions,
                                  final ValidationResultBuilder builder) {
@@ -343,14 +448,14 @@ private void validateDeleted(final String resource,
         try {
             // ocfl creates a new version for deletes, so we need to get the next highest version
             final var versionInfo = versions.get(sourceVersionCount + 1);
-            final var headers = ocflSession.readHeaders(resource, versionInfo.getVersionNumber());
+            final var headers = partition.session().readHeaders(resource, versionInfo.getVersionNumber());
             if (headers.isDeleted()) {
-                validationResults.add(builder.ok(SOURCE_OBJECT_RESOURCE_DELETED, format(success, version)));
+                partition.sink().accept(builder.ok(SOURCE_OBJECT_RESOURCE_DELETED, success, version));
             } else  {
-                validationResults.add(builder.fail(SOURCE_OBJECT_RESOURCE_DELETED, format(failure, version)));
+                partition.sink().accept(builder.fail(SOURCE_OBJECT_RESOURCE_DELETED, failure, version));
             }
         } catch (NotFoundException | IndexOutOfBoundsException ex) {
-            validationResults.add(builder.fail(SOURCE_OBJECT_RESOURCE_DELETED, format(error, version)));
+            partition.sink().accept(builder.fail(SOURCE_OBJECT_RESOURCE_DELETED, error, version));
         }
     }
 
@@ -370,8 +475,7 @@ private void completeObjectValidation() {
                     headDatastreamIds.size(), ocflResourceCount);
         }
 
-        validationResults.add(new ValidationResult(index.getAndIncrement(), result, OBJECT, BINARY_HEAD_COUNT, pid,
+        resultSink.accept(new ValidationResult(index.getAndIncrement(), result, OBJECT, BINARY_HEAD_COUNT, pid,
             ocflId, details));
     }
-
 }
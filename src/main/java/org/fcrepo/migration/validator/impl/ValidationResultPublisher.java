@@ -0,0 +1,201 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.OK;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.api.ValidationResultWriter;
+import org.slf4j.Logger;
+
+/**
+ * Runs a validation in the calling JVM and publishes each result to a subscriber as it is produced, for embedding the
+ * validator without the command line or the json results.
+ *
+ * The run starts when the publisher is subscribed to, and each publisher runs once for a single subscriber. Results
+ * are buffered up to the buffer capacity, after which the validation threads wait for the subscriber to request more,
+ * so a slow subscriber slows the run rather than filling the heap. Cancelling the subscription cancels the run: no
+ * more objects are validated and the results of the objects being validated are dropped. As with any subscription,
+ * the subscriber is not signalled again after it cancels; {@link #getStopped()} completes once the run has stopped.
+ *
+ * The subscriber is completed once the run is complete, or signalled an error if a validation task failed. Nothing
+ * is written to the results directory: the run validates every object of the source without a resume file, and the
+ * failed object and fingerprint indexes are only read.
+ *
+ * @author mikejritter
+ */
+public class ValidationResultPublisher implements Flow.Publisher<ValidationResult> {
+
+    private static final Logger LOGGER = getLogger(ValidationResultPublisher.class);
+
+    private final Fedora3ValidationConfig config;
+    private final int bufferCapacity;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private volatile Fedora3ValidationExecutionManager manager;
+    private volatile boolean cancelled;
+    private final CompletableFuture<Void> stopped = new CompletableFuture<>();
+
+    /**
+     * Constructor
+     *
+     * @param config the config of the run
+     */
+    public ValidationResultPublisher(final Fedora3ValidationConfig config) {
+        this(config, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param config the config of the run
+     * @param bufferCapacity the maximum number of results buffered for the subscriber
+     */
+    public ValidationResultPublisher(final Fedora3ValidationConfig config, final int bufferCapacity) {
+        this.config = config;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super ValidationResult> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(final long n) {
+                    // nothing is published
+                }
+
+                @Override
+                public void cancel() {
+                    // nothing is published
+                }
+            });
+            subscriber.onError(new IllegalStateException("A validation run can only be subscribed to once"));
+            return;
+        }
+
+        final var publisher = new SubmissionPublisher<ValidationResult>(ForkJoinPool.commonPool(), bufferCapacity);
+        publisher.subscribe(new CancellingSubscriber(subscriber));
+
+        final var thread = new Thread(() -> run(publisher), "validation-publisher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return a future which completes once the run has stopped, whether it completed or was cancelled, or completes
+     *         exceptionally if the run failed
+     */
+    public CompletableFuture<Void> getStopped() {
+        return stopped.copy();
+    }
+
+    private void run(final SubmissionPublisher<ValidationResult> publisher) {
+        try {
+            final var writer = new PublishingWriter(publisher, config.isFailureOnly());
+            final var helper = new ApplicationConfigurationHelper(config);
+            helper.newTransientRun();
+            final var run = new Fedora3ValidationExecutionManager(helper, writer, true);
+            manager = run;
+            if (cancelled) {
+                run.cancel();
+            }
+
+            if (run.doValidation() || cancelled) {
+                publisher.close();
+                stopped.complete(null);
+            } else {
+                final var failure = new RuntimeException("A validation task failed, see the log");
+                publisher.closeExceptionally(failure);
+                stopped.completeExceptionally(failure);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Validation run failed", e);
+            publisher.closeExceptionally(e);
+            stopped.completeExceptionally(e);
+        }
+    }
+
+    private void cancel() {
+        cancelled = true;
+        final var run = manager;
+        if (run != null) {
+            run.cancel();
+        }
+    }
+
+    /**
+     * Submits each result to the publisher, waiting while the buffer of the subscriber is full. Once the subscription
+     * is cancelled the publisher has no subscribers and results are dropped.
+     */
+    private static class PublishingWriter implements ValidationResultWriter {
+        private final SubmissionPublisher<ValidationResult> publisher;
+        private final boolean failureOnly;
+
+        PublishingWriter(final SubmissionPublisher<ValidationResult> publisher, final boolean failureOnly) {
+            this.publisher = publisher;
+            this.failureOnly = failureOnly;
+        }
+
+        @Override
+        public void write(final List<ValidationResult> results) {
+            for (final var result : results) {
+                if (!(failureOnly && result.getStatus() == OK)) {
+                    publisher.submit(result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes each signal to the subscriber, cancelling the run when the subscriber cancels its subscription
+     */
+    private class CancellingSubscriber implements Flow.Subscriber<ValidationResult> {
+        private final Flow.Subscriber<? super ValidationResult> subscriber;
+
+        CancellingSubscriber(final Flow.Subscriber<? super ValidationResult> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(final long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    subscription.cancel();
+                    ValidationResultPublisher.this.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(final ValidationResult result) {
+            subscriber.onNext(result);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onComplete();
+        }
+    }
+}
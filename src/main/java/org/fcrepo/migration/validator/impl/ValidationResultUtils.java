@@ -33,14 +33,27 @@ private ValidationResultUtils() {
      */
     public static Path resolvePathToJsonResult(final ValidationResult result,
                                                final UnaryOperator<String> pathEncoder) {
-        final var pathSegments = new ArrayList<String>();
         final var sourceId = result.getSourceObjectId();
-        if (sourceId != null) {
-            final var segments = Splitter.fixedLength(4).splitToList(DigestUtils.sha1Hex(sourceId)).subList(0, 4);
-            pathSegments.addAll(segments);
-            pathSegments.add(pathEncoder.apply(sourceId));
+        final var fileName = "result-" + result.getIndex() + ".json";
+        if (sourceId == null) {
+            return Path.of(fileName);
         }
-        pathSegments.add("result-" + result.getIndex() + ".json");
+        return resolvePathToObjectResults(sourceId, pathEncoder).resolve(fileName);
+    }
+
+    /**
+     * Resolves the relative (i.e. to the validation output directory) path of the directory holding the json files
+     * of an object.
+     *
+     * @param sourceId    The source object id
+     * @param pathEncoder The encoder for the objectId
+     * @return The directory path
+     */
+    public static Path resolvePathToObjectResults(final String sourceId, final UnaryOperator<String> pathEncoder) {
+        final var pathSegments = new ArrayList<String>();
+        final var segments = Splitter.fixedLength(4).splitToList(DigestUtils.sha1Hex(sourceId)).subList(0, 4);
+        pathSegments.addAll(segments);
+        pathSegments.add(pathEncoder.apply(sourceId));
         return Path.of(String.join(File.separator, pathSegments));
     }
 }
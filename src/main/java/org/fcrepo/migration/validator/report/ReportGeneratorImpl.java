@@ -11,7 +11,9 @@
 import org.fcrepo.migration.validator.api.ReportHandler;
 import org.fcrepo.migration.validator.api.ValidationResultsSummary;
 import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.impl.BinaryValidationResultReader;
 import org.fcrepo.migration.validator.impl.FileSystemValidationResultReader;
+import org.fcrepo.migration.validator.impl.ResultFormat;
 import org.slf4j.Logger;
 
 import java.io.File;
@@ -44,6 +46,7 @@ public class ReportGeneratorImpl {
     private Path resultDir;
     private ReportHandler reportHandler;
     private ValidationResultsSummary summary;
+    private ResultFormat resultFormat;
 
     /**
      * Constructor
@@ -52,9 +55,22 @@ public class ReportGeneratorImpl {
      * @param reportHandler that writes the report to disk
      */
     public ReportGeneratorImpl(final Path resultDir, final ReportHandler reportHandler) {
+        this(resultDir, reportHandler, ResultFormat.json);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param resultDir where validation result files are located
+     * @param reportHandler that writes the report to disk
+     * @param resultFormat the format the validation results were written in
+     */
+    public ReportGeneratorImpl(final Path resultDir, final ReportHandler reportHandler,
+                               final ResultFormat resultFormat) {
         this.resultDir = resultDir;
         this.reportHandler = reportHandler;
         this.summary = new ValidationResultsSummary();
+        this.resultFormat = resultFormat;
     }
 
     /**
@@ -78,6 +94,10 @@ private String processResults() {
     }
 
     private String doProcessResults() throws IOException {
+        if (resultFormat == ResultFormat.binary) {
+            return processBinaryResults();
+        }
+
         // iterate through the validation result (JSON) files
         Files.walkFileTree(resultDir, new SimpleFileVisitor<>() {
             @Override
@@ -106,6 +126,52 @@ public FileVisitResult visitFile(final Path file, final BasicFileAttributes attr
         return reportHandler.validationSummary(summary);
     }
 
+    /**
+     * Scan the binary result segments in a single pass. The results of an object are contiguous within a segment, so
+     * each object report is created as soon as the results of the next object are reached. Only the results in the
+     * current segment of each object are reported, so the complete results of an object validated again after a run
+     * was killed supersede its partial results.
+     */
+    private String processBinaryResults() {
+        final var reader = new BinaryValidationResultReader();
+        final var current = reader.currentSegments(resultDir);
+        final var repositoryResults = new ArrayList<ValidationResult>();
+        for (final var segment : reader.segments(resultDir)) {
+            final var objectResults = new ArrayList<ValidationResult>();
+            reader.read(segment, result -> {
+                if (result.getSourceObjectId() == null) {
+                    repositoryResults.add(result);
+                    return;
+                } else if (!BinaryValidationResultReader.isCurrent(result, segment, current)) {
+                    return;
+                }
+                if (!objectResults.isEmpty() &&
+                    !objectResults.get(0).getSourceObjectId().equals(result.getSourceObjectId())) {
+                    addObjectReport(objectResults);
+                    objectResults.clear();
+                }
+                objectResults.add(result);
+            });
+            if (!objectResults.isEmpty()) {
+                addObjectReport(objectResults);
+            }
+        }
+
+        final var repositoryReport = createReport(repositoryResults, reportHandler::repositoryLevelReport);
+        summary.addRepositoryReport(repositoryReport);
+        return reportHandler.validationSummary(summary);
+    }
+
+    private void addObjectReport(final List<ValidationResult> results) {
+        final var objectId = results.get(0).getSourceObjectId();
+        if (summary.containsReport(objectId)) {
+            // an object whose segment has no index, so its current segment is unknown
+            LOGGER.warn("Skipping repeated results of {}", objectId);
+            return;
+        }
+        summary.addObjectReport(objectId, createReport(results, reportHandler::objectLevelReport));
+    }
+
     /**
      * Validation result files have the following naming convention:
      *   result-*.json, ValidationResultUtils.resolvePathToJsonResult
@@ -128,8 +194,13 @@ private ObjectReportSummary loadValidationResults(final File objectDir,
             resultsList.add(reader.read(f));
         }
 
+        return createReport(resultsList, reportHandler);
+    }
+
+    private ObjectReportSummary createReport(final List<ValidationResult> resultsList,
+                                             final Function<ObjectValidationResults, String> reportHandler) {
         resultsList.sort(Comparator.comparingInt(ValidationResult::getIndex));
-        final var validationResults = new ObjectValidationResults(resultsList);
+        final var validationResults = new ObjectValidationResults(List.copyOf(resultsList));
         final var reportFilename = reportHandler.apply(validationResults);
         LOGGER.info("Finished report {}", reportFilename);
         return new ObjectReportSummary(validationResults.hasErrors(), validationResults.getObjectId(), reportFilename);
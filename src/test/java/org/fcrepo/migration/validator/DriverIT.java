@@ -120,6 +120,22 @@ public void testInvalidSourceTypeIsRejected() {
         assertNotEquals("Expected a non-zero exit code", 0, exitCode);
     }
 
+    @Test
+    public void testVerifyTargetWithRecordedChecksumsIsRejected() {
+        final var exitCode = Driver.run(args("--checksum", "--verify-target", "--checksum-mode", "recorded"));
+
+        assertNotEquals("Expected a non-zero exit code", 0, exitCode);
+        assertFalse("No results should be written", Files.exists(RESULTS_DIR.resolve("json")));
+    }
+
+    @Test
+    public void testVerifyTargetWithAlgorithmIsRejected() {
+        final var exitCode = Driver.run(args("--checksum", "--verify-target", "--algorithm", "sha256"));
+
+        assertNotEquals("Expected a non-zero exit code", 0, exitCode);
+        assertFalse("No results should be written", Files.exists(RESULTS_DIR.resolve("json")));
+    }
+
     /**
      * Builds a base argument list against the 'valid' akubra fixtures, appending any test specific arguments.
      */
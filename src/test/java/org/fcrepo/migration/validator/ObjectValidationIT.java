@@ -84,6 +84,26 @@ public void testBadMetadata() {
                                     ObjectMetadataValidation.CREATED_DATE, ObjectMetadataValidation.LAST_MODIFIED_DATE);
     }
 
+    /**
+     * External and redirect datastreams have no content file in OCFL, which must not keep the rest of the object from
+     * being validated
+     */
+    @Test
+    public void testExternalDatastream() {
+        final File f3DatastreamsDir = new File(FIXTURES_BASE_DIR, "external-datastream/f3/datastreams");
+        final File f3ObjectsDir = new File(FIXTURES_BASE_DIR, "external-datastream/f3/objects");
+        final File f6OcflRootDir = new File(FIXTURES_BASE_DIR, "external-datastream/f6/data/ocfl-root");
+        final var config = getConfig(f3DatastreamsDir, f3ObjectsDir, f6OcflRootDir);
+        config.setEnableChecksums(true);
+        final ResultsReportHandler reportHandler = doValidation(config);
+
+        assertEquals("Should be no errors!", 0, reportHandler.getErrors().size());
+        assertThat(reportHandler.getPassed()).map(ValidationResult::getSourceResourceId)
+                                             .anyMatch(id -> id != null && id.endsWith("/LINK"))
+                                             .anyMatch(id -> id != null && id.endsWith("/REF"));
+        assertThat(reportHandler.getPassed()).map(ValidationResult::getValidationType).contains(BINARY_SIZE);
+    }
+
     @Test
     public void testNumberOfObjectsFailMoreOcfl() {
         final File f3DatastreamsDir = new File(FIXTURES_BASE_DIR, "bad-num-objects-more-ocfl/f3/datastreams");
@@ -0,0 +1,64 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator;
+
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.FAIL;
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.OK;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel.OBJECT;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.OBJECT_READABLE;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.io.FileUtils;
+import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.impl.BinaryValidationResultWriter;
+import org.fcrepo.migration.validator.impl.ResultCompression;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Covers the exit codes of the lookup of binary results
+ *
+ * @author mikejritter
+ */
+public class ResultsLookupTest {
+
+    private Path workDir;
+
+    @Before
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("results-lookup-test");
+        final var writer = new BinaryValidationResultWriter(workDir, false, ResultCompression.gzip);
+        writer.accept(new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                           "readable"));
+        writer.accept(new ValidationResult(0, FAIL, OBJECT, OBJECT_READABLE, "object-2", "info:fedora/object-2",
+                                           "not readable"));
+        writer.close();
+    }
+
+    @After
+    public void teardown() {
+        FileUtils.deleteQuietly(workDir.toFile());
+    }
+
+    @Test
+    public void testLookup() {
+        assertEquals(0, ResultsLookup.run(new String[] {
+            "--input", workDir.toString(), "--pid", "object-1", "--pid", "object-2"
+        }));
+    }
+
+    @Test
+    public void testLookupMissingObject() {
+        assertEquals(1, ResultsLookup.run(new String[] {
+            "--input", workDir.toString(), "--pid", "object-1", "--pid", "object-3"
+        }));
+    }
+}
@@ -7,14 +7,25 @@
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.api.ValidationResultWriter;
+import org.fcrepo.migration.validator.impl.ApplicationConfigurationHelper;
+import org.fcrepo.migration.validator.impl.Fedora3ValidationConfig;
+import org.fcrepo.migration.validator.impl.Fedora3ValidationExecutionManager;
 import org.fcrepo.migration.validator.report.ResultsReportHandler;
 import org.junit.Test;
 
@@ -60,4 +71,142 @@ public void test() throws IOException {
         assertThat(moreResults).hasSize(2);
     }
 
+    @Test
+    public void testStopped() throws IOException {
+        final File f3DatastreamsDir = new File(FIXTURES_BASE_DIR, F3_DATASTREAMS);
+        final File f3ObjectsDir = new File(FIXTURES_BASE_DIR, F3_OBJECTS);
+        final File f6OcflRootDir = new File(FIXTURES_BASE_DIR, F6_OCFL);
+        final var config = getConfig(f3DatastreamsDir, f3ObjectsDir, f6OcflRootDir);
+        config.setResume(true);
+
+        // a stopped run completes cleanly without validating any more objects
+        final var executionManager = new Fedora3ValidationExecutionManager(new ApplicationConfigurationHelper(config));
+        executionManager.stop();
+        assertTrue(executionManager.doValidation());
+        assertTrue(executionManager.isStopped());
+        assertEquals(0, executionManager.getNumProcessed());
+
+        final var resume = RESULTS_DIR.toPath().resolve("resume.txt");
+        try (Stream<String> lines = Files.lines(resume)) {
+            assertThat(lines).isEmpty();
+        }
+
+        // the next run continues where it stopped
+        final ResultsReportHandler reportHandler = doValidation(config);
+        final var objectResults = reportHandler.getPassed().stream()
+                                               .map(ValidationResult::getSourceObjectId)
+                                               .collect(Collectors.toSet());
+        assertThat(objectResults).hasSize(2);
+    }
+
+    /**
+     * Stopping a run with an object in flight completes the object, and leaves the object waiting for a thread to the
+     * next run
+     */
+    @Test
+    public void testStoppedInFlight() throws Exception {
+        final var config = resumeConfig();
+        final var helper = new BlockingConfigurationHelper(config, 0);
+        final var executionManager = new Fedora3ValidationExecutionManager(helper);
+        final var run = CompletableFuture.supplyAsync(executionManager::doValidation);
+
+        // the first object is in flight, holding the only thread
+        assertTrue(helper.completing.await(1, TimeUnit.MINUTES));
+        executionManager.stop();
+        helper.release.countDown();
+
+        assertTrue(run.get(1, TimeUnit.MINUTES));
+        assertTrue(executionManager.isStopped());
+        assertInFlightCompleted(executionManager, helper);
+    }
+
+    /**
+     * A time budget which is spent while an object is in flight completes the object, and leaves the object waiting
+     * for a thread to the next run
+     */
+    @Test
+    public void testTimeBudgetSpentInFlight() throws Exception {
+        final var config = resumeConfig();
+        final var timeBudget = 2000;
+        final var helper = new BlockingConfigurationHelper(config, timeBudget);
+        final var executionManager = new Fedora3ValidationExecutionManager(helper);
+        final var run = CompletableFuture.supplyAsync(executionManager::doValidation);
+
+        // the budget runs out while the first object holds the only thread
+        assertTrue(helper.completing.await(1, TimeUnit.MINUTES));
+        TimeUnit.MILLISECONDS.sleep(timeBudget);
+        helper.release.countDown();
+
+        assertTrue(run.get(1, TimeUnit.MINUTES));
+        assertTrue(executionManager.isStopped());
+        assertInFlightCompleted(executionManager, helper);
+    }
+
+    private Fedora3ValidationConfig resumeConfig() {
+        final var config = getConfig(new File(FIXTURES_BASE_DIR, F3_DATASTREAMS),
+                                     new File(FIXTURES_BASE_DIR, F3_OBJECTS),
+                                     new File(FIXTURES_BASE_DIR, F6_OCFL));
+        config.setResume(true);
+        return config;
+    }
+
+    private void assertInFlightCompleted(final Fedora3ValidationExecutionManager executionManager,
+                                         final BlockingConfigurationHelper helper) throws IOException {
+        assertEquals("Only the object in flight was processed", 1, executionManager.getNumProcessed());
+        assertThat(helper.completed).hasSize(1);
+
+        final var resume = RESULTS_DIR.toPath().resolve("resume.txt");
+        try (Stream<String> lines = Files.lines(resume)) {
+            assertEquals(Set.copyOf(helper.completed), lines.collect(Collectors.toSet()));
+        }
+    }
+
+    /**
+     * Holds the first object in flight until it is released, and spends the time budget in milliseconds. The runs of
+     * these tests have a single thread, so the next object waits for the first.
+     */
+    private static class BlockingConfigurationHelper extends ApplicationConfigurationHelper {
+        private final long timeBudgetMillis;
+        private final CountDownLatch completing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> completed = new CopyOnWriteArrayList<>();
+
+        BlockingConfigurationHelper(final Fedora3ValidationConfig config, final long timeBudgetMillis) {
+            super(config);
+            this.timeBudgetMillis = timeBudgetMillis;
+        }
+
+        @Override
+        public long getTimeBudgetMillis() {
+            return timeBudgetMillis;
+        }
+
+        @Override
+        public ValidationResultWriter validationResultWriter() {
+            final var writer = super.validationResultWriter();
+            return new ValidationResultWriter() {
+                @Override
+                public void write(final List<ValidationResult> results) {
+                    writer.write(results);
+                }
+
+                @Override
+                public void completeObject(final String pid) {
+                    completing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    writer.completeObject(pid);
+                    completed.add(pid);
+                }
+
+                @Override
+                public void close() {
+                    writer.close();
+                }
+            };
+        }
+    }
 }
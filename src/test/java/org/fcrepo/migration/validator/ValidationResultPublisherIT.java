@@ -0,0 +1,145 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.FAIL;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.impl.FailedObjectIndex;
+import org.fcrepo.migration.validator.impl.ObjectFingerprintIndex;
+import org.fcrepo.migration.validator.impl.ValidationResultPublisher;
+import org.junit.Test;
+
+/**
+ * @author mikejritter
+ */
+public class ValidationResultPublisherIT extends AbstractValidationIT {
+
+    private final File f3DatastreamsDir = new File(FIXTURES_BASE_DIR, "valid/f3/datastreams");
+    private final File f3ObjectsDir = new File(FIXTURES_BASE_DIR, "valid/f3/objects");
+    private final File f6OcflRootDir = new File(FIXTURES_BASE_DIR, "valid/f6/data/ocfl-root");
+
+    @Test
+    public void testPublish() throws InterruptedException {
+        final var config = getConfig(f3DatastreamsDir, f3ObjectsDir, f6OcflRootDir);
+        final var subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        new ValidationResultPublisher(config, 1).subscribe(subscriber);
+
+        assertTrue("Expected the run to complete", subscriber.done.await(1, TimeUnit.MINUTES));
+        assertNull(subscriber.error);
+        assertTrue(subscriber.completed);
+        assertThat(subscriber.results).isNotEmpty().noneMatch(result -> result.getStatus() == FAIL);
+        assertFalse("Results should not be written", Files.exists(config.getJsonOutputDirectory()));
+        assertFalse("Nothing should be written to the results directory", Files.exists(config.getResultsDirectory()));
+    }
+
+    /**
+     * A run keeps the resume file and indexes of the results directory as they were
+     */
+    @Test
+    public void testResultsDirectoryUntouched() throws Exception {
+        final var config = getConfig(f3DatastreamsDir, f3ObjectsDir, f6OcflRootDir);
+        final var resultsDir = Files.createDirectories(config.getResultsDirectory());
+        final var failedObjects = Files.writeString(resultsDir.resolve(FailedObjectIndex.FILE_NAME),
+                                                    "test:1\tFAIL\t\n");
+        final var resumeFile = Files.writeString(resultsDir.resolve("resume.txt"), "1711.dl:UWPAbout\n");
+
+        final var subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        new ValidationResultPublisher(config, 1).subscribe(subscriber);
+        assertTrue("Expected the run to complete", subscriber.done.await(1, TimeUnit.MINUTES));
+
+        assertNull(subscriber.error);
+        assertThat(subscriber.results).isNotEmpty();
+        assertEquals("test:1\tFAIL\t\n", Files.readString(failedObjects));
+        assertEquals("1711.dl:UWPAbout\n", Files.readString(resumeFile));
+        assertFalse(Files.exists(resultsDir.resolve(ObjectFingerprintIndex.FILE_NAME)));
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final var config = getConfig(f3DatastreamsDir, f3ObjectsDir, f6OcflRootDir);
+        final var subscriber = new CollectingSubscriber(1);
+        final var publisher = new ValidationResultPublisher(config, 1);
+        publisher.subscribe(subscriber);
+
+        assertTrue("Expected a result", subscriber.first.await(1, TimeUnit.MINUTES));
+        subscriber.subscription.cancel();
+        publisher.getStopped().get(1, TimeUnit.MINUTES);
+
+        // a cancelled subscriber is not signalled again
+        assertEquals(1, subscriber.done.getCount());
+        assertNull(subscriber.error);
+        assertThat(subscriber.results).hasSize(1);
+    }
+
+    @Test
+    public void testSubscribeOnce() throws InterruptedException {
+        final var publisher = new ValidationResultPublisher(getConfig(f3DatastreamsDir, f3ObjectsDir, f6OcflRootDir));
+        final var subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+
+        final var second = new CollectingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(second);
+        assertTrue(second.done.await(1, TimeUnit.SECONDS));
+        assertThat(second.error).isInstanceOf(IllegalStateException.class);
+
+        assertTrue("Expected the run to complete", subscriber.done.await(1, TimeUnit.MINUTES));
+    }
+
+    /**
+     * Collects the results, requesting a fixed number of them up front
+     */
+    private static class CollectingSubscriber implements Flow.Subscriber<ValidationResult> {
+        private final long initialRequest;
+        private final List<ValidationResult> results = new CopyOnWriteArrayList<>();
+        private final CountDownLatch first = new CountDownLatch(1);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+        private volatile Throwable error;
+        private volatile boolean completed;
+
+        CollectingSubscriber(final long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(final ValidationResult result) {
+            results.add(result);
+            first.countDown();
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fcrepo.migration.validator.report.ReportType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Starts the validation server on a free port and exercises its jobs over HTTP
+ *
+ * @author mikejritter
+ */
+public class ValidationServerIT extends AbstractValidationIT {
+
+    private static final String PID = "1711.dl:UWPAbout";
+    private static final TypeReference<Map<String, Object>> JSON = new TypeReference<>() {};
+
+    private final File f3DatastreamsDir = new File(FIXTURES_BASE_DIR, "valid/f3/datastreams");
+    private final File f3ObjectsDir = new File(FIXTURES_BASE_DIR, "valid/f3/objects");
+    private final File f6OcflRootDir = new File(FIXTURES_BASE_DIR, "valid/f6/data/ocfl-root");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final CountDownLatch runsBlocked = new CountDownLatch(1);
+    private ExecutorService runExecutor;
+    private ValidationServer server;
+
+    @Before
+    public void setup() {
+        runExecutor = Executors.newSingleThreadExecutor();
+        server = new ValidationServer(getConfig(f3DatastreamsDir, f3ObjectsDir, f6OcflRootDir), ReportType.csv, 0,
+                                      runExecutor);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        runsBlocked.countDown();
+        server.stop();
+    }
+
+    @Test
+    public void testValidate() throws Exception {
+        final var response = client.send(post("/validate", PID + "\nmissing:1\n"), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+
+        final var lines = response.body().map(this::read).collect(Collectors.toList());
+        assertEquals("missing:1", lines.get(0).get("pid"));
+        assertThat(lines.get(0)).containsKey("error");
+        assertThat(lines.subList(1, lines.size())).isNotEmpty().allMatch(result -> result.containsKey("status"));
+        assertTrue("Results should not be written", Files.notExists(RESULTS_DIR.toPath().resolve("json")));
+    }
+
+    @Test
+    public void testRuns() throws Exception {
+        // hold the run executor so the run is still in progress when the second run is requested
+        runExecutor.submit(() -> {
+            runsBlocked.await();
+            return null;
+        });
+
+        final var first = client.sendAsync(post("/runs", ""), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(202, first.get().statusCode());
+
+        final var second = client.send(post("/runs", ""), HttpResponse.BodyHandlers.ofString());
+        assertEquals(409, second.statusCode());
+        assertEquals("running", read(second.body()).get("state"));
+        assertEquals(409, client.send(post("/report", ""), HttpResponse.BodyHandlers.ofString()).statusCode());
+
+        runsBlocked.countDown();
+        final List<Map<String, Object>> progress = first.get().body().map(this::read).collect(Collectors.toList());
+        final var last = progress.get(progress.size() - 1);
+        assertEquals("completed", last.get("state"));
+        assertThat(last).containsKey("report");
+
+        final var status = client.send(get("/runs"), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, status.statusCode());
+        assertEquals("completed", read(status.body()).get("state"));
+
+        // a second run starts over from the results of the first
+        final var again = client.send(post("/runs", ""), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(202, again.statusCode());
+        final var lastAgain = again.body().reduce((a, b) -> b).map(this::read).orElseThrow();
+        assertEquals("completed", lastAgain.get("state"));
+    }
+
+    @Test
+    public void testReport() throws Exception {
+        final var run = client.send(post("/runs", ""), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(202, run.statusCode());
+        // the progress is streamed until the run completes
+        assertThat(run.body().count()).isPositive();
+
+        final var report = client.send(post("/report", ""), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, report.statusCode());
+        assertThat(read(report.body())).containsKey("report");
+    }
+
+    @Test
+    public void testWrongMethod() throws Exception {
+        assertEquals(405, client.send(get("/validate"), HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    public void testRejectsOtherHosts() throws IOException {
+        assertEquals(403, rawStatus("Host: attacker.example\r\n"));
+        assertEquals(403, rawStatus("Host: 127.0.0.1\r\nOrigin: http://attacker.example\r\n"));
+        assertEquals(200, rawStatus("Host: localhost\r\nOrigin: http://localhost:8089\r\n"));
+    }
+
+    /**
+     * Send GET /runs with the given headers, which the HttpClient does not allow to be set
+     */
+    private int rawStatus(final String headers) throws IOException {
+        final var address = server.getAddress();
+        try (var socket = new Socket(address.getAddress(), address.getPort())) {
+            socket.getOutputStream().write(("GET /runs HTTP/1.1\r\n" + headers + "Connection: close\r\n\r\n")
+                                               .getBytes(UTF_8));
+            final var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+            return Integer.parseInt(reader.readLine().split(" ")[1]);
+        }
+    }
+
+    private HttpRequest post(final String path, final String body) {
+        return HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest get(final String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private Map<String, Object> read(final String json) {
+        try {
+            return objectMapper.readValue(json, JSON);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.FAIL;
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.OK;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.BINARY_CHECKSUM;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.BINARY_SIZE;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.hash.HashCode;
+import org.fcrepo.migration.DatastreamInfo;
+import org.fcrepo.migration.DatastreamVersion;
+import org.fcrepo.migration.ObjectInfo;
+import org.fcrepo.migration.ObjectVersionReference;
+import org.fcrepo.migration.validator.api.ValidationHandler.ValidationResultBuilder;
+import org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel;
+import org.fcrepo.migration.validator.impl.ChecksumAlgorithm;
+import org.fcrepo.migration.validator.impl.MultiDigester;
+import org.fcrepo.migration.validator.impl.RecordedDigest;
+import org.junit.Test;
+
+/**
+ * Covers the checksum validations shared by the validation handlers
+ *
+ * @author mikejritter
+ */
+public class ValidationHandlerTest {
+
+    private static final String PID = "info:fedora/test:1";
+    private static final byte[] CONTENT = "validation handler test content".getBytes(StandardCharsets.UTF_8);
+
+    private final CountingHandler handler = new CountingHandler();
+    private final ValidationResultBuilder builder =
+        new ValidationResultBuilder(PID, PID, PID + "/DS", PID + "/DS", ValidationLevel.OBJECT_RESOURCE,
+                                    new AtomicInteger());
+
+    @Test
+    public void testRecordedChecksumsMatch() {
+        final var md5 = hash(ChecksumAlgorithm.md5);
+        final var results = handler.validateRecordedChecksums(managed(), List.of(
+            new RecordedDigest(RecordedDigest.HEADERS, ChecksumAlgorithm.md5, md5),
+            new RecordedDigest(RecordedDigest.INVENTORY, ChecksumAlgorithm.md5, md5),
+            new RecordedDigest(RecordedDigest.FOXML, ChecksumAlgorithm.md5, md5)), "v1", builder);
+
+        assertThat(results).hasSize(2).allMatch(result -> result.getStatus() == OK);
+        assertEquals("Content should not be read", 0, handler.reads.get());
+    }
+
+    @Test
+    public void testRecordedChecksumsMismatch() {
+        final var md5 = hash(ChecksumAlgorithm.md5);
+        final var results = handler.validateRecordedChecksums(managed(), List.of(
+            new RecordedDigest(RecordedDigest.HEADERS, ChecksumAlgorithm.md5, "0123456789abcdef"),
+            new RecordedDigest(RecordedDigest.FOXML, ChecksumAlgorithm.md5, md5)), "v1", builder);
+
+        assertThat(results).hasSize(1).allMatch(result -> result.getStatus() == FAIL);
+        assertThat(results.get(0).getDetails()).contains(RecordedDigest.HEADERS, RecordedDigest.FOXML);
+        assertEquals("Content should not be read", 0, handler.reads.get());
+    }
+
+    /**
+     * Without a FOXML contentDigest the recorded digests cannot be compared, so the content is hashed
+     */
+    @Test
+    public void testRecordedChecksumsFallback() {
+        final var results = handler.validateRecordedChecksums(managed(), List.of(
+            new RecordedDigest(RecordedDigest.HEADERS, ChecksumAlgorithm.sha512, hash(ChecksumAlgorithm.sha512))),
+            "v1", builder);
+
+        assertThat(results).hasSize(1).allMatch(result -> result.getStatus() == OK);
+        assertEquals(1, handler.reads.get());
+    }
+
+    /**
+     * An inventory digest of another algorithm than the FOXML contentDigest is checked by hashing the content
+     */
+    @Test
+    public void testRecordedChecksumsOtherAlgorithm() {
+        final var md5 = hash(ChecksumAlgorithm.md5);
+        final var results = handler.validateRecordedChecksums(managed(), List.of(
+            new RecordedDigest(RecordedDigest.HEADERS, ChecksumAlgorithm.md5, md5),
+            new RecordedDigest(RecordedDigest.INVENTORY, ChecksumAlgorithm.sha512, "0123456789abcdef"),
+            new RecordedDigest(RecordedDigest.FOXML, ChecksumAlgorithm.md5, md5)), "v1", builder);
+
+        assertThat(results).hasSize(2);
+        assertEquals(OK, results.get(0).getStatus());
+        assertEquals(FAIL, results.get(1).getStatus());
+        assertThat(results.get(1).getDetails()).contains(RecordedDigest.INVENTORY);
+        assertEquals(1, handler.reads.get());
+        assertEquals(List.of(ChecksumAlgorithm.sha512), handler.algorithms);
+    }
+
+    @Test
+    public void testRecordedChecksumsNotManaged() {
+        final var results = handler.validateRecordedChecksums(datastream("E"), List.of(), "v1", builder);
+        assertThat(results).isEmpty();
+    }
+
+    @Test
+    public void testTargetFixity() throws IOException {
+        final var targetFile = Files.createTempFile("target-fixity", ".bin");
+        try {
+            Files.write(targetFile, CONTENT);
+            final var results = handler.validateTargetFixity(managed(), Optional.of(targetFile), List.of(
+                new RecordedDigest(RecordedDigest.HEADERS, ChecksumAlgorithm.sha512, hash(ChecksumAlgorithm.sha512)),
+                new RecordedDigest(RecordedDigest.FOXML, ChecksumAlgorithm.md5, hash(ChecksumAlgorithm.md5))),
+                Runnable::run, "v1", builder);
+
+            // the source compared with the content file for each algorithm, then each recorded digest
+            assertThat(results).hasSize(4).allMatch(result -> result.getStatus() == OK);
+            assertEquals(1, handler.reads.get());
+        } finally {
+            Files.deleteIfExists(targetFile);
+        }
+    }
+
+    @Test
+    public void testTargetFixityCorruptContentFile() throws IOException {
+        final var targetFile = Files.createTempFile("target-fixity", ".bin");
+        try {
+            Files.write(targetFile, "corrupt".getBytes(StandardCharsets.UTF_8));
+            final var results = handler.validateTargetFixity(managed(), Optional.of(targetFile), List.of(
+                new RecordedDigest(RecordedDigest.HEADERS, ChecksumAlgorithm.sha512, hash(ChecksumAlgorithm.sha512))),
+                Runnable::run, "v1", builder);
+
+            assertThat(results).hasSize(2).allMatch(result -> result.getStatus() == FAIL);
+            assertThat(results.get(1).getDetails()).contains("OCFL content file", RecordedDigest.HEADERS);
+        } finally {
+            Files.deleteIfExists(targetFile);
+        }
+    }
+
+    @Test
+    public void testTargetFixityMissingContentFile() {
+        final var results = handler.validateTargetFixity(managed(), Optional.empty(), List.of(), Runnable::run, "v1",
+                                                         builder);
+
+        assertThat(results).hasSize(1).allMatch(result -> result.getStatus() == FAIL);
+        assertEquals("Content should not be read", 0, handler.reads.get());
+    }
+
+    @Test
+    public void testHardLinkSatisfiedWithoutReading() throws IOException {
+        final var sourceFile = Files.write(Files.createTempFile("hard-link-source", ".bin"), CONTENT);
+        final var targetFile = sourceFile.resolveSibling(sourceFile.getFileName() + ".link");
+        try {
+            Files.createLink(targetFile, sourceFile);
+            final var dsVersion = datastream("M", sourceFile.toFile());
+
+            final var size = handler.validateSizeOnDisk(dsVersion, Optional.of(targetFile), "v1", builder);
+            assertThat(size).hasValueSatisfying(result -> {
+                assertEquals(OK, result.getStatus());
+                assertEquals(BINARY_SIZE, result.getValidationType());
+                assertThat(result.getDetails()).contains("hard link", "content not read");
+            });
+
+            final var checksums = handler.validateChecksumMode(dsVersion, "v1", null, Optional.of(targetFile), "v1",
+                                                               builder);
+            assertThat(checksums).hasSize(1).allSatisfy(result -> {
+                assertEquals(OK, result.getStatus());
+                assertEquals(BINARY_CHECKSUM, result.getValidationType());
+                assertThat(result.getDetails()).contains("hard link", "content not read");
+            });
+            assertEquals("Content should not be read", 0, handler.reads.get());
+        } finally {
+            Files.deleteIfExists(targetFile);
+            Files.deleteIfExists(sourceFile);
+        }
+    }
+
+    @Test
+    public void testCopiedFileIsHashed() throws IOException {
+        final var sourceFile = Files.write(Files.createTempFile("hard-link-source", ".bin"), CONTENT);
+        final var targetFile = Files.write(Files.createTempFile("hard-link-target", ".bin"), CONTENT);
+        try {
+            final var dsVersion = datastream("M", sourceFile.toFile());
+            final CountingHandler verifying = new CountingHandler() {
+                @Override
+                public boolean verifyTarget() {
+                    return true;
+                }
+            };
+
+            final var checksums = verifying.validateChecksumMode(dsVersion, "v1", null, Optional.of(targetFile), "v1",
+                                                                 builder);
+            assertThat(checksums).isNotEmpty().allSatisfy(result -> {
+                assertEquals(OK, result.getStatus());
+                assertThat(result.getDetails()).doesNotContain("hard link");
+            });
+            assertEquals("Content should be hashed", 1, verifying.reads.get());
+        } finally {
+            Files.deleteIfExists(targetFile);
+            Files.deleteIfExists(sourceFile);
+        }
+    }
+
+    private static String hash(final ChecksumAlgorithm algorithm) {
+        return algorithm.hasher().putBytes(CONTENT).hash().toString();
+    }
+
+    private static DatastreamVersion managed() {
+        return datastream("M");
+    }
+
+    /**
+     * Create a datastream version with the test content. Only the methods used by the checksum validations are
+     * supported.
+     */
+    private static DatastreamVersion datastream(final String controlGroup) {
+        return datastream(controlGroup, null);
+    }
+
+    /**
+     * Create a datastream version with the test content, backed by the given local file if it is not null
+     */
+    private static DatastreamVersion datastream(final String controlGroup, final File file) {
+        final var info = (DatastreamInfo) Proxy.newProxyInstance(
+            DatastreamInfo.class.getClassLoader(), new Class<?>[] {DatastreamInfo.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getDatastreamId":
+                        return "DS";
+                    case "getControlGroup":
+                        return controlGroup;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        return (DatastreamVersion) Proxy.newProxyInstance(
+            DatastreamVersion.class.getClassLoader(), new Class<?>[] {DatastreamVersion.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getDatastreamInfo":
+                        return info;
+                    case "getFile":
+                        return Optional.ofNullable(file);
+                    case "getContent":
+                        return new ByteArrayInputStream(CONTENT);
+                    case "getSize":
+                        return (long) CONTENT.length;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    /**
+     * Counts the reads of the datastream content
+     */
+    private static class CountingHandler implements ValidationHandler {
+        private final AtomicInteger reads = new AtomicInteger();
+        private volatile List<ChecksumAlgorithm> algorithms = List.of();
+
+        @Override
+        public Map<ChecksumAlgorithm, HashCode> digestSource(final DatastreamVersion dsVersion,
+                                                             final Collection<ChecksumAlgorithm> algorithms)
+            throws IOException {
+            reads.incrementAndGet();
+            this.algorithms = List.copyOf(algorithms);
+            return MultiDigester.digest(dsVersion, algorithms);
+        }
+
+        @Override
+        public List<ValidationResult> getValidationResults() {
+            return List.of();
+        }
+
+        @Override
+        public void processObjectVersions(final Iterable<ObjectVersionReference> versions,
+                                          final ObjectInfo objectInfo) {
+            // only the default methods are exercised
+        }
+    }
+}
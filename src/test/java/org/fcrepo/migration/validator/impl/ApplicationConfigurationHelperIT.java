@@ -19,6 +19,7 @@
 
 import io.ocfl.api.exception.OcflInputException;
 import org.apache.commons.io.FileUtils;
+import org.fcrepo.storage.ocfl.OcflObjectSessionFactory;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -30,6 +31,7 @@
  */
 public class ApplicationConfigurationHelperIT {
 
+    private static final String OBJECT_ID = "info:fedora/1711.dl:UWPAbout";
     private static final Path FIXTURES_BASE_DIR = Path.of("src", "test", "resources", "test-object-validation");
     private static final Path F3_OBJECTS_DIR = FIXTURES_BASE_DIR.resolve("valid/f3/objects");
     private static final Path F6_OCFL_ROOT_DIR = FIXTURES_BASE_DIR.resolve("valid/f6/data/ocfl-root");
@@ -128,6 +130,42 @@ public void testOcflComponents() {
         assertFalse(helper.checkNumObjects());
     }
 
+    @Test
+    public void testGlobalHeadersCacheRecordsStats() {
+        final var helper = new ApplicationConfigurationHelper(baseConfig().setHeadersCacheMaxWeight(1024 * 1024));
+        final var factory = helper.ocflObjectSessionFactory();
+
+        // the second session reuses the headers loaded by the first
+        readHeadersTwice(factory);
+        readHeadersTwice(factory);
+
+        final var stats = helper.ocflCacheStats().get("headers");
+        assertTrue(stats.hitCount() > 0);
+        assertEquals(0, stats.missCount());
+    }
+
+    @Test
+    public void testSessionScopedHeadersCache() {
+        final var config = baseConfig().setHeadersCacheScope(OcflCacheScope.session);
+        final var helper = new ApplicationConfigurationHelper(config);
+        final var factory = helper.ocflObjectSessionFactory();
+        assertTrue(factory instanceof SessionScopedOcflObjectSessionFactory);
+
+        // each session starts with an empty cache, but all sessions share the same stats
+        readHeadersTwice(factory);
+        readHeadersTwice(factory);
+
+        final var stats = helper.ocflCacheStats().get("headers");
+        assertTrue(stats.hitCount() > 0);
+        assertTrue("Expected the second session to start with an empty cache", stats.missCount() > 0);
+    }
+
+    private void readHeadersTwice(final OcflObjectSessionFactory factory) {
+        final var session = factory.newSession(OBJECT_ID);
+        session.readHeaders(OBJECT_ID);
+        session.readHeaders(OBJECT_ID);
+    }
+
     private Fedora3ValidationConfig baseConfig() {
         final var config = new Fedora3ValidationConfig();
         config.setSourceType(F3SourceTypes.AKUBRA);
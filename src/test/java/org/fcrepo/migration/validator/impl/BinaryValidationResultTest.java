@@ -0,0 +1,299 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.FAIL;
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.OK;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel.OBJECT_RESOURCE;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel.REPOSITORY;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.BINARY_CHECKSUM;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.REPOSITORY_RESOURCE_COUNT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.api.ValidationResult.Status;
+import org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel;
+import org.fcrepo.migration.validator.api.ValidationResult.ValidationType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Round trips validation results through the binary writer and reader
+ *
+ * @author mikejritter
+ */
+public class BinaryValidationResultTest {
+
+    private static final String TEMPLATE = "version %s of %s has %d bytes, deleted=%s";
+
+    private Path workDir;
+
+    @Before
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("binary-result-test");
+    }
+
+    @After
+    public void teardown() {
+        FileUtils.deleteQuietly(workDir.toFile());
+    }
+
+    @Test
+    public void testWriteThenRead() {
+        final var templated = result(0, "object-1", "DS1", 1024L);
+        final var literal = new ValidationResult(1, FAIL, REPOSITORY, REPOSITORY_RESOURCE_COUNT, null, null,
+                                                 "counts differ");
+
+        final var writer = new BinaryValidationResultWriter(workDir, false, ResultCompression.gzip);
+        writer.write(List.of(templated, literal));
+        writer.close();
+
+        final var read = readAll();
+        assertEquals(2, read.size());
+        final var first = read.get(0);
+        assertEquals(0, first.getIndex());
+        assertEquals(OK, first.getStatus());
+        assertEquals(OBJECT_RESOURCE, first.getValidationLevel());
+        assertEquals(BINARY_CHECKSUM, first.getValidationType());
+        assertEquals("object-1", first.getSourceObjectId());
+        assertEquals("info:fedora/object-1", first.getTargetObjectId());
+        assertEquals("object-1/DS1", first.getSourceResourceId());
+        assertNull(first.getTargetResourceId());
+        assertEquals(templated.getDetails(), first.getDetails());
+
+        final var second = read.get(1);
+        assertEquals(FAIL, second.getStatus());
+        assertNull(second.getSourceObjectId());
+        assertEquals("counts differ", second.getDetails());
+    }
+
+    @Test
+    public void testSegmentsRotateBetweenObjects() {
+        final var writer = new BinaryValidationResultWriter(workDir, false, false, ResultCompression.gzip, 2,
+                                                            BinaryValidationResultWriter.DEFAULT_BLOCK_BYTES);
+        for (int i = 0; i < 3; i++) {
+            writer.accept(result(i, "object-1", "DS" + i, i));
+        }
+        writer.accept(result(0, "object-2", "DS1", 0));
+        writer.accept(result(0, "object-3", "DS1", 0));
+        writer.close();
+
+        final var reader = new BinaryValidationResultReader();
+        final var segments = reader.segments(workDir);
+        assertEquals(2, segments.size());
+
+        final var first = new ArrayList<ValidationResult>();
+        reader.read(segments.get(0), first::add);
+        assertEquals("all results of object-1 are in the first segment", 3, first.size());
+        assertEquals(5, readAll().size());
+    }
+
+    @Test
+    public void testWriteFailureOnly() {
+        final var writer = new BinaryValidationResultWriter(workDir, true, ResultCompression.gzip);
+        writer.accept(result(0, "object-1", "DS1", 1));
+        writer.accept(new ValidationResult(1, FAIL, REPOSITORY, REPOSITORY_RESOURCE_COUNT, null, null, "failed"));
+        writer.close();
+
+        final var read = readAll();
+        assertEquals(1, read.size());
+        assertEquals(FAIL, read.get(0).getStatus());
+    }
+
+    @Test
+    public void testFailureOnlyNeverRendersPassingDetails() {
+        final var writer = new BinaryValidationResultWriter(workDir, true, ResultCompression.gzip);
+        final var renders = new ValidationResultIoTest.RenderCounter();
+        writer.accept(new ValidationResult(0, OK, OBJECT_RESOURCE, BINARY_CHECKSUM, "object-1", "object-1",
+                                           "object-1/DS1", "object-1/DS1", "%s passed", new Object[] {renders}));
+        writer.close();
+
+        assertEquals("Passing details should not be rendered", 0, renders.count);
+        assertTrue(readAll().isEmpty());
+    }
+
+    @Test
+    public void testSmallerThanJson() throws IOException {
+        final var mapper = new ObjectMapper();
+        long jsonBytes = 0;
+        for (int i = 0; i < 1000; i++) {
+            jsonBytes += mapper.writeValueAsString(manyResults(i)).getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        // before counting the filesystem block taken by each json file
+        final var uncompressed = writeManyResults(workDir.resolve("none"), ResultCompression.none);
+        assertTrue("binary " + uncompressed + " json " + jsonBytes, uncompressed * 5 < jsonBytes);
+        final var compressed = writeManyResults(workDir.resolve("gzip"), ResultCompression.gzip);
+        assertTrue("gzip " + compressed + " binary " + uncompressed, compressed * 2 < uncompressed);
+    }
+
+    @Test
+    public void testLookupReadsOnlyIndexedBlocks() throws IOException {
+        // each object is written to its own block
+        final var writer = new BinaryValidationResultWriter(workDir, false, false, ResultCompression.gzip,
+                                                            BinaryValidationResultWriter.DEFAULT_SEGMENT_RECORDS, 1);
+        for (int i = 1; i <= 3; i++) {
+            writer.accept(result(0, "object-" + i, "DS1", i));
+            writer.accept(result(1, "object-" + i, "DS2", i));
+        }
+        writer.close();
+
+        // corrupt the block of object-1, which a lookup of object-2 must not read
+        final var segment = new BinaryValidationResultReader().segments(workDir).get(0);
+        final var bytes = Files.readAllBytes(segment);
+        for (int i = 10; i < 20; i++) {
+            bytes[i] = 0;
+        }
+        Files.write(segment, bytes);
+
+        final var results = new ArrayList<ValidationResult>();
+        new BinaryValidationResultReader().lookup(workDir, "object-2", results::add);
+        assertEquals(2, results.size());
+        results.forEach(result -> assertEquals("object-2", result.getSourceObjectId()));
+    }
+
+    @Test
+    public void testReplaceResultsOfPreviousRun() {
+        final var first = new BinaryValidationResultWriter(workDir, false, ResultCompression.gzip);
+        first.accept(failed(0, "object-1"));
+        first.accept(failed(1, "object-1"));
+        first.accept(failed(0, "object-2"));
+        first.close();
+
+        final var second = new BinaryValidationResultWriter(workDir, false, true, ResultCompression.gzip,
+                                                            BinaryValidationResultWriter.DEFAULT_SEGMENT_RECORDS,
+                                                            BinaryValidationResultWriter.DEFAULT_BLOCK_BYTES);
+        second.accept(result(0, "object-1", "DS1", 1));
+        second.completeObject("object-1");
+
+        // the new results are not current until the block holding them has been written
+        assertEquals(3, readAll().size());
+        second.close();
+
+        final var read = readAll();
+        assertEquals(2, read.size());
+        assertEquals("object-1", read.get(1).getSourceObjectId());
+        assertEquals(OK, read.get(1).getStatus());
+
+        final var lookup = new ArrayList<ValidationResult>();
+        new BinaryValidationResultReader().lookup(workDir, "object-1", lookup::add);
+        assertEquals(1, lookup.size());
+        assertEquals(OK, lookup.get(0).getStatus());
+    }
+
+    /**
+     * A run killed while validating an object leaves partial results, which the results of the resumed run supersede
+     */
+    @Test
+    public void testResumedObjectSupersedesPartialResults() {
+        final var killed = new BinaryValidationResultWriter(workDir, false, ResultCompression.gzip);
+        killed.accept(failed(0, "object-1"));
+        killed.accept(failed(0, "object-2"));
+        killed.close();
+
+        final var resumed = new BinaryValidationResultWriter(workDir, false, ResultCompression.gzip);
+        resumed.accept(result(0, "object-2", "DS1", 1));
+        resumed.accept(result(1, "object-2", "DS2", 1));
+        resumed.close();
+
+        final var read = readAll();
+        assertEquals(3, read.size());
+        assertEquals("object-1", read.get(0).getSourceObjectId());
+        assertTrue(read.subList(1, 3).stream().allMatch(result -> result.getStatus() == OK));
+
+        final var lookup = new ArrayList<ValidationResult>();
+        new BinaryValidationResultReader().lookup(workDir, "object-2", lookup::add);
+        assertEquals(2, lookup.size());
+    }
+
+    @Test
+    public void testReplaceWithNoResultsInFailureOnlyMode() {
+        final var first = new BinaryValidationResultWriter(workDir, true, ResultCompression.gzip);
+        first.accept(failed(0, "object-1"));
+        first.close();
+
+        final var second = new BinaryValidationResultWriter(workDir, true, true, ResultCompression.gzip,
+                                                            BinaryValidationResultWriter.DEFAULT_SEGMENT_RECORDS,
+                                                            BinaryValidationResultWriter.DEFAULT_BLOCK_BYTES);
+        second.accept(result(0, "object-1", "DS1", 1));
+        second.completeObject("object-1");
+        second.close();
+
+        assertTrue(readAll().isEmpty());
+    }
+
+    @Test
+    public void testEveryEnumConstantRoundTrips() throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        final var encoder = new BinaryResultCodec.Encoder(new DataOutputStream(bytes));
+        final var expected = new ArrayList<ValidationResult>();
+        for (final var status : Status.values()) {
+            for (final var level : ValidationLevel.values()) {
+                for (final var type : ValidationType.values()) {
+                    final var result = new ValidationResult(expected.size(), status, level, type, "object-1", null,
+                                                            null, null, "details");
+                    encoder.encode(result);
+                    expected.add(result);
+                }
+            }
+        }
+
+        final var decoder = new BinaryResultCodec.Decoder(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        for (final var result : expected) {
+            final var decoded = decoder.decode();
+            assertEquals(result.getStatus(), decoded.getStatus());
+            assertEquals(result.getValidationLevel(), decoded.getValidationLevel());
+            assertEquals(result.getValidationType(), decoded.getValidationType());
+        }
+        assertNull(decoder.decode());
+    }
+
+    private long writeManyResults(final Path root, final ResultCompression compression) throws IOException {
+        final var writer = new BinaryValidationResultWriter(root, false, compression);
+        for (int i = 0; i < 1000; i++) {
+            writer.accept(manyResults(i));
+        }
+        writer.close();
+        return Files.size(new BinaryValidationResultReader().segments(root).get(0));
+    }
+
+    private ValidationResult manyResults(final int i) {
+        return result(i, "object-" + (i / 50), "DS" + (i % 50), i * 1000L);
+    }
+
+    private ValidationResult failed(final int index, final String pid) {
+        return new ValidationResult(index, FAIL, OBJECT_RESOURCE, BINARY_CHECKSUM, pid, "info:fedora/" + pid,
+                                    pid + "/DS1", null, "checksum mismatch");
+    }
+
+    private ValidationResult result(final int index, final String pid, final String dsId, final long size) {
+        return new ValidationResult(index, OK, OBJECT_RESOURCE, BINARY_CHECKSUM, pid, "info:fedora/" + pid,
+                                    pid + "/" + dsId, null, TEMPLATE, new Object[] {"1", dsId, size, false});
+    }
+
+    private List<ValidationResult> readAll() {
+        final var results = new ArrayList<ValidationResult>();
+        new BinaryValidationResultReader().readAll(workDir, results::add);
+        return results;
+    }
+}
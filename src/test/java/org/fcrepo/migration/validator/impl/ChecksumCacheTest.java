@@ -0,0 +1,155 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.hash.HashCode;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Covers reuse of digests from the persistent checksum cache
+ *
+ * @author mikejritter
+ */
+public class ChecksumCacheTest {
+
+    private static final List<ChecksumAlgorithm> ALGORITHMS = List.of(ChecksumAlgorithm.md5,
+                                                                      ChecksumAlgorithm.sha512);
+
+    private Path workDir;
+    private Path cacheFile;
+    private Path datastream;
+
+    @Before
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("checksum-cache");
+        cacheFile = workDir.resolve("cache/checksum-cache.log");
+        datastream = workDir.resolve("datastream");
+        Files.writeString(datastream, "original content");
+    }
+
+    @After
+    public void teardown() {
+        FileUtils.deleteQuietly(workDir.toFile());
+    }
+
+    @Test
+    public void testDigestsPersistAcrossRuns() throws IOException {
+        final var expected = MultiDigester.digest(datastream, ALGORITHMS);
+        try (var cache = new ChecksumCache(cacheFile, ChecksumCacheMode.verify)) {
+            assertEquals(expected, cache.digest(datastream, ALGORITHMS));
+            assertEquals(0, cache.getHits());
+            assertEquals(2, cache.getMisses());
+        }
+
+        try (var cache = new ChecksumCache(cacheFile, ChecksumCacheMode.verify)) {
+            assertEquals(expected, cache.digest(datastream, ALGORITHMS));
+            assertEquals(2, cache.getHits());
+            assertEquals(0, cache.getMisses());
+
+            // an algorithm which was not cached is computed on its own
+            cache.digest(datastream, List.of(ChecksumAlgorithm.sha1));
+            assertEquals(1, cache.getMisses());
+        }
+    }
+
+    @Test
+    public void testVerifyDetectsChangedFile() throws IOException {
+        try (var cache = new ChecksumCache(cacheFile, ChecksumCacheMode.verify)) {
+            cache.digest(datastream, ALGORITHMS);
+        }
+
+        changeContent();
+        try (var cache = new ChecksumCache(cacheFile, ChecksumCacheMode.verify)) {
+            assertEquals(MultiDigester.digest(datastream, ALGORITHMS), cache.digest(datastream, ALGORITHMS));
+            assertEquals(0, cache.getHits());
+        }
+    }
+
+    @Test
+    public void testTrustIgnoresFileMetadata() throws IOException {
+        final var original = MultiDigester.digest(datastream, ALGORITHMS);
+        try (var cache = new ChecksumCache(cacheFile, ChecksumCacheMode.verify)) {
+            cache.digest(datastream, ALGORITHMS);
+        }
+
+        changeContent();
+        try (var cache = new ChecksumCache(cacheFile, ChecksumCacheMode.trust)) {
+            assertEquals(original, cache.digest(datastream, ALGORITHMS));
+            assertEquals(2, cache.getHits());
+        }
+    }
+
+    @Test
+    public void testIncompleteRecordIsTruncated() throws IOException {
+        try (var cache = new ChecksumCache(cacheFile, ChecksumCacheMode.verify)) {
+            cache.digest(datastream, ALGORITHMS);
+        }
+        final var size = Files.size(cacheFile);
+
+        // simulate a record which was only partially written
+        Files.write(cacheFile, new byte[] {0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+        try (var cache = new ChecksumCache(cacheFile, ChecksumCacheMode.verify)) {
+            cache.digest(datastream, ALGORITHMS);
+            assertEquals(2, cache.getHits());
+        }
+        assertEquals(size, Files.size(cacheFile));
+    }
+
+    @Test
+    public void testMemoSharesDigestsWithinRun() throws Exception {
+        final var expected = MultiDigester.digest(datastream, ALGORITHMS);
+        final var link = Files.createLink(workDir.resolve("link"), datastream);
+        try (var cache = new ChecksumCache(null, ChecksumCacheMode.off, 100)) {
+            final var executor = Executors.newFixedThreadPool(4);
+            try {
+                final var futures = new ArrayList<Future<Map<ChecksumAlgorithm, HashCode>>>();
+                for (int i = 0; i < 8; i++) {
+                    final var path = i % 2 == 0 ? datastream : link;
+                    futures.add(executor.submit(() -> cache.digest(path, ALGORITHMS)));
+                }
+                for (final var future : futures) {
+                    assertEquals(expected, future.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            // only the first request for each algorithm computes a digest, the hard link shares it
+            assertEquals(7 * ALGORITHMS.size(), cache.getShared());
+        }
+    }
+
+    @Test
+    public void testMemoDisabled() throws IOException {
+        try (var cache = new ChecksumCache(null, ChecksumCacheMode.off, 0)) {
+            cache.digest(datastream, ALGORITHMS);
+            cache.digest(datastream, ALGORITHMS);
+            assertEquals(0, cache.getShared());
+        }
+    }
+
+    private void changeContent() throws IOException {
+        final var modified = Files.getLastModifiedTime(datastream).toMillis();
+        Files.writeString(datastream, "updated content!");
+        Files.setLastModifiedTime(datastream, FileTime.fromMillis(modified + 5000));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Covers byte for byte comparisons of files
+ *
+ * @author mikejritter
+ */
+public class ContentComparatorTest {
+
+    private Path workDir;
+    private byte[] content;
+    private Path source;
+
+    @Before
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("content-comparator");
+        // larger than the comparison buffer so differences can fall past the first chunk
+        content = new byte[2 * 1024 * 1024 + 100];
+        new Random(3).nextBytes(content);
+        source = Files.write(workDir.resolve("source"), content);
+    }
+
+    @After
+    public void teardown() {
+        FileUtils.deleteQuietly(workDir.toFile());
+    }
+
+    @Test
+    public void testIdenticalFiles() throws IOException {
+        final var target = Files.write(workDir.resolve("target"), content);
+        assertFalse(ContentComparator.isSameFile(source, target));
+        assertEquals(-1, ContentComparator.mismatch(source, target));
+    }
+
+    @Test
+    public void testFirstDifferenceOffset() throws IOException {
+        final var changed = Arrays.copyOf(content, content.length);
+        final var offset = 1024 * 1024 + 37;
+        changed[offset] ^= 1;
+        changed[offset + 10] ^= 1;
+        final var target = Files.write(workDir.resolve("target"), changed);
+        assertEquals(offset, ContentComparator.mismatch(source, target));
+    }
+
+    @Test
+    public void testTruncatedFile() throws IOException {
+        final var target = Files.write(workDir.resolve("target"), Arrays.copyOf(content, content.length - 1));
+        assertEquals(content.length - 1, ContentComparator.mismatch(source, target));
+        assertEquals(content.length - 1, ContentComparator.mismatch(target, source));
+    }
+
+    @Test
+    public void testHardLink() throws IOException {
+        final var link = Files.createLink(workDir.resolve("link"), source);
+        assertTrue(ContentComparator.isSameFile(source, link));
+        assertEquals(-1, ContentComparator.mismatch(source, link));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.OK;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel.OBJECT_RESOURCE;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.BINARY_CHECKSUM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.impl.DatastreamPartitions.Partition;
+import org.fcrepo.storage.ocfl.OcflObjectSession;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Covers validating the datastreams of an object in partitions
+ *
+ * @author mikejritter
+ */
+public class DatastreamPartitionsTest {
+
+    private static final String PID = "info:fedora/test:1";
+
+    private ExecutorService executor;
+    private final List<ValidationResult> results = new CopyOnWriteArrayList<>();
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The results of every partition are merged in order, with the indexes they would have if the datastreams were
+     * validated one after another
+     */
+    @Test(timeout = 10_000)
+    public void testResultIndexes() {
+        final var dsIds = dsIds(300);
+        // a queue smaller than a partition so the later partitions wait to be merged
+        new DatastreamPartitions(executor, 4).validate(dsIds, 3, first(), this::openSession, this::validate);
+
+        assertEquals(dsIds.size() * 2, results.size());
+        for (var i = 0; i < results.size(); i++) {
+            final var result = results.get(i);
+            assertEquals(i, result.getIndex());
+            assertEquals(dsIds.get(i / 2), result.getSourceResourceId());
+        }
+        assertEquals(2, opened.get());
+        assertEquals(2, closed.get());
+    }
+
+    @Test(timeout = 10_000)
+    public void testPartitionFailure() throws InterruptedException {
+        final var dsIds = dsIds(300);
+        try {
+            new DatastreamPartitions(executor, 4).validate(dsIds, 3, first(), this::openSession, (dsId, partition) -> {
+                if (dsId.equals(dsIds.get(150))) {
+                    throw new IllegalStateException("failed " + dsId);
+                }
+                validate(dsId, partition);
+            });
+            fail("Expected the failure of the partition");
+        } catch (IllegalStateException e) {
+            assertEquals("failed " + dsIds.get(150), e.getMessage());
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, opened.get());
+        assertEquals(2, closed.get());
+    }
+
+    /**
+     * Once the first partition fails, the partitions waiting to hand over their results are released
+     */
+    @Test(timeout = 10_000)
+    public void testFirstPartitionFailure() throws InterruptedException {
+        final var dsIds = dsIds(300);
+        try {
+            new DatastreamPartitions(executor, 1).validate(dsIds, 3, first(), this::openSession, (dsId, partition) -> {
+                if (dsId.equals(dsIds.get(50))) {
+                    throw new IllegalStateException("failed " + dsId);
+                }
+                validate(dsId, partition);
+            });
+            fail("Expected the failure of the partition");
+        } catch (IllegalStateException e) {
+            assertEquals("failed " + dsIds.get(50), e.getMessage());
+        }
+
+        executor.shutdown();
+        assertTrue("Partitions should not wait once the object failed", executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, opened.get());
+        assertEquals(2, closed.get());
+    }
+
+    private void validate(final String dsId, final Partition partition) {
+        for (var i = 0; i < 2; i++) {
+            partition.sink().accept(new ValidationResult(partition.index().getAndIncrement(), OK, OBJECT_RESOURCE,
+                                                         BINARY_CHECKSUM, PID, PID, dsId, dsId, "checked " + i));
+        }
+    }
+
+    private Partition first() {
+        return new Partition(session(), results::add, new AtomicInteger());
+    }
+
+    private static List<String> dsIds(final int count) {
+        return IntStream.range(0, count).mapToObj(i -> PID + "/DS" + i).collect(Collectors.toList());
+    }
+
+    private OcflObjectSession openSession() {
+        opened.incrementAndGet();
+        return session();
+    }
+
+    /**
+     * Create a session which only counts whether it is closed
+     */
+    private OcflObjectSession session() {
+        return (OcflObjectSession) Proxy.newProxyInstance(
+            OcflObjectSession.class.getClassLoader(), new Class<?>[] {OcflObjectSession.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    closed.incrementAndGet();
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Records object outcomes in the failed object index and reloads them
+ *
+ * @author mikejritter
+ */
+public class FailedObjectIndexTest {
+
+    private Path workDir;
+    private Path foxml1;
+    private Path foxml2;
+
+    @Before
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("failed-object-index-test");
+        foxml1 = Files.createFile(workDir.resolve("object-1.xml")).toRealPath();
+        foxml2 = Files.createFile(workDir.resolve("object-2.xml")).toRealPath();
+    }
+
+    @After
+    public void teardown() {
+        FileUtils.deleteQuietly(workDir.toFile());
+    }
+
+    @Test
+    public void testLatestOutcomeWins() {
+        final var index = new FailedObjectIndex(workDir);
+        index.record("object-1", true, foxml1);
+        index.record("object-2", true, foxml2);
+        index.record("object-3", false, null);
+        index.record("object-2", false, foxml2);
+
+        assertEquals(Map.of("object-1", foxml1.toString()), index.failures());
+    }
+
+    @Test
+    public void testReloadInterruptedRun() {
+        final var index = new FailedObjectIndex(workDir);
+        index.record("object-1", true, foxml1);
+        index.record("object-2", true, foxml2);
+        index.record("object-1", false, foxml1);
+
+        // not closed, as when the run is interrupted
+        assertEquals(Map.of("object-2", foxml2.toString()), new FailedObjectIndex(workDir).failures());
+        index.close();
+    }
+
+    @Test
+    public void testCloseCompactsToFailures() throws IOException {
+        final var index = new FailedObjectIndex(workDir);
+        for (int i = 0; i < 10; i++) {
+            index.record("object-" + i, i == 0, foxml1);
+        }
+        index.close();
+
+        final var lines = Files.readAllLines(workDir.resolve(FailedObjectIndex.FILE_NAME));
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("object-0\tFAIL\t"));
+        assertEquals(Map.of("object-0", foxml1.toString()), new FailedObjectIndex(workDir).failures());
+    }
+
+    @Test
+    public void testRecordsTargetOfLinkedFoxml() throws IOException {
+        final var link = Files.createSymbolicLink(workDir.resolve("link.xml"), foxml1);
+        final var index = new FailedObjectIndex(workDir);
+        index.record("object-1", true, link);
+        index.close();
+
+        assertEquals(Map.of("object-1", foxml1.toString()), new FailedObjectIndex(workDir).failures());
+    }
+}
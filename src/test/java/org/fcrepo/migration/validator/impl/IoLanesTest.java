@@ -0,0 +1,109 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Covers the per device concurrency limits of I/O lanes
+ *
+ * @author mikejritter
+ */
+public class IoLanesTest {
+
+    private Path workDir;
+    private Path first;
+    private Path second;
+
+    @Before
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("io-lanes");
+        first = Files.writeString(workDir.resolve("first"), "first");
+        second = Files.writeString(workDir.resolve("second"), "second");
+    }
+
+    @After
+    public void teardown() throws IOException {
+        FileUtils.deleteDirectory(workDir.toFile());
+    }
+
+    @Test
+    public void testLimitPerDevice() throws Exception {
+        final var lanes = new IoLanes(2, Map.of());
+        assertEquals(2, maxConcurrency(lanes, List.of(first)));
+    }
+
+    @Test
+    public void testPathLimitOverridesDefault() throws Exception {
+        final var lanes = new IoLanes(4, Map.of(workDir, 1));
+        assertEquals(1, maxConcurrency(lanes, List.of(first)));
+    }
+
+    @Test
+    public void testSharedDeviceAcquiredOnce() throws Exception {
+        // both files are on the same device, so a limit of 1 must not block the second acquire
+        final var lanes = new IoLanes(1, Map.of());
+        assertEquals("first", lanes.call(List.of(first, second), () -> Files.readString(first)));
+    }
+
+    @Test
+    public void testUnlimited() throws Exception {
+        assertEquals(6, maxConcurrency(IoLanes.unlimited(), List.of(first, second)));
+    }
+
+    @Test
+    public void testMissingFileIsNotLimited() throws Exception {
+        final var lanes = new IoLanes(1, Map.of());
+        assertEquals("ok", lanes.call(workDir.resolve("missing"), () -> "ok"));
+    }
+
+    /**
+     * Run 6 concurrent operations in the lanes of the paths and return the most which ran at the same time
+     */
+    private int maxConcurrency(final IoLanes lanes, final List<Path> paths) throws Exception {
+        final var running = new AtomicInteger();
+        final var max = new AtomicInteger();
+        final var executor = Executors.newFixedThreadPool(6);
+        try {
+            final List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                final Callable<Object> task = () -> lanes.call(paths, () -> {
+                    max.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return running.decrementAndGet();
+                });
+                futures.add(executor.submit(task));
+            }
+            for (final var future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return max.get();
+    }
+}
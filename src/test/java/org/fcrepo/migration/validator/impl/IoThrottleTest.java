@@ -0,0 +1,72 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Covers rate limiting of reads with token buckets
+ *
+ * @author mikejritter
+ */
+public class IoThrottleTest {
+
+    @Test
+    public void testUnlimitedDoesNotBlock() {
+        final var throttle = IoThrottle.unlimited("test");
+        final var start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            throttle.acquireBytes(Long.MAX_VALUE / 2);
+            throttle.acquireOp();
+        }
+        assertTrue(elapsedMillis(start) < 500);
+    }
+
+    @Test
+    public void testBytesPerSecond() {
+        final var throttle = new IoThrottle("test", 1000, 0);
+        final var start = System.nanoTime();
+        // the first second is available as a burst, the next half second must be waited for
+        throttle.acquireBytes(1000);
+        throttle.acquireBytes(500);
+        final var elapsed = elapsedMillis(start);
+        assertTrue("elapsed " + elapsed, elapsed >= 400);
+        assertTrue("elapsed " + elapsed, elapsed < 2000);
+    }
+
+    @Test
+    public void testOpsPerSecond() {
+        final var throttle = new IoThrottle("test", 0, 10);
+        final var start = System.nanoTime();
+        for (int i = 0; i < 15; i++) {
+            throttle.acquireOp();
+        }
+        final var elapsed = elapsedMillis(start);
+        assertTrue("elapsed " + elapsed, elapsed >= 400);
+        assertTrue("elapsed " + elapsed, elapsed < 2000);
+    }
+
+    @Test
+    public void testChangeRateAtRuntime() {
+        final var throttle = new IoThrottle("test", 10, 0);
+        throttle.acquireBytes(10);
+
+        throttle.setBytesPerSecond(0);
+        assertEquals(0, throttle.getBytesPerSecond());
+        final var start = System.nanoTime();
+        throttle.acquireBytes(1_000_000);
+        assertTrue(elapsedMillis(start) < 500);
+    }
+
+    private static long elapsedMillis(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
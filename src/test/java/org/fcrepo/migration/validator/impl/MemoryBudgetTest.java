@@ -0,0 +1,89 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Covers admission of objects by their estimated memory
+ *
+ * @author mikejritter
+ */
+public class MemoryBudgetTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void testUnlimited() throws InterruptedException {
+        final var budget = MemoryBudget.unlimited();
+        assertFalse(budget.isLimited());
+        assertFalse(budget.exceeds(Long.MAX_VALUE));
+        assertEquals(0, budget.acquire(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testObjectsWithinBudget() throws InterruptedException {
+        final var budget = new MemoryBudget(10 * MB);
+        final var first = budget.acquire(4 * MB);
+        final var second = budget.acquire(4 * MB);
+        assertEquals(8 * 1024, first + second);
+        budget.release(first);
+        budget.release(second);
+    }
+
+    @Test
+    public void testWaitsForMemory() throws InterruptedException {
+        final var budget = new MemoryBudget(10 * MB);
+        final var first = budget.acquire(8 * MB);
+
+        final var acquired = new CountDownLatch(1);
+        final var thread = new Thread(() -> {
+            try {
+                budget.release(budget.acquire(4 * MB));
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        budget.release(first);
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOversizedObjectRunsAlone() throws InterruptedException {
+        final var budget = new MemoryBudget(10 * MB);
+        assertTrue(budget.exceeds(100 * MB));
+
+        // an oversized object takes the whole budget instead of waiting forever
+        final var oversized = budget.acquire(100 * MB);
+        assertEquals(10 * 1024, oversized);
+
+        final var acquired = new CountDownLatch(1);
+        final var thread = new Thread(() -> {
+            try {
+                budget.release(budget.acquire(1));
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        budget.release(oversized);
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+    }
+}
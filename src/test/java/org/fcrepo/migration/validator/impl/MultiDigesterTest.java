@@ -0,0 +1,79 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Covers single pass hashing with multiple algorithms
+ *
+ * @author mikejritter
+ */
+public class MultiDigesterTest {
+
+    @Test
+    public void testDigestMatchesSingleAlgorithm() throws IOException {
+        // larger than the read buffer so the content is hashed across several chunks
+        final var content = new byte[200 * 1024 + 17];
+        new Random(42).nextBytes(content);
+
+        final var algorithms = EnumSet.allOf(ChecksumAlgorithm.class);
+        final var digests = MultiDigester.digest(new ByteArrayInputStream(content), algorithms);
+
+        assertEquals(algorithms, digests.keySet());
+        for (final var algorithm : algorithms) {
+            final var expected = algorithm.hasher().putBytes(content).hash();
+            assertEquals(algorithm.name(), expected, digests.get(algorithm));
+        }
+    }
+
+    @Test
+    public void testFileDigestMatchesStreamDigest() throws IOException {
+        // larger than the direct buffer so the file is read across several chunks
+        final var content = new byte[3 * 1024 * 1024 + 5];
+        new Random(7).nextBytes(content);
+        final var file = Files.createTempFile("multi-digester", ".bin");
+        try {
+            Files.write(file, content);
+            final var algorithms = EnumSet.allOf(ChecksumAlgorithm.class);
+            final var fromFile = MultiDigester.digest(file, algorithms);
+            final var fromStream = MultiDigester.digest(new ByteArrayInputStream(content), algorithms);
+            assertEquals(fromStream, fromFile);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testDigestKnownValues() throws IOException {
+        final var content = "abc".getBytes();
+        final var digests = MultiDigester.digest(new ByteArrayInputStream(content),
+                                                 List.of(ChecksumAlgorithm.md5, ChecksumAlgorithm.sha1));
+
+        assertEquals("900150983cd24fb0d6963f7d28e17f72", digests.get(ChecksumAlgorithm.md5).toString());
+        assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", digests.get(ChecksumAlgorithm.sha1).toString());
+    }
+
+    @Test
+    public void testAlgorithmNames() {
+        assertEquals(ChecksumAlgorithm.sha512, ChecksumAlgorithm.fromUrn("urn:sha-512:abcd").orElseThrow());
+        assertEquals(ChecksumAlgorithm.sha1, ChecksumAlgorithm.fromUrn("urn:sha-1:abcd").orElseThrow());
+        assertEquals(ChecksumAlgorithm.md5, ChecksumAlgorithm.fromFoxmlType("MD5").orElseThrow());
+        assertEquals(ChecksumAlgorithm.sha256, ChecksumAlgorithm.fromOcflName("sha256").orElseThrow());
+        assertFalse(ChecksumAlgorithm.fromFoxmlType("DISABLED").isPresent());
+        assertFalse(ChecksumAlgorithm.fromUrn("urn:sha-512256:abcd").isPresent());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.fcrepo.migration.validator.impl.ObjectCostEstimator.FOXML_MEMORY_FACTOR;
+import static org.fcrepo.migration.validator.impl.ObjectCostEstimator.RDF_MEMORY_FACTOR;
+import static org.fcrepo.migration.validator.impl.ObjectCostEstimator.VERSION_COST;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Covers estimating the cost of an object from its FOXML
+ *
+ * @author mikejritter
+ */
+public class ObjectCostEstimatorTest {
+
+    private Path workDir;
+
+    @Before
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("object-cost");
+    }
+
+    @After
+    public void teardown() throws IOException {
+        FileUtils.deleteDirectory(workDir.toFile());
+    }
+
+    @Test
+    public void testSizesAndVersions() throws IOException {
+        final var foxml = write("<foxml:digitalObject PID=\"test:1\">",
+                                "<foxml:datastream ID=\"DS1\" CONTROL_GROUP=\"M\">",
+                                "<foxml:datastreamVersion ID=\"DS1.0\" MIMETYPE=\"image/tiff\" SIZE=\"1000\">",
+                                "</foxml:datastreamVersion>",
+                                "<foxml:datastreamVersion ID=\"DS1.1\" MIMETYPE=\"image/tiff\" SIZE=\"2000\">",
+                                "</foxml:datastreamVersion>",
+                                "</foxml:datastream>",
+                                "</foxml:digitalObject>");
+        assertEquals(Files.size(foxml) + 2 * VERSION_COST + 3000, ObjectCostEstimator.estimate(foxml));
+    }
+
+    @Test
+    public void testMissingSize() throws IOException {
+        final var foxml = write("<foxml:digitalObject PID=\"test:1\">",
+                                "<foxml:datastreamVersion ID=\"DS1.0\" MIMETYPE=\"image/tiff\">",
+                                "</foxml:datastreamVersion>",
+                                "</foxml:digitalObject>");
+        assertEquals(Files.size(foxml) + VERSION_COST, ObjectCostEstimator.estimate(foxml));
+    }
+
+    @Test
+    public void testMoreVersionsCostMore() throws IOException {
+        final var small = write("<datastreamVersion ID=\"DS1.0\" SIZE=\"10\">");
+        final var large = write("<datastreamVersion ID=\"DS1.0\" SIZE=\"10\">",
+                                "<datastreamVersion ID=\"DS1.1\" SIZE=\"10\">");
+        assertTrue(ObjectCostEstimator.estimate(large) > ObjectCostEstimator.estimate(small));
+    }
+
+    @Test
+    public void testMalformedUtf8() throws IOException {
+        final var foxml = writeLatin1("<foxml:datastreamVersion ID=\"DS1.0\" LABEL=\"caf\u00e9\" SIZE=\"1000\">");
+        assertEquals(Files.size(foxml) + VERSION_COST + 1000, ObjectCostEstimator.estimate(foxml));
+    }
+
+    @Test
+    public void testMemoryCountsRelsInt() throws IOException {
+        final var foxml = write("<foxml:digitalObject PID=\"test:1\">",
+                                "<foxml:datastream ID=\"DS1\" CONTROL_GROUP=\"M\">",
+                                "<foxml:datastreamVersion ID=\"DS1.0\" MIMETYPE=\"image/tiff\" SIZE=\"5000\">",
+                                "</foxml:datastreamVersion>",
+                                "</foxml:datastream>",
+                                "<foxml:datastream ID=\"RELS-INT\" CONTROL_GROUP=\"X\">",
+                                "<foxml:datastreamVersion ID=\"RELS-INT.0\" MIMETYPE=\"text/xml\" SIZE=\"100\">",
+                                "</foxml:datastreamVersion>",
+                                "<foxml:datastreamVersion ID=\"RELS-INT.1\" MIMETYPE=\"text/xml\" SIZE=\"200\">",
+                                "</foxml:datastreamVersion>",
+                                "</foxml:datastream>",
+                                "</foxml:digitalObject>");
+        final var expected = Files.size(foxml) * FOXML_MEMORY_FACTOR + 300 * RDF_MEMORY_FACTOR;
+        assertEquals(expected, ObjectCostEstimator.estimateMemory(foxml));
+    }
+
+    @Test
+    public void testMemoryMalformedUtf8() throws IOException {
+        final var foxml = writeLatin1("<foxml:datastream ID=\"RELS-INT\" CONTROL_GROUP=\"X\">",
+                                      "<foxml:datastreamVersion ID=\"RELS-INT.0\" LABEL=\"caf\u00e9\" SIZE=\"100\">");
+        final var expected = Files.size(foxml) * FOXML_MEMORY_FACTOR + 100 * RDF_MEMORY_FACTOR;
+        assertEquals(expected, ObjectCostEstimator.estimateMemory(foxml));
+    }
+
+    private Path write(final String... lines) throws IOException {
+        return Files.write(Files.createTempFile(workDir, "foxml", ".xml"), List.of(lines));
+    }
+
+    /**
+     * Write the lines as ISO-8859-1, so that any non-ascii character is not valid UTF-8
+     */
+    private Path writeLatin1(final String... lines) throws IOException {
+        return Files.write(Files.createTempFile(workDir, "foxml", ".xml"), List.of(lines), ISO_8859_1);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import org.apache.commons.io.FileUtils;
+import org.fcrepo.migration.ObjectInfo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Records object fingerprints and detects changes to the source and target of an object
+ *
+ * @author mikejritter
+ */
+public class ObjectFingerprintIndexTest {
+
+    private static final Path OCFL_ROOT =
+        Paths.get("src/test/resources/test-object-validation/valid/f6/data/ocfl-root");
+    private static final Path FOXML = Paths.get("src/test/resources/test-object-validation/valid/f3/objects/dlmap/3/" +
+                                                "18/c4/info%3Afedora%2F1711.dl%3AUWPAbout");
+    private static final String PID = "1711.dl:UWPAbout";
+
+    private Path workDir;
+    private Path foxml;
+    private ObjectInfo info;
+
+    @Before
+    public void setup() throws IOException {
+        workDir = Files.createTempDirectory("fingerprint-index-test");
+        foxml = Files.copy(FOXML, workDir.resolve("foxml.xml"), StandardCopyOption.COPY_ATTRIBUTES);
+        info = new ObjectInfo() {
+            @Override
+            public String getPid() {
+                return PID;
+            }
+
+            @Override
+            public String getFedoraURI() {
+                return "info:fedora/" + PID;
+            }
+
+            @Override
+            public Path getFoxmlPath() {
+                return foxml;
+            }
+        };
+    }
+
+    @After
+    public void teardown() {
+        FileUtils.deleteQuietly(workDir.toFile());
+    }
+
+    @Test
+    public void testSourceFingerprint() throws IOException {
+        final var fingerprint = ObjectFingerprintIndex.sourceFingerprint(foxml);
+        assertTrue(fingerprint, fingerprint.startsWith(Files.size(foxml) + ":"));
+        assertTrue(fingerprint, fingerprint.endsWith(":2019-07-25T17:43:56.259Z"));
+    }
+
+    @Test
+    public void testUnchangedAfterRecord() {
+        final var index = new ObjectFingerprintIndex(workDir, new OcflInventoryReader(OCFL_ROOT));
+        assertFalse("an object which was never validated has changed", index.isUnchanged(info));
+
+        index.record(PID, index.fingerprint(info).orElseThrow());
+        index.close();
+
+        final var reloaded = new ObjectFingerprintIndex(workDir, new OcflInventoryReader(OCFL_ROOT));
+        assertTrue(reloaded.isUnchanged(info));
+        assertEquals(2, reloaded.fingerprint(info).orElseThrow().chars().filter(c -> c == '|').count());
+    }
+
+    @Test
+    public void testChangedOptions() {
+        final var index = new ObjectFingerprintIndex(workDir, new OcflInventoryReader(OCFL_ROOT), "checksum=false");
+        index.record(PID, index.fingerprint(info).orElseThrow());
+        index.close();
+
+        assertTrue(new ObjectFingerprintIndex(workDir, new OcflInventoryReader(OCFL_ROOT), "checksum=false")
+                       .isUnchanged(info));
+        assertFalse("an object validated with other options has changed",
+                    new ObjectFingerprintIndex(workDir, new OcflInventoryReader(OCFL_ROOT), "checksum=true")
+                        .isUnchanged(info));
+    }
+
+    @Test
+    public void testChangedSource() throws IOException {
+        final var index = new ObjectFingerprintIndex(workDir, new OcflInventoryReader(OCFL_ROOT));
+        index.record(PID, index.fingerprint(info).orElseThrow());
+
+        Files.setLastModifiedTime(foxml, FileTime.fromMillis(Files.getLastModifiedTime(foxml).toMillis() + 1000));
+        assertFalse(index.isUnchanged(info));
+
+        index.record(PID, index.fingerprint(info).orElseThrow());
+        Files.writeString(foxml, "\n", StandardOpenOption.APPEND);
+        assertFalse(index.isUnchanged(info));
+    }
+
+    @Test
+    public void testChangedTarget() throws IOException {
+        final var ocflRoot = workDir.resolve("ocfl-root");
+        FileUtils.copyDirectory(OCFL_ROOT.toFile(), ocflRoot.toFile());
+        final var index = new ObjectFingerprintIndex(workDir, new OcflInventoryReader(ocflRoot));
+        index.record(PID, index.fingerprint(info).orElseThrow());
+
+        try (var files = Files.walk(ocflRoot)) {
+            final var sidecars = files.filter(file -> file.getFileName().toString().equals("inventory.json.sha512"))
+                                      .toArray(Path[]::new);
+            for (final var sidecar : sidecars) {
+                Files.writeString(sidecar, "0000\tinventory.json");
+            }
+        }
+        assertFalse(index.isUnchanged(info));
+    }
+}
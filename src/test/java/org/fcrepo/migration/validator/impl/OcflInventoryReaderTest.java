@@ -0,0 +1,101 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+
+/**
+ * Covers reading OCFL inventories with the streaming reader
+ *
+ * @author mikejritter
+ */
+public class OcflInventoryReaderTest {
+
+    private static final Path OCFL_ROOT =
+        Paths.get("src/test/resources/test-object-validation/valid/f6/data/ocfl-root");
+    private static final String OBJECT_ID = "info:fedora/1711.dl:UWPAbout";
+    private static final String DC_DIGEST = "2453ac6c73b82a4a46a3270989f00801a5c9f72b51099a4ca2ce032c5ffc4b0b8a3563f6" +
+                                            "356ef03938a6a28386639d5ba6e97fdc72d56e361a8d935da715d1d4";
+
+    @Test
+    public void testReadInventory() {
+        final var reader = new OcflInventoryReader(OCFL_ROOT);
+        final var inventory = reader.read(OBJECT_ID).orElseThrow();
+
+        assertEquals(OBJECT_ID, inventory.getObjectId());
+        assertEquals("sha512", inventory.getDigestAlgorithm());
+        assertEquals(1, inventory.getHead());
+        assertEquals(1, inventory.getVersionCount());
+
+        final var storagePath = inventory.getStorageRelativePath("v1", "DC").orElseThrow();
+        assertTrue(storagePath.endsWith("/v1/content/DC"));
+        assertTrue(Files.exists(OCFL_ROOT.resolve(storagePath)));
+        assertEquals(DC_DIGEST, inventory.getDigest("v1", "DC").orElseThrow());
+
+        assertFalse(inventory.getStorageRelativePath("v1", "NOT-A-FILE").isPresent());
+        assertFalse(inventory.getStorageRelativePath("v2", "DC").isPresent());
+    }
+
+    @Test
+    public void testReadMissingObject() {
+        final var reader = new OcflInventoryReader(OCFL_ROOT);
+        assertFalse(reader.read("info:fedora/does-not-exist").isPresent());
+    }
+
+    @Test
+    public void testFingerprint() {
+        final var reader = new OcflInventoryReader(OCFL_ROOT);
+        assertEquals("v1:0bb0fe4dfdc7d2fb5661be89115608158e997bbb1fca6beaccec6cb2853ae2231a774f7c924dfb1e3a53edca" +
+                     "4785d749a53700a5f4726c52d0b583872b076522", reader.fingerprint(OBJECT_ID).orElseThrow());
+        assertFalse(reader.fingerprint("info:fedora/does-not-exist").isPresent());
+    }
+
+    @Test
+    public void testObjectRootPath() {
+        final var reader = new OcflInventoryReader(OCFL_ROOT);
+        final var objectRootPath = reader.objectRootPath(OBJECT_ID);
+        assertTrue(Files.exists(OCFL_ROOT.resolve(objectRootPath).resolve("inventory.json")));
+        assertEquals(4, reader.objectRootDepth());
+    }
+
+    @Test
+    public void testParseSkipsUnusedBlocks() throws IOException {
+        final var json = "{\"id\":\"obj\",\"digestAlgorithm\":\"sha512\",\"head\":\"v2\"," +
+                         "\"fixity\":{\"md5\":{\"abc\":[\"v1/content/a\"]}}," +
+                         "\"manifest\":{\"AA\":[\"v1/content/a\"],\"bb\":[\"v2/content/b\"]}," +
+                         "\"versions\":{" +
+                         "\"v1\":{\"created\":\"2020-01-01T00:00:00Z\",\"state\":{\"aa\":[\"a\"]}," +
+                         "\"user\":{\"name\":\"test\"}}," +
+                         "\"v2\":{\"message\":\"update\",\"state\":{\"aa\":[\"a\"],\"bb\":[\"b\",\"c\"]}}}}";
+        final var reader = new OcflInventoryReader(OCFL_ROOT);
+        final var inventory = reader.parse("root", new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, inventory.getHead());
+        assertEquals("root/v1/content/a", inventory.getStorageRelativePath("v2", "a").orElseThrow());
+        assertEquals("root/v2/content/b", inventory.getStorageRelativePath("v2", "c").orElseThrow());
+        assertEquals("aa", inventory.getDigest("v1", "a").orElseThrow());
+        assertFalse(inventory.getStorageRelativePath("v1", "b").isPresent());
+    }
+
+    @Test
+    public void testParseVersion() {
+        assertEquals(1, OcflInventory.parseVersion("v1"));
+        assertEquals(12, OcflInventory.parseVersion("v0012"));
+        assertThrows(IllegalArgumentException.class, () -> OcflInventory.parseVersion("1"));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.fcrepo.migration.validator.api.ObjectValidationConfig;
+import org.fcrepo.storage.ocfl.ResourceHeaders;
+import org.junit.Test;
+
+/**
+ * Covers resolving the content files of an object from its inventory
+ *
+ * @author mikejritter
+ */
+public class OcflTargetResolverTest {
+
+    private static final Path OCFL_ROOT =
+        Paths.get("src/test/resources/test-object-validation/external-datastream/f6/data/ocfl-root");
+    private static final String OBJECT_ID = "info:fedora/1711.dl:UWPAbout";
+
+    private final OcflTargetResolver resolver = new OcflTargetResolver(OBJECT_ID, new ObjectValidationConfig(
+        OCFL_ROOT.toFile(), true, false, false, null, F6DigestAlgorithm.sha512));
+
+    @Test
+    public void testManagedContentPath() {
+        final var headers = ResourceHeaders.builder().withId(OBJECT_ID + "/REF").withContentPath("REF").build();
+
+        final var contentPath = resolver.getContentPath("v1", headers);
+        assertTrue(contentPath.isPresent());
+        assertTrue(Files.exists(contentPath.get()));
+        assertTrue(resolver.getInventoryDigest("v1", headers).isPresent());
+    }
+
+    /**
+     * External and redirect datastreams have no content file, so no content path
+     */
+    @Test
+    public void testExternalContentPath() {
+        final var headers = ResourceHeaders.builder()
+                                           .withId(OBJECT_ID + "/LINK")
+                                           .withExternalUrl("https://www.uwplatt.edu/about")
+                                           .withExternalHandling("proxy")
+                                           .build();
+
+        assertFalse(resolver.getContentPath("v1", headers).isPresent());
+        assertFalse(resolver.getInventoryDigest("v1", headers).isPresent());
+    }
+}
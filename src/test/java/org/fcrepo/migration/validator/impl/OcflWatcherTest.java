@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree.
+ */
+package org.fcrepo.migration.validator.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Covers finding new and updated objects in an OCFL root
+ *
+ * @author mikejritter
+ */
+public class OcflWatcherTest {
+
+    private static final long QUIET_MILLIS = 50;
+    private static final long SCAN_MILLIS = 200;
+
+    private Path ocflRoot;
+    private OcflWatcher watcher;
+
+    @Before
+    public void setup() throws IOException {
+        ocflRoot = Files.createTempDirectory("ocfl-watcher-test");
+        createObject("aaa/object-1");
+        watcher = new OcflWatcher(ocflRoot, 2, QUIET_MILLIS, SCAN_MILLIS);
+        watcher.start();
+    }
+
+    @After
+    public void teardown() {
+        watcher.close();
+        FileUtils.deleteQuietly(ocflRoot.toFile());
+    }
+
+    @Test
+    public void testExistingObjectsReturnedOnce() throws InterruptedException {
+        assertEquals(Set.of(Path.of("aaa/object-1")), watcher.poll(2, TimeUnit.SECONDS));
+        assertTrue(watcher.poll(SCAN_MILLIS * 2, TimeUnit.MILLISECONDS).isEmpty());
+    }
+
+    @Test
+    public void testNewObjects() throws Exception {
+        watcher.poll(2, TimeUnit.SECONDS);
+
+        // an object root is moved into place once its inventory is written, as ocfl-java does
+        final var staging = Files.createTempDirectory("ocfl-watcher-staging");
+        Files.writeString(staging.resolve("inventory.json"), "{}");
+        Files.move(staging, ocflRoot.resolve("aaa/object-2"));
+        createObject("bbb/object-3");
+
+        final var found = new HashSet<Path>();
+        final var deadline = System.currentTimeMillis() + 5000;
+        while (found.size() < 2 && System.currentTimeMillis() < deadline) {
+            found.addAll(watcher.poll(1, TimeUnit.SECONDS));
+        }
+        assertEquals(Set.of(Path.of("aaa/object-2"), Path.of("bbb/object-3")), found);
+    }
+
+    @Test
+    public void testUpdatedInventoryFoundByScan() throws Exception {
+        watcher.poll(2, TimeUnit.SECONDS);
+
+        final var inventory = ocflRoot.resolve("aaa/object-1/inventory.json");
+        Files.setLastModifiedTime(inventory,
+                                  FileTime.fromMillis(Files.getLastModifiedTime(inventory).toMillis() + 1000));
+        assertEquals(Set.of(Path.of("aaa/object-1")), watcher.poll(2, TimeUnit.SECONDS));
+    }
+
+    /**
+     * The objects below a new layout directory are found without waiting for the next scan
+     */
+    @Test
+    public void testNewLayoutDirectoryScanned() throws Exception {
+        try (var unscanned = new OcflWatcher(ocflRoot, 2, QUIET_MILLIS, TimeUnit.HOURS.toMillis(1))) {
+            unscanned.start();
+            assertEquals(Set.of(Path.of("aaa/object-1")), unscanned.poll(2, TimeUnit.SECONDS));
+
+            // the object is moved into place with its layout directory, before the directory can be watched
+            final var staging = Files.createTempDirectory("ocfl-watcher-staging");
+            Files.writeString(Files.createDirectories(staging.resolve("object-2")).resolve("inventory.json"), "{}");
+            Files.move(staging, ocflRoot.resolve("ccc"));
+
+            assertEquals(Set.of(Path.of("ccc/object-2")), unscanned.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testUpdatedMutableHeadFoundByScan() throws Exception {
+        watcher.poll(2, TimeUnit.SECONDS);
+
+        final var mutableHead = Files.createDirectories(
+            ocflRoot.resolve("aaa/object-1/extensions/0005-mutable-head/head"));
+        Files.writeString(mutableHead.resolve("inventory.json"), "{}");
+        assertEquals(Set.of(Path.of("aaa/object-1")), watcher.poll(2, TimeUnit.SECONDS));
+
+        final var inventory = mutableHead.resolve("inventory.json");
+        Files.setLastModifiedTime(inventory,
+                                  FileTime.fromMillis(Files.getLastModifiedTime(inventory).toMillis() + 1000));
+        assertEquals(Set.of(Path.of("aaa/object-1")), watcher.poll(2, TimeUnit.SECONDS));
+    }
+
+    private void createObject(final String objectRoot) throws IOException {
+        final var directory = Files.createDirectories(ocflRoot.resolve(objectRoot));
+        Files.writeString(directory.resolve("inventory.json"), "{}");
+    }
+}
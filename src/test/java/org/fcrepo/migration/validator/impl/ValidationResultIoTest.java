@@ -22,6 +22,7 @@
 import org.apache.commons.io.FileUtils;
 import org.fcrepo.migration.validator.api.ObjectReportSummary;
 import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.api.ValidationResultSink;
 import org.fcrepo.migration.validator.api.ValidationResultsSummary;
 import org.junit.After;
 import org.junit.Before;
@@ -78,6 +79,146 @@ public void testWriteFailureOnlySkipsPassingResults() {
                    Files.exists(jsonRoot.resolve(ValidationResultUtils.resolvePathToJsonResult(failed, id -> id))));
     }
 
+    @Test
+    public void testStreamResultsAsProduced() {
+        final var jsonRoot = workDir.resolve("stream");
+        final ValidationResultSink sink = new FileSystemValidationResultWriter(jsonRoot, false);
+        final var first = new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                               "first");
+        sink.accept(first);
+
+        // the first result is on disk before the second is produced
+        final var firstPath = jsonRoot.resolve(ValidationResultUtils.resolvePathToJsonResult(first, id -> id));
+        assertTrue(Files.exists(firstPath));
+
+        final var second = new ValidationResult(1, FAIL, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                                "second");
+        sink.accept(second);
+        final var secondPath = jsonRoot.resolve(ValidationResultUtils.resolvePathToJsonResult(second, id -> id));
+        assertEquals("second", new FileSystemValidationResultReader().read(secondPath.toFile()).getDetails());
+    }
+
+    @Test
+    public void testTemplateDetailsRenderedOnWrite() {
+        final var jsonRoot = workDir.resolve("template");
+        final var writer = new FileSystemValidationResultWriter(jsonRoot, false);
+        final var result = new ValidationResult(0, FAIL, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                                null, null, "object %s has %d errors", new Object[] {"object-1", 2});
+        final var reindexed = result.withIndex(5);
+        writer.write(List.of(reindexed));
+
+        final var written = jsonRoot.resolve(ValidationResultUtils.resolvePathToJsonResult(reindexed, id -> id));
+        final var read = new FileSystemValidationResultReader().read(written.toFile());
+        assertEquals(5, read.getIndex());
+        assertEquals("object object-1 has 2 errors", read.getDetails());
+    }
+
+    @Test
+    public void testFailureOnlyNeverRendersPassingDetails() {
+        final var writer = new FileSystemValidationResultWriter(workDir.resolve("failure-only-template"), true);
+        final var renders = new RenderCounter();
+        writer.write(List.of(new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                                  null, null, "object %s passed", new Object[] {renders})));
+
+        assertEquals("Passing details should not be rendered", 0, renders.count);
+    }
+
+    @Test
+    public void testReplaceResultsOfPreviousRun() {
+        final var jsonRoot = workDir.resolve("replace");
+        final var old = new ValidationResult(0, FAIL, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                             "not good");
+        final var extra = old.withIndex(1);
+        new FileSystemValidationResultWriter(jsonRoot, false).write(List.of(old, extra));
+
+        final var writer = new FileSystemValidationResultWriter(jsonRoot, false, true);
+        final var replacement = new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-1",
+                                                     "info:fedora/object-1", "all good");
+        writer.accept(replacement);
+
+        // the old results are current until the object is complete
+        final var path = jsonRoot.resolve(ValidationResultUtils.resolvePathToJsonResult(replacement, id -> id));
+        assertEquals(FAIL, new FileSystemValidationResultReader().read(path.toFile()).getStatus());
+
+        writer.completeObject("object-1");
+        assertEquals(OK, new FileSystemValidationResultReader().read(path.toFile()).getStatus());
+        assertFalse(Files.exists(jsonRoot.resolve(ValidationResultUtils.resolvePathToJsonResult(extra, id -> id))));
+    }
+
+    @Test
+    public void testReplaceWithNoResultsInFailureOnlyMode() {
+        final var jsonRoot = workDir.resolve("replace-failure-only");
+        final var old = new ValidationResult(0, FAIL, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                             "not good");
+        new FileSystemValidationResultWriter(jsonRoot, true).write(List.of(old));
+
+        final var writer = new FileSystemValidationResultWriter(jsonRoot, true, true);
+        writer.accept(new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                           "all good"));
+        writer.completeObject("object-1");
+
+        assertFalse(Files.exists(jsonRoot.resolve(ValidationResultUtils.resolvePathToJsonResult(old, id -> id))));
+    }
+
+    /**
+     * A run killed after the results in place were moved aside, but before the staged results were moved in, is
+     * rolled forward by the next writer
+     */
+    @Test
+    public void testRecoverInterruptedReplacement() throws IOException {
+        final var jsonRoot = workDir.resolve("recover");
+        final var stagingRoot = workDir.resolve("recover-staging");
+        final var old = new ValidationResult(0, FAIL, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                             "not good");
+        new FileSystemValidationResultWriter(jsonRoot, false).write(List.of(old));
+
+        final var killed = new FileSystemValidationResultWriter(jsonRoot, false, true);
+        killed.accept(new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                           "all good"));
+        final var relative = ValidationResultUtils.resolvePathToObjectResults("object-1", id -> id);
+        Files.createFile(stagingRoot.resolve(relative + ".replace"));
+        Files.move(jsonRoot.resolve(relative), stagingRoot.resolve(relative + ".replaced"));
+
+        new FileSystemValidationResultWriter(jsonRoot, false, true);
+
+        final var path = jsonRoot.resolve(ValidationResultUtils.resolvePathToJsonResult(old, id -> id));
+        assertEquals(OK, new FileSystemValidationResultReader().read(path.toFile()).getStatus());
+        assertFalse("The staging directory should be removed", Files.exists(stagingRoot));
+    }
+
+    /**
+     * The staged results of an object which was not complete when the run was killed are dropped
+     */
+    @Test
+    public void testDropIncompleteStagedResults() {
+        final var jsonRoot = workDir.resolve("incomplete");
+        final var old = new ValidationResult(0, FAIL, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                             "not good");
+        new FileSystemValidationResultWriter(jsonRoot, false).write(List.of(old));
+
+        final var killed = new FileSystemValidationResultWriter(jsonRoot, false, true);
+        killed.accept(new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                           "all good"));
+
+        new FileSystemValidationResultWriter(jsonRoot, false, true);
+
+        final var path = jsonRoot.resolve(ValidationResultUtils.resolvePathToJsonResult(old, id -> id));
+        assertEquals(FAIL, new FileSystemValidationResultReader().read(path.toFile()).getStatus());
+        assertFalse("The staging directory should be removed", Files.exists(workDir.resolve("incomplete-staging")));
+    }
+
+    @Test
+    public void testCloseRemovesStagingDirectory() {
+        final var jsonRoot = workDir.resolve("close");
+        final var writer = new FileSystemValidationResultWriter(jsonRoot, false, true);
+        writer.accept(new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                           "all good"));
+        writer.completeObject("object-1");
+        writer.close();
+
+        assertFalse("The staging directory should be removed", Files.exists(workDir.resolve("close-staging")));
+    }
+
     @Test
     public void testReadFailsOnMissingFile() {
         final var reader = new FileSystemValidationResultReader();
@@ -109,4 +250,17 @@ public void testResultsSummaryRejectsDuplicateReport() {
 
         assertThrows(IllegalArgumentException.class, () -> summary.addObjectReport("object-1", report));
     }
+
+    /**
+     * A details argument which counts how often the details are rendered
+     */
+    static class RenderCounter {
+        int count;
+
+        @Override
+        public String toString() {
+            count++;
+            return "rendered";
+        }
+    }
 }
@@ -7,13 +7,24 @@
 
 import org.apache.commons.io.FileUtils;
 import org.fcrepo.migration.validator.api.ReportHandler;
+import org.fcrepo.migration.validator.api.ValidationResult;
+import org.fcrepo.migration.validator.impl.BinaryValidationResultWriter;
+import org.fcrepo.migration.validator.impl.ResultCompression;
+import org.fcrepo.migration.validator.impl.ResultFormat;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.FAIL;
+import static org.fcrepo.migration.validator.api.ValidationResult.Status.OK;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationLevel.OBJECT;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.OBJECT_READABLE;
+import static org.fcrepo.migration.validator.api.ValidationResult.ValidationType.SOURCE_OBJECT_DELETED;
+
 /**
  * @author awoods
  * @since 2020-12-16
@@ -46,4 +57,61 @@ public void testGenerate() {
         Assert.assertEquals("index.html", reportFilename);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testGenerateFromBinaryResults() throws IOException {
+        final Path resultDir = Files.createTempDirectory("binary-results");
+        final Path outputDir = Files.createTempDirectory("binary-report");
+        try {
+            final var writer = new BinaryValidationResultWriter(resultDir, false, ResultCompression.gzip);
+            writer.accept(new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                               "readable"));
+            writer.accept(new ValidationResult(1, FAIL, OBJECT, SOURCE_OBJECT_DELETED, "object-1",
+                                               "info:fedora/object-1", "not deleted"));
+            writer.accept(new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-2", "info:fedora/object-2",
+                                               "readable"));
+            writer.close();
+
+            final var reportHandler = new CsvReportHandler(outputDir, ReportType.csv);
+            new ReportGeneratorImpl(resultDir, reportHandler, ResultFormat.binary).generate();
+
+            final var objectReport = Files.readAllLines(outputDir.resolve("object-1.csv"));
+            Assert.assertEquals("header and two results", 3, objectReport.size());
+            Assert.assertTrue(Files.exists(outputDir.resolve("object-2.csv")));
+        } finally {
+            FileUtils.deleteQuietly(resultDir.toFile());
+            FileUtils.deleteQuietly(outputDir.toFile());
+        }
+    }
+
+    /**
+     * An object validated again by a resumed run after a kill left its partial results in an earlier segment
+     */
+    @Test
+    public void testGenerateFromResumedBinaryResults() throws IOException {
+        final Path resultDir = Files.createTempDirectory("binary-results");
+        final Path outputDir = Files.createTempDirectory("binary-report");
+        try {
+            final var killed = new BinaryValidationResultWriter(resultDir, false, ResultCompression.gzip);
+            killed.accept(new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                               "readable"));
+            killed.close();
+
+            final var resumed = new BinaryValidationResultWriter(resultDir, false, ResultCompression.gzip);
+            resumed.accept(new ValidationResult(0, OK, OBJECT, OBJECT_READABLE, "object-1", "info:fedora/object-1",
+                                                "readable"));
+            resumed.accept(new ValidationResult(1, FAIL, OBJECT, SOURCE_OBJECT_DELETED, "object-1",
+                                                "info:fedora/object-1", "not deleted"));
+            resumed.close();
+
+            final var reportHandler = new CsvReportHandler(outputDir, ReportType.csv);
+            new ReportGeneratorImpl(resultDir, reportHandler, ResultFormat.binary).generate();
+
+            final var objectReport = Files.readAllLines(outputDir.resolve("object-1.csv"));
+            Assert.assertEquals("header and the two results of the resumed run", 3, objectReport.size());
+        } finally {
+            FileUtils.deleteQuietly(resultDir.toFile());
+            FileUtils.deleteQuietly(outputDir.toFile());
+        }
+    }
+
+}